@@ -1,36 +1,70 @@
 package com.project.laundryappui;
 
+import android.Manifest;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.Color;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
-import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
+import android.view.ViewTreeObserver;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.CheckBox;
 import android.widget.EditText;
 import android.widget.ImageView;
-import android.widget.ListView;
-import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
+import com.project.laundryappui.barcode.BarcodeRenderer;
+import com.project.laundryappui.customer.CustomerSuggestionAdapter;
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.CustomerIndex;
+import com.project.laundryappui.data.DashboardCounters;
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderIndex;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.data.PhoneNumbers;
+import com.project.laundryappui.data.WhatsappMessage;
 import com.project.laundryappui.network.SupabaseClient;
+import com.project.laundryappui.notification.TokenBucket;
+import com.project.laundryappui.order.OrderListAdapter;
+import com.project.laundryappui.order.OrderPager;
+import com.project.laundryappui.order.StoreOrderSource;
+import com.project.laundryappui.notification.WhatsappDispatcher;
+import com.project.laundryappui.notification.WhatsappSender;
+import com.project.laundryappui.print.BluetoothPrinterConnection;
+import com.project.laundryappui.print.EscPosEncoder;
+import com.project.laundryappui.print.PrintSpooler;
+import com.project.laundryappui.print.ReceiptEncoder;
+import com.project.laundryappui.scan.BatchScanActivity;
+import com.project.laundryappui.search.OrderSearch;
+import com.project.laundryappui.startup.StartupTraceLog;
+import com.project.laundryappui.startup.StartupTracer;
+import com.project.laundryappui.sync.ChangeFeed;
+import com.project.laundryappui.sync.DashboardReconciler;
+import com.project.laundryappui.sync.OrderFeed;
+import com.project.laundryappui.sync.OrderPayloads;
+import com.project.laundryappui.sync.PullScheduler;
+import com.project.laundryappui.sync.SyncScheduler;
 
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
 import com.google.zxing.integration.android.IntentIntegrator;
 import com.google.zxing.integration.android.IntentResult;
 
@@ -38,81 +72,178 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MainActivity extends AppCompatActivity {
 
     private static final String PREFS = "laundry_commercial";
-    private static final String KEY_CUSTOMERS = "customers";
-    private static final String KEY_ORDERS = "orders";
     private static final String KEY_LICENSE_END = "license_end";
     private static final String KEY_TENANT_ID = "tenant_id";
 
 
     private static final long LICENSE_GRACE_DAYS = 3L;
 
-
-    private static final String STATUS_MASUK = "Pesanan masuk";
-    private static final String STATUS_DICUCI = "Sedang dicuci";
-    private static final String STATUS_SELESAI = "Selesai dicuci";
-    private static final String STATUS_DIAMBIL = "Sudah diambil";
-
-    private final List<Customer> customers = new ArrayList<>();
-    private final List<Order> orders = new ArrayList<>();
+    private static final long SYNC_MAX_BACKOFF_MS = 5L * 60L * 1000L;
+    private static final int WA_WORKERS = 2;
+    private static final int WA_BURST = 5;
+    private static final int BARCODE_CACHE_BYTES = 4 * 1024 * 1024;
+    private static final String KEY_PRINTER_ADDRESS = "printer_address";
+    private static final int REQUEST_BLUETOOTH = 1001;
+    private static final int REQUEST_BATCH_SCAN = 1002;
+    private static final int ORDER_PAGE_SIZE = 50;
+    private static final int ORDER_MAX_LOADED = 250;
+    private static final int ORDER_PREFETCH = 20;
+    private static final int DASHBOARD_RECONCILE_DAYS = 7;
+    private static final long DASHBOARD_RECONCILE_DELAY_MS = 60L * 1000L;
+    private static final long DASHBOARD_RECONCILE_INTERVAL_MS = 15L * 60L * 1000L;
+    private static final int FEED_PAGE_SIZE = 200;
+    private static final long FEED_OVERLAP_MS = 10L * 1000L;
+    /** Printed in place of a customer the database no longer has. */
+    private static final Customer UNKNOWN_CUSTOMER = new Customer("-", "-", "-");
+
+    private final CustomerIndex customerIndex = new CustomerIndex();
 
     private SharedPreferences prefs;
+    private LaundryStore store;
     private TextView tvLicenseStatus;
     private TextView tvSyncStatus;
-    private OrderAdapter orderAdapter;
+    private TextView tvDashboard;
+    private DashboardCounters dashboard;
+    private DashboardReconciler dashboardReconciler;
+    private PullScheduler feedPuller;
+    private OrderPager orderPager;
+    private OrderSearch orderSearch;
+    private OrderListAdapter orderAdapter;
+    private SyncScheduler syncScheduler;
+    private WhatsappDispatcher waDispatcher;
+    private BarcodeRenderer barcodeRenderer;
+    private final OrderFormat orderFormat = new OrderFormat();
+    // Reused for every receipt, on the database executor only.
+    private final ReceiptEncoder receiptEncoder = new ReceiptEncoder();
+    private final EscPosEncoder escPos = new EscPosEncoder();
+    private PrintSpooler printSpooler;
+    private String printSpoolerAddress;
+    private final StartupTracer startupTracer = new StartupTracer();
+    // Local database work: startup data, order pages and writes made from the UI.
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+    private boolean dataLoaded;
 
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            startupTracer.record("process_to_create", SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime());
+        }
         setContentView(R.layout.activity_main);
+        startupTracer.mark("content_view");
+        traceFirstDraw();
 
+        // Returns at once; the file is read in the background and the first read waits for it.
         prefs = getSharedPreferences(PREFS, MODE_PRIVATE);
+        store = LaundryStore.get(this);
+        orderSearch = OrderSearch.get(this);
         tvLicenseStatus = findViewById(R.id.tvLicenseStatus);
+        tvLicenseStatus.setText("Status lisensi: memuat...");
         tvSyncStatus = findViewById(R.id.tvSyncStatus);
+        tvDashboard = findViewById(R.id.tvDashboard);
+        barcodeRenderer = new BarcodeRenderer(BARCODE_CACHE_BYTES);
         Button btnMonthly = findViewById(R.id.btnMonthly);
 
         Button btnYearly = findViewById(R.id.btnYearly);
         Button btnAddOrder = findViewById(R.id.btnAddOrder);
         Button btnScan = findViewById(R.id.btnScan);
+        Button btnBatchScan = findViewById(R.id.btnBatchScan);
         Button btnSync = findViewById(R.id.btnSync);
-        ListView listOrders = findViewById(R.id.listOrders);
-
-        loadData();
+        Button btnReprintToday = findViewById(R.id.btnReprintToday);
+        RecyclerView listOrders = findViewById(R.id.listOrders);
+
+        syncScheduler = new SyncScheduler(Executors.newSingleThreadScheduledExecutor(),
+                BuildConfig.SYNC_COALESCE_MS, SYNC_MAX_BACKOFF_MS, this::isOnline, this::syncDataToSupabase);
+        syncScheduler.setListener((success, queueDepth, latencyMs) -> {
+            if (TextUtils.isEmpty(BuildConfig.SUPABASE_URL)) {
+                runOnUiThread(() -> tvSyncStatus.setText("Sync: Off (Supabase not configured)"));
+                return;
+            }
+            String state = success ? "Sync: OK"
+                    : SupabaseClient.isBackendUnavailable() ? "Sync: Server tidak tersedia" : "Sync: Failed";
+            if (!success) {
+                Log.w("Sync", "Sync failed, " + SupabaseClient.getResilienceStats());
+            }
+            runOnUiThread(() -> tvSyncStatus.setText(state + " (antrian " + queueDepth + ", " + latencyMs + " ms)"));
+        });
 
-        orderAdapter = new OrderAdapter(this, orders);
+        waDispatcher = new WhatsappDispatcher(store,
+                new WhatsappSender(BuildConfig.WA_REMINDER_API_URL, BuildConfig.WA_REMINDER_API_KEY, BuildConfig.OWNER_EMAIL),
+                WA_WORKERS, new TokenBucket(WA_BURST, BuildConfig.WA_SENDS_PER_MINUTE / 60.0),
+                () -> prefs.getString(KEY_TENANT_ID, ""));
+        waDispatcher.setListener(message -> runOnUiThread(() -> Toast.makeText(this,
+                message.state == WhatsappMessage.STATE_SENT ? "Notifikasi WhatsApp terkirim." : "Notifikasi WA gagal.",
+                Toast.LENGTH_SHORT).show()));
+
+        dashboardReconciler = new DashboardReconciler(store, () -> prefs.getString(KEY_TENANT_ID, ""),
+                this::isOnline, DASHBOARD_RECONCILE_DAYS, DASHBOARD_RECONCILE_INTERVAL_MS);
+        dashboardReconciler.setListener((counters, driftDays, serverOutstandingPickups) ->
+                runOnUiThread(this::updateDashboardText));
+
+        OrderFeed orderFeed = new OrderFeed(new ChangeFeed(SupabaseClient.getTransport(), BuildConfig.SUPABASE_URL,
+                BuildConfig.SUPABASE_ANON_KEY, FEED_PAGE_SIZE, FEED_OVERLAP_MS), store,
+                () -> prefs.getString(KEY_TENANT_ID, ""));
+        orderFeed.setListener(merge -> runOnUiThread(() -> applyPulled(merge)));
+        feedPuller = new PullScheduler(Executors.newSingleThreadScheduledExecutor(), BuildConfig.FEED_PULL_INTERVAL_MS,
+                BuildConfig.FEED_MAX_IDLE_INTERVAL_MS, this::isOnline, orderFeed);
+
+        orderPager = new OrderPager(new StoreOrderSource(store), store, this::runOnDb, this::runOnUiThread,
+                ORDER_PAGE_SIZE, ORDER_MAX_LOADED, ORDER_PREFETCH);
+        orderAdapter = new OrderListAdapter(orderPager, order -> {
+            if (canWriteData()) {
+                moveToNextStatus(order, true);
+            } else {
+                Toast.makeText(this, "Mode baca saja: tidak bisa update status.", Toast.LENGTH_SHORT).show();
+            }
+        });
+        listOrders.setLayoutManager(new LinearLayoutManager(this));
+        listOrders.setHasFixedSize(true);
         listOrders.setAdapter(orderAdapter);
 
-        updateLicenseText();
-
         btnMonthly.setOnClickListener(v -> activateLicense(30));
         btnYearly.setOnClickListener(v -> activateLicense(365));
         btnAddOrder.setOnClickListener(v -> showAddOrderDialog());
         btnScan.setOnClickListener(v -> startBarcodeScanner());
-        btnSync.setOnClickListener(v -> syncDataToSupabase());
+        btnBatchScan.setOnClickListener(v -> startBatchScan());
+        btnSync.setOnClickListener(v -> {
+            syncScheduler.flushNow();
+            if (!TextUtils.isEmpty(BuildConfig.SUPABASE_URL)) {
+                feedPuller.pullNow();
+            }
+        });
+        btnReprintToday.setOnClickListener(v -> reprintToday());
 
+        loadDataAsync();
+    }
 
-        listOrders.setOnItemClickListener((parent, view, position, id) -> {
-            Order order = orders.get(position);
-            if (canWriteData()) {
-                moveToNextStatus(order, true);
-            } else {
-                Toast.makeText(this, "Mode baca saja: tidak bisa update status.", Toast.LENGTH_SHORT).show();
+    private void traceFirstDraw() {
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                startupTracer.mark("first_draw");
+                return true;
             }
         });
     }
@@ -127,8 +258,57 @@ public class MainActivity extends AppCompatActivity {
         Toast.makeText(this, "Lisensi berhasil diaktifkan.", Toast.LENGTH_SHORT).show();
     }
 
-    private void syncDataToSupabase() {
-        if (TextUtils.isEmpty(BuildConfig.SUPABASE_URL)) return;
+    @Override
+    protected void onDestroy() {
+        dbExecutor.shutdown();
+        syncScheduler.shutdown();
+        waDispatcher.shutdown();
+        dashboardReconciler.shutdown();
+        feedPuller.shutdown();
+        barcodeRenderer.shutdown();
+        if (printSpooler != null) {
+            printSpooler.shutdown();
+        }
+        super.onDestroy();
+    }
+
+    /**
+     * Runs {@code task} on the database thread. Callbacks still arriving after
+     * {@link #onDestroy} shut it down are dropped instead of crashing.
+     */
+    private void runOnDb(Runnable task) {
+        try {
+            dbExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.w("MainActivity", "Activity destroyed, dropping database task");
+        }
+    }
+
+    private boolean isOnline() {
+        ConnectivityManager cm = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm == null) {
+            return false;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            NetworkCapabilities capabilities = cm.getNetworkCapabilities(cm.getActiveNetwork());
+            return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+        }
+        return isConnectedLegacy(cm);
+    }
+
+    /** API 22 has no getActiveNetwork(). */
+    @SuppressWarnings("deprecation")
+    private static boolean isConnectedLegacy(ConnectivityManager cm) {
+        android.net.NetworkInfo info = cm.getActiveNetworkInfo();
+        return info != null && info.isConnected();
+    }
+
+    /** One sync pass, run by {@link SyncScheduler} off the main thread. */
+    private void syncDataToSupabase(SyncScheduler.Completion done) {
+        if (TextUtils.isEmpty(BuildConfig.SUPABASE_URL)) {
+            done.onFinished(true);
+            return;
+        }
 
         String tenantId = prefs.getString(KEY_TENANT_ID, null);
         if (tenantId == null) {
@@ -140,48 +320,264 @@ public class MainActivity extends AppCompatActivity {
                         if (result.length() > 0) {
                             String id = result.getJSONObject(0).getString("id");
                             prefs.edit().putString(KEY_TENANT_ID, id).apply();
-                            runOnUiThread(() -> syncDataToSupabase());
+                            syncDataToSupabase(done);
+                            return;
                         }
                     } catch (Exception e) {
                         Log.e("Sync", "Failed to parse tenant", e);
                     }
+                    runOnUiThread(() -> tvSyncStatus.setText("Sync: Off (Tenant not found)"));
+                    done.onFinished(false);
                 }
 
                 @Override
                 public void onError(Exception e) {
                     runOnUiThread(() -> tvSyncStatus.setText("Sync: Off (Tenant not found)"));
+                    done.onFinished(false);
                 }
             });
             return;
         }
 
-        runOnUiThread(() -> tvSyncStatus.setText("Sync: Syncing..."));
+        List<Order> pending = store.loadDirtyOrders();
+        if (pending.isEmpty()) {
+            done.onFinished(true);
+            return;
+        }
+
+        runOnUiThread(() -> tvSyncStatus.setText("Sync: Syncing " + pending.size() + " perubahan..."));
+
+        // Rows the server has never acknowledged are sent whole. For the others only the status
+        // can have changed, and the transitions go through update_order_statuses in batches.
+        List<Order> fresh = new ArrayList<>();
+        List<Order> transitions = new ArrayList<>();
+        for (Order order : pending) {
+            (order.uploaded ? transitions : fresh).add(order);
+        }
+
+        int batchSize = Math.max(1, BuildConfig.SYNC_BATCH_SIZE);
+        long passVersion = pending.get(pending.size() - 1).localVersion;
+        AtomicBoolean allAcknowledged = new AtomicBoolean(true);
+        AtomicInteger remainingLegs = new AtomicInteger(2);
+        Runnable legFinished = () -> {
+            if (remainingLegs.decrementAndGet() > 0) {
+                return;
+            }
+            // Dirty rows below the watermark are never looked at again; only advance past a full pass.
+            if (allAcknowledged.get()) {
+                store.advanceSyncedWatermark(passVersion);
+            }
+            done.onFinished(allAcknowledged.get());
+        };
+        uploadOrders(tenantId, fresh, batchSize, allAcknowledged, legFinished);
+        sendStatusTransitions(tenantId, transitions, batchSize, allAcknowledged, legFinished);
+    }
 
-        // Simplistic sync: upload all orders
+    /**
+     * Upserts the customers of orders the server does not have yet, keyed on tenant and phone
+     * number, then whole rows of the orders, which reference the customers' server ids.
+     */
+    private void uploadOrders(String tenantId, List<Order> orders, int batchSize,
+                              AtomicBoolean allAcknowledged, Runnable onFinished) {
+        if (orders.isEmpty()) {
+            onFinished.run();
+            return;
+        }
+        Map<Long, Customer> customers = new LinkedHashMap<>();
         for (Order order : orders) {
-            try {
-                JSONObject o = new JSONObject();
-                o.put("tenant_id", tenantId);
-                o.put("kode", order.code);
-                o.put("total_idr", order.price);
-                o.put("status", order.status.toLowerCase().replace(" ", "_"));
-                o.put("barcode_value", order.code);
-                
-                // Upsert logic (simplified via POST with Prefer: resolution=merge-duplicates if supported, 
-                // but here we just try to post)
-                SupabaseClient.post("orders", o, new SupabaseClient.Callback<String>() {
+            if (!customers.containsKey(order.customerId)) {
+                Customer customer = store.getCustomer(order.customerId);
+                if (customer != null) {
+                    customers.put(order.customerId, customer);
+                }
+            }
+        }
+        JSONArray customerRows;
+        try {
+            customerRows = new OrderPayloads().customerRows(tenantId, new ArrayList<>(customers.values()));
+        } catch (JSONException e) {
+            Log.e("Sync", "Failed to build customer rows", e);
+            allAcknowledged.set(false);
+            onFinished.run();
+            return;
+        }
+
+        SupabaseClient.upsertReturning("customers", customerRows, "tenant_id,no_telepon", "id,no_telepon",
+                new SupabaseClient.Callback<JSONArray>() {
                     @Override
-                    public void onSuccess(String result) {
-                        runOnUiThread(() -> tvSyncStatus.setText("Sync: OK"));
+                    public void onSuccess(JSONArray stored) {
+                        Map<String, String> idByPhone = new HashMap<>();
+                        for (int i = 0; i < stored.length(); i++) {
+                            JSONObject row = stored.optJSONObject(i);
+                            if (row != null) {
+                                idByPhone.put(PhoneNumbers.normalize(row.optString("no_telepon")), row.optString("id"));
+                            }
+                        }
+                        Map<Long, String> serverCustomerIds = new HashMap<>();
+                        for (Map.Entry<Long, Customer> entry : customers.entrySet()) {
+                            String id = idByPhone.get(PhoneNumbers.normalize(entry.getValue().phone));
+                            if (id != null) {
+                                serverCustomerIds.put(entry.getKey(), id);
+                            }
+                        }
+                        List<Order> linked = new ArrayList<>(orders.size());
+                        for (Order order : orders) {
+                            if (serverCustomerIds.containsKey(order.customerId)) {
+                                linked.add(order);
+                            }
+                        }
+                        if (linked.size() < orders.size()) {
+                            Log.w("Sync", (orders.size() - linked.size()) + " orders have no server customer");
+                            allAcknowledged.set(false);
+                        }
+                        uploadOrderRows(tenantId, linked, serverCustomerIds, batchSize, allAcknowledged, onFinished);
                     }
 
                     @Override
                     public void onError(Exception e) {
-                        runOnUiThread(() -> tvSyncStatus.setText("Sync: Failed"));
+                        Log.e("Sync", "Failed to upload customers", e);
+                        allAcknowledged.set(false);
+                        onFinished.run();
+                    }
+                });
+    }
+
+    /** Upserts whole rows of orders whose customers the server already has. */
+    private void uploadOrderRows(String tenantId, List<Order> orders, Map<Long, String> serverCustomerIds,
+                                 int batchSize, AtomicBoolean allAcknowledged, Runnable onFinished) {
+        JSONArray rows;
+        try {
+            rows = new OrderPayloads().orderRows(tenantId, orders, serverCustomerIds);
+        } catch (JSONException e) {
+            Log.e("Sync", "Failed to build order rows", e);
+            allAcknowledged.set(false);
+            onFinished.run();
+            return;
+        }
+
+        SupabaseClient.upsertInBatches("orders", rows, "tenant_id,kode", batchSize,
+                new SupabaseClient.BatchCallback() {
+                    @Override
+                    public void onBatchResult(int batchIndex, int batchCount, int rowCount, Exception error) {
+                        if (error != null) {
+                            Log.w("Sync", "Batch " + (batchIndex + 1) + "/" + batchCount + " (" + rowCount + " rows): "
+                                    + error.getMessage());
+                            return;
+                        }
+
+                        int from = batchIndex * batchSize;
+                        List<Order> acknowledged = orders.subList(from, from + rowCount);
+                        store.markSynced(acknowledged);
+                        applySynced(acknowledged, Collections.<Order>emptyList());
+                    }
+
+                    @Override
+                    public void onComplete(int succeededBatches, int failedBatches) {
+                        if (failedBatches > 0) {
+                            allAcknowledged.set(false);
+                            Log.w("Sync", failedBatches + "/" + (succeededBatches + failedBatches) + " batches failed");
+                        }
+                        onFinished.run();
                     }
                 });
-            } catch (Exception ignored) {}
+    }
+
+    /**
+     * Sends the current status of orders the server already has, one function call per batch,
+     * with the server version each was last seen at. The server never moves an order back; if
+     * another device got further first, the item comes back {@code usang} and the next pull
+     * brings the newer row.
+     */
+    private void sendStatusTransitions(String tenantId, List<Order> orders, int batchSize,
+                                       AtomicBoolean allAcknowledged, Runnable onFinished) {
+        JSONArray items;
+        try {
+            items = new OrderPayloads().statusItems(orders);
+        } catch (JSONException e) {
+            Log.e("Sync", "Failed to build status items", e);
+            allAcknowledged.set(false);
+            onFinished.run();
+            return;
+        }
+        Map<String, Order> byCode = new HashMap<>();
+        for (Order order : orders) {
+            byCode.put(order.code, order);
         }
+
+        SupabaseClient.updateOrderStatusesInBatches(tenantId, items, batchSize,
+                new SupabaseClient.StatusBatchCallback() {
+                    @Override
+                    public void onBatchResult(int batchIndex, int batchCount, JSONArray results, Exception error) {
+                        if (error != null) {
+                            Log.w("Sync", "Status batch " + (batchIndex + 1) + "/" + batchCount + ": " + error.getMessage());
+                            return;
+                        }
+                        List<Order> acknowledged = new ArrayList<>();
+                        List<Order> missing = new ArrayList<>();
+                        boolean behind = false;
+                        for (int i = 0; i < results.length(); i++) {
+                            JSONObject result = results.optJSONObject(i);
+                            Order order = result != null ? byCode.get(result.optString("kode")) : null;
+                            if (order == null) {
+                                continue;
+                            }
+                            String outcome = result.optString("hasil");
+                            if ("diperbarui".equals(outcome) || "tidak_berubah".equals(outcome)
+                                    || "digabung".equals(outcome) || "usang".equals(outcome)) {
+                                // usang: the server is already further along, which the pull will bring.
+                                order.version = Math.max(order.version, result.optLong("versi"));
+                                acknowledged.add(order);
+                                behind |= "digabung".equals(outcome) || "usang".equals(outcome);
+                            } else if ("tidak_ditemukan".equals(outcome)) {
+                                missing.add(order);
+                            } else {
+                                Log.w("Sync", "Status " + order.code + " ditolak server: " + outcome);
+                            }
+                        }
+                        int batchItems = Math.min(batchSize, items.length() - batchIndex * batchSize);
+                        if (acknowledged.size() < batchItems) {
+                            allAcknowledged.set(false);
+                        }
+                        store.markSynced(acknowledged);
+                        store.markNotUploaded(missing);
+                        applySynced(acknowledged, missing);
+                        if (behind) {
+                            runOnUiThread(() -> {
+                                if (feedPuller != null) feedPuller.pullNow();
+                            });
+                        }
+                    }
+
+                    @Override
+                    public void onComplete(int succeededBatches, int failedBatches) {
+                        if (failedBatches > 0) {
+                            allAcknowledged.set(false);
+                            Log.w("Sync", failedBatches + "/" + (succeededBatches + failedBatches) + " status batches failed");
+                        }
+                        onFinished.run();
+                    }
+                });
+    }
+
+    /** Mirrors the outcome of a sync batch on the orders currently in the list. */
+    private void applySynced(List<Order> acknowledged, List<Order> missing) {
+        runOnUiThread(() -> {
+            for (Order synced : acknowledged) {
+                Order live = orderPager.findLoaded(synced.code);
+                if (live != null) {
+                    live.uploaded = true;
+                    if (live.localVersion == synced.localVersion) {
+                        live.dirty = false;
+                    }
+                }
+            }
+            for (Order gone : missing) {
+                Order live = orderPager.findLoaded(gone.code);
+                if (live != null) {
+                    live.uploaded = false;
+                }
+            }
+        });
     }
 
 
@@ -214,6 +610,9 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void showAddOrderDialog() {
+        if (!ensureDataLoaded()) {
+            return;
+        }
         if (!canWriteData()) {
             Toast.makeText(this, "Lisensi habis. Aplikasi dalam mode baca saja (read-only).", Toast.LENGTH_LONG).show();
             return;
@@ -221,29 +620,25 @@ public class MainActivity extends AppCompatActivity {
 
         View dialogView = LayoutInflater.from(this).inflate(R.layout.dialog_add_order, null);
         CheckBox cbNewCustomer = dialogView.findViewById(R.id.cbNewCustomer);
-        Spinner spExistingCustomer = dialogView.findViewById(R.id.spExistingCustomer);
+        AutoCompleteTextView actvCustomer = dialogView.findViewById(R.id.actvCustomer);
         EditText etName = dialogView.findViewById(R.id.etName);
         EditText etPhone = dialogView.findViewById(R.id.etPhone);
         EditText etAddress = dialogView.findViewById(R.id.etAddress);
         EditText etWeight = dialogView.findViewById(R.id.etWeight);
         EditText etPrice = dialogView.findViewById(R.id.etPrice);
 
-        List<String> customerDisplay = new ArrayList<>();
-        for (Customer customer : customers) {
-            customerDisplay.add(customer.name + " - " + customer.phone);
-        }
-        if (customerDisplay.isEmpty()) {
-            customerDisplay.add("Belum ada pelanggan, centang pelanggan baru");
+        if (customerIndex.size() == 0) {
             cbNewCustomer.setChecked(true);
         }
 
-        ArrayAdapter<String> spinnerAdapter = new ArrayAdapter<>(this,
-                android.R.layout.simple_spinner_dropdown_item, customerDisplay);
-        spExistingCustomer.setAdapter(spinnerAdapter);
+        CustomerSuggestionAdapter suggestions = new CustomerSuggestionAdapter(customerIndex);
+        actvCustomer.setAdapter(suggestions);
+        Customer[] picked = new Customer[1];
+        actvCustomer.setOnItemClickListener((parent, view, position, id) -> picked[0] = suggestions.getItem(position));
 
-        toggleCustomerInput(cbNewCustomer.isChecked(), etName, etPhone, etAddress, spExistingCustomer);
+        toggleCustomerInput(cbNewCustomer.isChecked(), etName, etPhone, etAddress, actvCustomer);
         cbNewCustomer.setOnCheckedChangeListener((buttonView, isChecked) ->
-                toggleCustomerInput(isChecked, etName, etPhone, etAddress, spExistingCustomer));
+                toggleCustomerInput(isChecked, etName, etPhone, etAddress, actvCustomer));
 
         new AlertDialog.Builder(this)
                 .setTitle("Input pesanan baru")
@@ -259,6 +654,7 @@ public class MainActivity extends AppCompatActivity {
                     }
 
                     Customer selectedCustomer;
+                    boolean registerCustomer = false;
                     if (cbNewCustomer.isChecked()) {
                         String name = etName.getText().toString().trim();
                         String phone = etPhone.getText().toString().trim();
@@ -267,14 +663,23 @@ public class MainActivity extends AppCompatActivity {
                             Toast.makeText(this, "Data pelanggan baru harus lengkap.", Toast.LENGTH_SHORT).show();
                             return;
                         }
-                        selectedCustomer = new Customer(name, phone, address);
-                        customers.add(selectedCustomer);
+                        Customer existing = customerIndex.findByPhone(phone);
+                        if (existing != null) {
+                            // Same number in another notation (08xx / +628xx): don't register it twice.
+                            selectedCustomer = existing;
+                            Toast.makeText(this, "No HP sudah terdaftar atas nama " + existing.name + ".",
+                                    Toast.LENGTH_SHORT).show();
+                        } else {
+                            selectedCustomer = new Customer(name, PhoneNumbers.normalize(phone), address);
+                            registerCustomer = true;
+                        }
                     } else {
-                        if (customers.isEmpty()) {
-                            Toast.makeText(this, "Belum ada pelanggan, silakan tambah pelanggan baru.", Toast.LENGTH_SHORT).show();
+                        selectedCustomer = resolvePickedCustomer(picked[0], actvCustomer.getText().toString().trim());
+                        if (selectedCustomer == null) {
+                            Toast.makeText(this, "Pilih pelanggan dari daftar saran atau centang pelanggan baru.",
+                                    Toast.LENGTH_SHORT).show();
                             return;
                         }
-                        selectedCustomer = customers.get(spExistingCustomer.getSelectedItemPosition());
                     }
 
                     long parsedPrice;
@@ -284,47 +689,89 @@ public class MainActivity extends AppCompatActivity {
                         Toast.makeText(this, "Harga harus angka valid.", Toast.LENGTH_SHORT).show();
                         return;
                     }
+                    int weightGrams = OrderFormat.parseWeightGrams(weightText);
+                    if (weightGrams < 0) {
+                        Toast.makeText(this, "Berat harus angka valid.", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
 
+                    long now = System.currentTimeMillis();
                     Order newOrder = new Order();
-                    newOrder.code = "LND-" + System.currentTimeMillis();
-                    newOrder.customerName = selectedCustomer.name;
-                    newOrder.customerPhone = selectedCustomer.phone;
-                    newOrder.customerAddress = selectedCustomer.address;
-                    newOrder.weightKg = weightText;
+                    newOrder.code = "LND-" + now;
+                    newOrder.weightGrams = weightGrams;
                     newOrder.price = parsedPrice;
-                    newOrder.status = STATUS_MASUK;
-                    newOrder.createdAt = new SimpleDateFormat("dd/MM/yyyy HH:mm", new Locale("id", "ID")).format(new Date());
-
-                    orders.add(0, newOrder);
-                    saveData();
-                    orderAdapter.notifyDataSetChanged();
-                    showReceiptDialog(newOrder);
+                    newOrder.status = OrderStatus.MASUK.code;
+                    newOrder.createdAtMillis = now;
+
+                    Customer customer = selectedCustomer;
+                    boolean newCustomer = registerCustomer;
+                    runOnDb(() -> {
+                        if (newCustomer) {
+                            store.insertCustomer(customer);
+                            customerIndex.add(customer);
+                        }
+                        newOrder.customerId = customer.id;
+                        try {
+                            store.insertOrder(newOrder);
+                        } catch (IllegalArgumentException ex) {
+                            // The customer was removed, e.g. merged away by a sync, while the dialog was open.
+                            runOnUiThread(() -> Toast.makeText(this, "Pelanggan tidak ditemukan, pilih ulang pelanggan.",
+                                    Toast.LENGTH_SHORT).show());
+                            return;
+                        }
+                        runOnUiThread(() -> {
+                            orderPager.insertNewest(newOrder);
+                            orderSearch.onOrderChanged(newOrder);
+                            updateDashboardText();
+                            syncScheduler.requestSync();
+                            showReceiptDialog(newOrder, customer);
+                        });
+                    });
                 })
                 .show();
     }
 
+    /**
+     * The suggestion the cashier tapped, as long as the field still shows it; otherwise a
+     * typed phone number in any notation or a name that matches exactly one customer.
+     */
+    private Customer resolvePickedCustomer(Customer picked, String text) {
+        if (picked != null && picked.name.equals(text)) {
+            return picked;
+        }
+        if (TextUtils.isEmpty(text)) {
+            return null;
+        }
+        if (PhoneNumbers.looksLikePhone(text)) {
+            return customerIndex.findByPhone(text);
+        }
+        List<Customer> matches = customerIndex.search(text, 2);
+        return matches.size() == 1 ? matches.get(0) : null;
+    }
+
     private void toggleCustomerInput(boolean isNew,
                                      EditText etName,
                                      EditText etPhone,
                                      EditText etAddress,
-                                     Spinner spExistingCustomer) {
+                                     AutoCompleteTextView actvCustomer) {
         etName.setEnabled(isNew);
         etPhone.setEnabled(isNew);
         etAddress.setEnabled(isNew);
-        spExistingCustomer.setEnabled(!isNew);
+        actvCustomer.setEnabled(!isNew);
     }
 
-    private void showReceiptDialog(Order order) {
+    private void showReceiptDialog(Order order, Customer customer) {
         View view = LayoutInflater.from(this).inflate(R.layout.dialog_receipt, null);
         ImageView imgBarcode = view.findViewById(R.id.imgBarcode);
         TextView tvReceipt = view.findViewById(R.id.tvReceipt);
 
-        Bitmap barcode = generateBarcode(order.code, 800, 200);
-        if (barcode != null) {
-            imgBarcode.setImageBitmap(barcode);
-        }
+        barcodeRenderer.render(order.code, 800, 200, bitmap -> {
+            if (bitmap != null) {
+                imgBarcode.setImageBitmap(bitmap);
+            }
+        });
 
-        String receiptText = build58mmReceipt(order);
+        String receiptText = build58mmReceipt(order, customer);
         tvReceipt.setText(receiptText);
 
         new AlertDialog.Builder(this)
@@ -335,40 +782,140 @@ public class MainActivity extends AppCompatActivity {
                 .show();
     }
 
-    private String build58mmReceipt(Order order) {
-        NumberFormat formatRupiah = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+    /** Takes the customer from the caller, so the UI thread does not read it from the database. */
+    private String build58mmReceipt(Order order, Customer customer) {
+        if (customer == null) {
+            customer = UNKNOWN_CUSTOMER;
+        }
         return "=== Laundry Komersial ===\n"
                 + "Kode: " + order.code + "\n"
-                + "Tanggal: " + order.createdAt + "\n"
-                + "Pelanggan: " + order.customerName + "\n"
-                + "No HP: " + order.customerPhone + "\n"
-                + "Alamat: " + order.customerAddress + "\n"
-                + "Berat: " + order.weightKg + " kg\n"
-                + "Total: " + formatRupiah.format(order.price) + "\n"
-                + "Status: " + order.status + "\n"
+                + "Tanggal: " + orderFormat.formatDate(order.createdAtMillis) + "\n"
+                + "Pelanggan: " + customer.name + "\n"
+                + "No HP: " + customer.phone + "\n"
+                + "Alamat: " + customer.address + "\n"
+                + "Berat: " + OrderFormat.formatWeight(order.weightGrams) + " kg\n"
+                + "Total: " + orderFormat.formatPrice(order.price) + "\n"
+                + "Status: " + OrderStatus.of(order.status).label + "\n"
                 + "=========================";
     }
 
     private void printToBluetooth(Order order) {
-        Intent sendIntent = new Intent(Intent.ACTION_SEND);
-        sendIntent.setType("text/plain");
-        sendIntent.putExtra(Intent.EXTRA_TEXT, build58mmReceipt(order));
-        startActivity(Intent.createChooser(sendIntent, "Pilih printer Bluetooth POS 58mm"));
+        List<Order> batch = new ArrayList<>();
+        batch.add(order);
+        printReceipts(batch);
     }
 
-    private Bitmap generateBarcode(String text, int width, int height) {
-        try {
-            BitMatrix bitMatrix = new MultiFormatWriter().encode(text, BarcodeFormat.CODE_128, width, height);
-            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
+    /** Reprints every receipt of orders created today, oldest first, as one spooled batch. */
+    private void reprintToday() {
+        Calendar startOfDay = Calendar.getInstance();
+        startOfDay.set(Calendar.HOUR_OF_DAY, 0);
+        startOfDay.set(Calendar.MINUTE, 0);
+        startOfDay.set(Calendar.SECOND, 0);
+        startOfDay.set(Calendar.MILLISECOND, 0);
+        long since = startOfDay.getTimeInMillis();
+
+        // Today's orders may lie outside the loaded page window, so read them from the database.
+        runOnDb(() -> {
+            List<Order> today = store.loadOrdersCreatedSince(since);
+            runOnUiThread(() -> {
+                if (today.isEmpty()) {
+                    Toast.makeText(this, "Belum ada pesanan hari ini.", Toast.LENGTH_SHORT).show();
+                    return;
                 }
+                printReceipts(today);
+            });
+        });
+    }
+
+    private void printReceipts(List<Order> batch) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                && checkSelfPermission(Manifest.permission.BLUETOOTH_CONNECT) != PackageManager.PERMISSION_GRANTED) {
+            requestPermissions(new String[]{Manifest.permission.BLUETOOTH_CONNECT}, REQUEST_BLUETOOTH);
+            Toast.makeText(this, "Izinkan akses Bluetooth lalu coba cetak lagi.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String address = prefs.getString(KEY_PRINTER_ADDRESS, null);
+        if (address == null) {
+            choosePrinter(() -> printReceipts(batch));
+            return;
+        }
+
+        // A reprint batch may miss the customer cache for every order; resolve them off the UI thread.
+        runOnDb(() -> {
+            List<byte[]> jobs = new ArrayList<>(batch.size());
+            for (Order order : batch) {
+                Customer customer = store.getCustomer(order.customerId);
+                receiptEncoder.encode(order, customer != null ? customer : UNKNOWN_CUSTOMER, escPos.reset());
+                jobs.add(escPos.toByteArray());
             }
-            return bitmap;
-        } catch (WriterException e) {
-            return null;
+            runOnUiThread(() -> {
+                printerSpooler(address).submitAll(jobs);
+                Toast.makeText(this, "Mencetak " + jobs.size() + " struk...", Toast.LENGTH_SHORT).show();
+            });
+        });
+    }
+
+    private void choosePrinter(Runnable onChosen) {
+        BluetoothAdapter adapter = BluetoothPrinterConnection.adapter(this);
+        if (adapter == null || !adapter.isEnabled()) {
+            Toast.makeText(this, "Nyalakan Bluetooth terlebih dahulu.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        List<BluetoothDevice> devices = new ArrayList<>(adapter.getBondedDevices());
+        if (devices.isEmpty()) {
+            Toast.makeText(this, "Pasangkan printer POS 58mm di pengaturan Bluetooth.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String[] names = new String[devices.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = devices.get(i).getName() + " (" + devices.get(i).getAddress() + ")";
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Pilih printer Bluetooth POS 58mm")
+                .setItems(names, (dialog, which) -> {
+                    prefs.edit().putString(KEY_PRINTER_ADDRESS, devices.get(which).getAddress()).apply();
+                    onChosen.run();
+                })
+                .show();
+    }
+
+    private PrintSpooler printerSpooler(String address) {
+        if (printSpooler == null || !address.equals(printSpoolerAddress)) {
+            if (printSpooler != null) {
+                printSpooler.shutdown();
+            }
+            PrintSpooler spooler = new PrintSpooler(new BluetoothPrinterConnection(this, address));
+            printSpooler = spooler;
+            printSpoolerAddress = address;
+            // The dialog acts on the spooler that failed, even if the printer was switched since.
+            spooler.setListener(new PrintSpooler.Listener() {
+                @Override
+                public void onJobPrinted(int remainingJobs) {
+                    if (remainingJobs == 0) {
+                        runOnUiThread(() -> Toast.makeText(MainActivity.this, "Cetak selesai.", Toast.LENGTH_SHORT).show());
+                    }
+                }
+
+                @Override
+                public void onPrintFailed(Exception error, int remainingJobs) {
+                    Log.e("Print", "Printing failed", error);
+                    runOnUiThread(() -> new AlertDialog.Builder(MainActivity.this)
+                            .setTitle("Printer tidak terhubung")
+                            .setMessage(remainingJobs + " struk menunggu dicetak.")
+                            .setNegativeButton("Batalkan", (dialog, which) -> spooler.cancelAll())
+                            .setNeutralButton("Ganti printer", (dialog, which) -> {
+                                prefs.edit().remove(KEY_PRINTER_ADDRESS).apply();
+                                choosePrinter(() -> {
+                                    List<byte[]> pending = spooler.drainPending();
+                                    printerSpooler(prefs.getString(KEY_PRINTER_ADDRESS, "")).submitAll(pending);
+                                });
+                            })
+                            .setPositiveButton("Coba lagi", (dialog, which) -> spooler.resume())
+                            .show());
+                }
+            });
         }
+        return printSpooler;
     }
 
     private void startBarcodeScanner() {
@@ -382,8 +929,41 @@ public class MainActivity extends AppCompatActivity {
         integrator.initiateScan();
     }
 
+    /** Asks which status the scanned bags move to, then opens the continuous scanner. */
+    private void startBatchScan() {
+        if (!canWriteData()) {
+            Toast.makeText(this, "Lisensi habis. Mode baca saja (read-only).", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        OrderStatus[] targets = {OrderStatus.DICUCI, OrderStatus.SELESAI, OrderStatus.DIAMBIL};
+        String[] labels = new String[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            labels[i] = targets[i].label;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Ubah status pesanan ke")
+                .setItems(labels, (dialog, which) -> {
+                    Intent intent = new Intent(this, BatchScanActivity.class);
+                    intent.putExtra(BatchScanActivity.EXTRA_TARGET_STATUS, targets[which].code);
+                    startActivityForResult(intent, REQUEST_BATCH_SCAN);
+                })
+                .setNegativeButton("Batal", null)
+                .show();
+    }
+
     @Override
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        if (requestCode == REQUEST_BATCH_SCAN) {
+            if (resultCode == RESULT_OK && data != null) {
+                ArrayList<String> codes = data.getStringArrayListExtra(BatchScanActivity.EXTRA_CODES);
+                OrderStatus target = OrderStatus.of(data.getByteExtra(BatchScanActivity.EXTRA_TARGET_STATUS,
+                        OrderStatus.DIAMBIL.code));
+                if (codes != null && !codes.isEmpty()) {
+                    commitScanBatch(target, codes);
+                }
+            }
+            return;
+        }
         IntentResult result = IntentIntegrator.parseActivityResult(requestCode, resultCode, data);
         if (result != null) {
             if (result.getContents() != null) {
@@ -396,201 +976,244 @@ public class MainActivity extends AppCompatActivity {
         super.onActivityResult(requestCode, resultCode, data);
     }
 
-    private void updateStatusFromBarcode(String code) {
-        for (Order order : orders) {
-            if (order.code.equals(code)) {
-                if (canWriteData()) {
-                moveToNextStatus(order, true);
-            } else {
-                Toast.makeText(this, "Mode baca saja: tidak bisa update status.", Toast.LENGTH_SHORT).show();
-            }
-                return;
-            }
+    private void updateStatusFromBarcode(String barcodeValue) {
+        String code = OrderIndex.codeFromBarcode(barcodeValue);
+        Order loaded = orderPager.findLoaded(code);
+        if (loaded != null) {
+            updateStatusFromScan(loaded);
+            return;
         }
-        Toast.makeText(this, "Kode pesanan tidak ditemukan.", Toast.LENGTH_SHORT).show();
+        // Older orders are not held in memory; look the code up by its unique index.
+        runOnDb(() -> {
+            Order stored = store.findOrderByCode(code);
+            runOnUiThread(() -> {
+                // The page holding it may have loaded meanwhile; keep one instance per order.
+                Order live = orderPager.findLoaded(code);
+                updateStatusFromScan(live != null ? live : stored);
+            });
+        });
     }
 
-    private void moveToNextStatus(Order order, boolean sendWa) {
-        if (STATUS_MASUK.equals(order.status)) {
-            order.status = STATUS_DICUCI;
-        } else if (STATUS_DICUCI.equals(order.status)) {
-            order.status = STATUS_SELESAI;
-        } else if (STATUS_SELESAI.equals(order.status)) {
-            order.status = STATUS_DIAMBIL;
-        } else {
-            Toast.makeText(this, "Pesanan sudah selesai sepenuhnya.", Toast.LENGTH_SHORT).show();
+    private void updateStatusFromScan(Order order) {
+        if (order == null) {
+            Toast.makeText(this, "Kode pesanan tidak ditemukan.", Toast.LENGTH_SHORT).show();
             return;
         }
-
-        saveData();
-        orderAdapter.notifyDataSetChanged();
-        Toast.makeText(this, "Status diperbarui: " + order.status, Toast.LENGTH_SHORT).show();
-
-        if (sendWa) {
-            sendWhatsappAsync(order);
+        if (canWriteData()) {
+            moveToNextStatus(order, true);
+        } else {
+            Toast.makeText(this, "Mode baca saja: tidak bisa update status.", Toast.LENGTH_SHORT).show();
         }
     }
 
-    private void sendWhatsappAsync(Order order) {
-        new Thread(() -> {
-            HttpURLConnection connection = null;
-            try {
-                if (TextUtils.isEmpty(BuildConfig.WA_REMINDER_API_URL) || TextUtils.isEmpty(BuildConfig.WA_REMINDER_API_KEY) || TextUtils.isEmpty(BuildConfig.OWNER_EMAIL)) {
-                    runOnUiThread(() -> Toast.makeText(this, "Konfigurasi WA belum diisi di BuildConfig.", Toast.LENGTH_SHORT).show());
-                    return;
-                }
-
-                URL url = new URL(BuildConfig.WA_REMINDER_API_URL);
-                connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setRequestProperty("X-API-KEY", BuildConfig.WA_REMINDER_API_KEY);
-                connection.setDoOutput(true);
-
-                JSONObject payload = new JSONObject();
-                payload.put("phone", order.customerPhone);
-                payload.put("message", "Halo " + order.customerName + ", status pesanan " + order.code + " sekarang: " + order.status + ".");
-                payload.put("owner_email", BuildConfig.OWNER_EMAIL);
-
-                OutputStream outputStream = connection.getOutputStream();
-                OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-                writer.write(payload.toString());
-                writer.flush();
-                writer.close();
-
-                int responseCode = connection.getResponseCode();
-                BufferedReader ignored = new BufferedReader(new java.io.InputStreamReader(
-                        responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream()));
-
-                runOnUiThread(() -> Toast.makeText(this,
-                        responseCode < 400 ? "Notifikasi WhatsApp terkirim." : "Notifikasi WA gagal.",
-                        Toast.LENGTH_SHORT).show());
-            } catch (Exception e) {
-                runOnUiThread(() -> Toast.makeText(this, "Gagal kirim WhatsApp.", Toast.LENGTH_SHORT).show());
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
-                }
+    /**
+     * Moves every scanned order whose next status is {@code target} in one store transaction,
+     * then refreshes the list once, requests one sync and queues the WhatsApp notices together.
+     * Orders already at or past {@code target}, or changed meanwhile, are skipped.
+     */
+    private void commitScanBatch(OrderStatus target, List<String> codes) {
+        // Loaded orders are live on the main thread; the worker moves copies.
+        List<Order> candidates = new ArrayList<>(codes.size());
+        List<String> notLoaded = new ArrayList<>();
+        for (String code : codes) {
+            Order loaded = orderPager.findLoaded(code);
+            if (loaded != null) {
+                candidates.add(loaded.copy());
+            } else {
+                notLoaded.add(code);
             }
-        }).start();
-    }
-
-    private void loadData() {
-        customers.clear();
-        orders.clear();
-        try {
-            JSONArray customerArray = new JSONArray(prefs.getString(KEY_CUSTOMERS, "[]"));
-            for (int i = 0; i < customerArray.length(); i++) {
-                JSONObject c = customerArray.getJSONObject(i);
-                customers.add(new Customer(c.getString("name"), c.getString("phone"), c.getString("address")));
+        }
+        runOnDb(() -> {
+            if (!notLoaded.isEmpty()) {
+                candidates.addAll(store.findOrdersByCodes(notLoaded));
             }
-
-            JSONArray orderArray = new JSONArray(prefs.getString(KEY_ORDERS, "[]"));
-            for (int i = 0; i < orderArray.length(); i++) {
-                JSONObject o = orderArray.getJSONObject(i);
-                Order order = new Order();
-                order.code = o.getString("code");
-                order.customerName = o.getString("customerName");
-                order.customerPhone = o.getString("customerPhone");
-                order.customerAddress = o.getString("customerAddress");
-                order.weightKg = o.getString("weightKg");
-                order.price = o.getLong("price");
-                order.status = o.getString("status");
-                order.createdAt = o.getString("createdAt");
-                orders.add(order);
+            int notFound = codes.size() - candidates.size();
+            List<Order> moving = new ArrayList<>(candidates.size());
+            List<OrderStatus> oldStatuses = new ArrayList<>(candidates.size());
+            for (Order order : candidates) {
+                OrderStatus old = OrderStatus.of(order.status);
+                if (old.next() == target) {
+                    order.status = target.code;
+                    moving.add(order);
+                    oldStatuses.add(old);
+                }
             }
-        } catch (JSONException ignored) {
-        }
+            List<Order> applied = moving.isEmpty() ? moving : store.updateOrderStatuses(moving, oldStatuses);
+            int skipped = candidates.size() - applied.size();
+            runOnUiThread(() -> onScanBatchCommitted(applied, skipped, notFound));
+        });
     }
 
-    private void saveData() {
-        JSONArray customerArray = new JSONArray();
-        JSONArray orderArray = new JSONArray();
-
-        try {
-            for (Customer customer : customers) {
-                JSONObject c = new JSONObject();
-                c.put("name", customer.name);
-                c.put("phone", customer.phone);
-                c.put("address", customer.address);
-                customerArray.put(c);
+    private void onScanBatchCommitted(List<Order> applied, int skipped, int notFound) {
+        for (Order moved : applied) {
+            // The page holding it may have loaded meanwhile; keep one instance per order.
+            Order live = orderPager.findLoaded(moved.code);
+            if (live != null) {
+                live.status = moved.status;
+                live.localVersion = moved.localVersion;
+                live.dirty = true;
             }
-
-            for (Order order : orders) {
-                JSONObject o = new JSONObject();
-                o.put("code", order.code);
-                o.put("customerName", order.customerName);
-                o.put("customerPhone", order.customerPhone);
-                o.put("customerAddress", order.customerAddress);
-                o.put("weightKg", order.weightKg);
-                o.put("price", order.price);
-                o.put("status", order.status);
-                o.put("createdAt", order.createdAt);
-                orderArray.put(o);
+            Order changed = live != null ? live : moved;
+            orderPager.onOrderChanged(changed);
+            orderSearch.onOrderChanged(changed);
+        }
+        if (!applied.isEmpty()) {
+            syncScheduler.requestSync();
+            updateDashboardText();
+            if (waDispatcher.isConfigured()) {
+                waDispatcher.enqueueAll(applied, store);
             }
-        } catch (JSONException ignored) {
         }
-
-        prefs.edit()
-                .putString(KEY_CUSTOMERS, customerArray.toString())
-                .putString(KEY_ORDERS, orderArray.toString())
-                .apply();
-        
-        syncDataToSupabase();
+        Toast.makeText(this, applied.size() + " diperbarui, " + skipped + " dilewati, "
+                + notFound + " tidak ditemukan", Toast.LENGTH_LONG).show();
     }
 
-
-    static class Customer {
-        final String name;
-        final String phone;
-        final String address;
-
-        Customer(String name, String phone, String address) {
-            this.name = name;
-            this.phone = phone;
-            this.address = address;
+    private void moveToNextStatus(Order order, boolean sendWa) {
+        OrderStatus oldStatus = OrderStatus.of(order.status);
+        OrderStatus newStatus = oldStatus.next();
+        if (newStatus == null) {
+            Toast.makeText(this, "Pesanan sudah selesai sepenuhnya.", Toast.LENGTH_SHORT).show();
+            return;
         }
+        // The list keeps showing the loaded order; the database thread moves a copy of it.
+        Order moving = order.copy();
+        moving.status = newStatus.code;
+
+        runOnDb(() -> {
+            boolean saved = store.updateOrderStatus(moving, oldStatus);
+            runOnUiThread(() -> {
+                if (!saved) {
+                    Toast.makeText(this, "Gagal menyimpan status pesanan.", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                order.status = moving.status;
+                order.localVersion = moving.localVersion;
+                order.dirty = true;
+                order.setStatusAt(newStatus, moving.getStatusAt(newStatus));
+                syncScheduler.requestSync();
+                orderPager.onOrderChanged(order);
+                orderSearch.onOrderChanged(order);
+                updateDashboardText();
+                Toast.makeText(this, "Status diperbarui: " + newStatus.label, Toast.LENGTH_SHORT).show();
+
+                if (sendWa) {
+                    sendWhatsappAsync(order);
+                }
+            });
+        });
     }
 
-    static class Order {
-        String code;
-        String customerName;
-        String customerPhone;
-        String customerAddress;
-        String weightKg;
-        long price;
-        String status;
-        String createdAt;
+    private void sendWhatsappAsync(Order order) {
+        if (!waDispatcher.isConfigured()) {
+            Toast.makeText(this, "Konfigurasi WA belum diisi di BuildConfig.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        waDispatcher.enqueue(order, store.getCustomer(order.customerId));
     }
 
-    static class OrderAdapter extends ArrayAdapter<Order> {
+    /**
+     * Loads local data without blocking the first frame: license and tenant state, then the
+     * newest page of orders, then customers. Older orders are paged in as the list scrolls.
+     * Sync and WhatsApp delivery start once customers are in memory.
+     */
+    private void loadDataAsync() {
+        runOnDb(() -> {
+            prefs.getLong(KEY_LICENSE_END, 0);
+            prefs.getString(KEY_TENANT_ID, null);
+            startupTracer.mark("prefs_loaded");
+            runOnUiThread(this::updateLicenseText);
+
+            store.migrateFromPreferences(prefs);
+            startupTracer.mark("migrated");
+
+            DashboardCounters counters = store.getDashboard();
+            runOnUiThread(() -> {
+                dashboard = counters;
+                updateDashboardText();
+            });
+        });
 
-        private final NumberFormat formatRupiah = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        // Runs on the same executor, so the first page is read after the migration and
+        // before customers.
+        orderPager.start(() -> startupTracer.mark("first_page_shown"));
+
+        runOnDb(() -> {
+            // The index is thread-safe; build it here rather than on the main thread.
+            customerIndex.addAll(store.loadCustomers());
+            startupTracer.mark("customers_loaded");
+            runOnUiThread(() -> {
+                dataLoaded = true;
+                startupTracer.mark("startup_complete");
+
+                // Push whatever was left dirty by a previous session.
+                syncScheduler.requestSync();
+                waDispatcher.start();
+                dashboardReconciler.start(DASHBOARD_RECONCILE_DELAY_MS);
+                if (!TextUtils.isEmpty(BuildConfig.SUPABASE_URL)) {
+                    feedPuller.start(0);
+                }
+                orderSearch.build();
+                runOnDb(() ->
+                        StartupTraceLog.record(getApplicationContext(), BuildConfig.VERSION_NAME, startupTracer));
+            });
+        });
+    }
 
-        OrderAdapter(@NonNull Context context, @NonNull List<Order> objects) {
-            super(context, 0, objects);
+    /**
+     * Shows rows pulled from other devices: status changes in place, new orders by re-reading
+     * the visible window, without reloading the whole list.
+     */
+    private void applyPulled(LaundryStore.RemoteMerge merge) {
+        customerIndex.addAll(merge.newCustomers);
+        for (Order pulled : merge.updated) {
+            Order live = orderPager.findLoaded(pulled.code);
+            if (live != null && live != pulled) {
+                live.status = pulled.status;
+                live.washedAtMillis = pulled.washedAtMillis;
+                live.finishedAtMillis = pulled.finishedAtMillis;
+                live.pickedUpAtMillis = pulled.pickedUpAtMillis;
+                live.price = pulled.price;
+                live.weightGrams = pulled.weightGrams;
+                live.customerId = pulled.customerId;
+                live.createdAtMillis = pulled.createdAtMillis;
+                live.detailsUpdatedAtMillis = pulled.detailsUpdatedAtMillis;
+                live.localVersion = pulled.localVersion;
+                live.version = pulled.version;
+                live.dirty = pulled.dirty;
+                live.uploaded = true;
+            }
+            Order changed = live != null ? live : pulled;
+            orderPager.onOrderChanged(changed);
+            orderSearch.onOrderChanged(changed);
+        }
+        for (Order inserted : merge.inserted) {
+            orderSearch.onOrderChanged(inserted);
         }
+        if (!merge.inserted.isEmpty()) {
+            orderPager.refresh();
+        }
+        updateDashboardText();
+    }
 
-        @NonNull
-        @Override
-        public View getView(int position, View convertView, @NonNull ViewGroup parent) {
-            if (convertView == null) {
-                convertView = LayoutInflater.from(getContext()).inflate(R.layout.item_order_status, parent, false);
-            }
+    /** Today's totals and pending pickups, read from the local counters without a query. */
+    private void updateDashboardText() {
+        if (dashboard == null) {
+            return;
+        }
+        DashboardCounters.DayTotals today = dashboard.getDay(DashboardCounters.dayOf(System.currentTimeMillis()));
+        tvDashboard.setText("Hari ini: " + today.orderCount + " order, " + orderFormat.formatPrice(today.revenue)
+                + ", " + OrderFormat.formatWeight((int) today.weightGrams) + " kg\n"
+                + "Belum diambil: " + dashboard.getOutstandingPickups()
+                + " (masuk " + dashboard.getStatusCount(OrderStatus.MASUK)
+                + ", dicuci " + dashboard.getStatusCount(OrderStatus.DICUCI)
+                + ", siap diambil " + dashboard.getStatusCount(OrderStatus.SELESAI) + ")");
+    }
 
-            Order order = getItem(position);
-            TextView tvCode = convertView.findViewById(R.id.tvCode);
-            TextView tvCustomer = convertView.findViewById(R.id.tvCustomer);
-            TextView tvPrice = convertView.findViewById(R.id.tvPrice);
-            TextView tvStatus = convertView.findViewById(R.id.tvStatus);
-
-            if (order != null) {
-                tvCode.setText(order.code + " • " + order.createdAt);
-                tvCustomer.setText(order.customerName + " • " + order.customerPhone);
-                tvPrice.setText("Total: " + formatRupiah.format(order.price) + " • " + order.weightKg + " kg");
-                tvStatus.setText("Status: " + order.status);
-            }
-            return convertView;
+    /** Actions that need the customer index wait for the startup load. */
+    private boolean ensureDataLoaded() {
+        if (!dataLoaded) {
+            Toast.makeText(this, "Data masih dimuat, coba lagi sebentar.", Toast.LENGTH_SHORT).show();
         }
+        return dataLoaded;
     }
 }
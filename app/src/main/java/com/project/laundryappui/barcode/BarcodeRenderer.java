@@ -0,0 +1,100 @@
+package com.project.laundryappui.barcode;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Renders CODE_128 barcode bitmaps on a background thread and keeps recent ones in a
+ * byte-bounded LRU cache keyed by code and size, so reopening or reprinting a receipt does
+ * not encode it again. Evicted bitmaps are never drawn over: a dialog may still be showing
+ * one, so they are left to the garbage collector.
+ */
+public class BarcodeRenderer {
+    private static final String TAG = "BarcodeRenderer";
+
+    /** Receives the bitmap, or null if the code could not be encoded, on the main thread. */
+    public interface Callback {
+        void onRendered(Bitmap bitmap);
+    }
+
+    private final LruCache<String, Bitmap> cache;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "barcode-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Only touched on the render thread.
+    private int[] pixels;
+
+    public BarcodeRenderer(int maxCacheBytes) {
+        cache = new LruCache<String, Bitmap>(maxCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    /** Delivers the barcode for {@code code}, straight away on a cache hit. Call on the main thread. */
+    public void render(String code, int width, int height, Callback callback) {
+        String key = key(code, width, height);
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            callback.onRendered(cached);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                Bitmap bitmap = renderNow(key, code, width, height);
+                mainHandler.post(() -> callback.onRendered(bitmap));
+            });
+        } catch (RejectedExecutionException e) {
+            callback.onRendered(null);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Bitmap renderNow(String key, String code, int width, int height) {
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        BitMatrix matrix;
+        try {
+            matrix = new MultiFormatWriter().encode(code, BarcodeFormat.CODE_128, width, height);
+        } catch (WriterException | IllegalArgumentException e) {
+            Log.e(TAG, "Cannot encode barcode " + code, e);
+            return null;
+        }
+
+        // The encoder widens the matrix when the code does not fit the requested width.
+        int matrixWidth = matrix.getWidth();
+        int matrixHeight = matrix.getHeight();
+        pixels = BarcodePixels.toPixels(matrix, pixels);
+        Bitmap bitmap = Bitmap.createBitmap(matrixWidth, matrixHeight, Bitmap.Config.RGB_565);
+        bitmap.setPixels(pixels, 0, matrixWidth, 0, 0, matrixWidth, matrixHeight);
+        cache.put(key, bitmap);
+        return bitmap;
+    }
+
+    private static String key(String code, int width, int height) {
+        return code + '@' + width + 'x' + height;
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.laundryappui.customer;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.TextView;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.CustomerIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type-ahead suggestions for an {@code AutoCompleteTextView}. Each keystroke queries the
+ * {@link CustomerIndex} on the filter thread for the top matches only; stale queries are
+ * dropped by {@link Filter} itself.
+ */
+public class CustomerSuggestionAdapter extends BaseAdapter implements Filterable {
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final CustomerIndex index;
+    private List<Customer> suggestions = new ArrayList<>();
+
+    public CustomerSuggestionAdapter(CustomerIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public int getCount() {
+        return suggestions.size();
+    }
+
+    @Override
+    public Customer getItem(int position) {
+        return suggestions.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return suggestions.get(position).id;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        View view = convertView != null ? convertView : LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_dropdown_item_1line, parent, false);
+        Customer customer = suggestions.get(position);
+        ((TextView) view).setText(customer.name + " - " + customer.phone);
+        return view;
+    }
+
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            List<Customer> matches = constraint == null
+                    ? new ArrayList<>() : index.search(constraint.toString(), MAX_SUGGESTIONS);
+            results.values = matches;
+            results.count = matches.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            suggestions = (List<Customer>) results.values;
+            if (results.count > 0) {
+                notifyDataSetChanged();
+            } else {
+                notifyDataSetInvalidated();
+            }
+        }
+
+        @Override
+        public CharSequence convertResultToString(Object resultValue) {
+            return ((Customer) resultValue).name;
+        }
+    };
+}
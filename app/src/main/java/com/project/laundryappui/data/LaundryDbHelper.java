@@ -0,0 +1,241 @@
+package com.project.laundryappui.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local SQLite schema for customers, orders, their status transitions and the dashboard
+ * rollups maintained alongside them.
+ */
+public class LaundryDbHelper extends SQLiteOpenHelper {
+    private static final String DB_NAME = "laundry.db";
+    private static final int DB_VERSION = 8;
+
+    public static final String TABLE_CUSTOMERS = "customers";
+    public static final String TABLE_ORDERS = "orders";
+    public static final String TABLE_STATUS_LOGS = "order_status_logs";
+    public static final String TABLE_SYNC_STATE = "sync_state";
+    public static final String TABLE_WA_OUTBOX = "wa_outbox";
+    public static final String TABLE_DAILY_TOTALS = "daily_totals";
+    public static final String TABLE_STATUS_TOTALS = "status_totals";
+
+    /** Jakarta calendar day of an order, as in {@link DashboardCounters#dayOf}. */
+    static final String ORDER_DAY = "((created_at + 25200000) / 86400000)";
+
+    public LaundryDbHelper(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_CUSTOMERS + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "name TEXT NOT NULL, "
+                + "phone TEXT NOT NULL, "
+                + "address TEXT, "
+                + "created_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_customers_phone ON " + TABLE_CUSTOMERS + " (phone)");
+
+        db.execSQL("CREATE TABLE " + TABLE_ORDERS + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "code TEXT NOT NULL, "
+                + "customer_id INTEGER REFERENCES " + TABLE_CUSTOMERS + "(_id), "
+                + "customer_name TEXT NOT NULL, "
+                + "customer_phone TEXT NOT NULL, "
+                + "customer_address TEXT, "
+                + "weight_kg TEXT, "
+                + "weight_grams INTEGER NOT NULL DEFAULT 0, "
+                + "price INTEGER NOT NULL, "
+                + "status TEXT NOT NULL, "
+                + "created_at INTEGER NOT NULL, "
+                + "local_version INTEGER NOT NULL DEFAULT 0, "
+                + "dirty INTEGER NOT NULL DEFAULT 1, "
+                + "uploaded INTEGER NOT NULL DEFAULT 0, "
+                + "server_version INTEGER NOT NULL DEFAULT 0, "
+                + "washed_at INTEGER NOT NULL DEFAULT 0, "
+                + "finished_at INTEGER NOT NULL DEFAULT 0, "
+                + "picked_up_at INTEGER NOT NULL DEFAULT 0, "
+                + "details_updated_at INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE UNIQUE INDEX idx_orders_code ON " + TABLE_ORDERS + " (code)");
+        db.execSQL("CREATE INDEX idx_orders_phone ON " + TABLE_ORDERS + " (customer_phone)");
+        db.execSQL("CREATE INDEX idx_orders_status ON " + TABLE_ORDERS + " (status)");
+        db.execSQL("CREATE INDEX idx_orders_created_at ON " + TABLE_ORDERS + " (created_at)");
+
+        db.execSQL("CREATE TABLE " + TABLE_STATUS_LOGS + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "order_id INTEGER NOT NULL REFERENCES " + TABLE_ORDERS + "(_id) ON DELETE CASCADE, "
+                + "old_status TEXT, "
+                + "new_status TEXT NOT NULL, "
+                + "changed_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_status_logs_order ON " + TABLE_STATUS_LOGS + " (order_id)");
+
+        createSyncState(db);
+        createWhatsappOutbox(db);
+        createRollups(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            // Existing rows have never been delta-synced, so they all start out dirty.
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN local_version INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN dirty INTEGER NOT NULL DEFAULT 1");
+            db.execSQL("UPDATE " + TABLE_ORDERS + " SET local_version = _id");
+            createSyncState(db);
+            db.execSQL("UPDATE " + TABLE_SYNC_STATE + " SET value = (SELECT IFNULL(MAX(_id), 0) FROM "
+                    + TABLE_ORDERS + ") WHERE key = 'order_version_seq'");
+        }
+        if (oldVersion < 3) {
+            createWhatsappOutbox(db);
+        }
+        if (oldVersion < 4) {
+            // Orders now keep weight as integer grams and reach customer data only by id.
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN weight_grams INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + TABLE_ORDERS + " SET weight_grams = IFNULL(CAST(ROUND("
+                    + "CAST(REPLACE(TRIM(weight_kg), ',', '.') AS REAL) * 1000) AS INTEGER), 0)");
+            db.execSQL("INSERT INTO " + TABLE_CUSTOMERS + " (name, phone, address, created_at)"
+                    + " SELECT MAX(customer_name), customer_phone, MAX(customer_address), MIN(created_at)"
+                    + " FROM " + TABLE_ORDERS + " WHERE customer_id IS NULL"
+                    + " AND customer_phone NOT IN (SELECT phone FROM " + TABLE_CUSTOMERS + ")"
+                    + " GROUP BY customer_phone");
+            db.execSQL("UPDATE " + TABLE_ORDERS + " SET customer_id = (SELECT MIN(_id) FROM " + TABLE_CUSTOMERS
+                    + " WHERE phone = " + TABLE_ORDERS + ".customer_phone) WHERE customer_id IS NULL");
+        }
+        if (oldVersion < 5) {
+            createRollups(db);
+            rebuildRollups(db);
+        }
+        if (oldVersion < 6) {
+            // Acknowledged rows are on the server; dirty ones are sent whole once more, which is harmless.
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN uploaded INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + TABLE_ORDERS + " SET uploaded = 1 WHERE dirty = 0");
+        }
+        if (oldVersion < 7) {
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN server_version INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN washed_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN finished_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN picked_up_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN details_updated_at INTEGER NOT NULL DEFAULT 0");
+            // Status times come from the transitions logged so far; details never changed after creation.
+            db.execSQL("UPDATE " + TABLE_ORDERS + " SET details_updated_at = created_at, "
+                    + "washed_at = " + firstTransition(OrderStatus.DICUCI) + ", "
+                    + "finished_at = " + firstTransition(OrderStatus.SELESAI) + ", "
+                    + "picked_up_at = " + firstTransition(OrderStatus.DIAMBIL));
+        }
+        if (oldVersion < 8) {
+            normalizeCustomerPhones(db);
+        }
+    }
+
+    /**
+     * Rewrites customer phones stored before numbers were normalized into the {@code 628xx}
+     * form, moving the orders of customers that turn out to share a number to the oldest one.
+     */
+    private static void normalizeCustomerPhones(SQLiteDatabase db) {
+        List<Long> ids = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        Cursor c = db.rawQuery("SELECT _id, phone FROM " + TABLE_CUSTOMERS + " ORDER BY _id", null);
+        try {
+            while (c.moveToNext()) {
+                ids.add(c.getLong(0));
+                phones.add(c.getString(1));
+            }
+        } finally {
+            c.close();
+        }
+
+        Map<String, Long> kept = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.get(i);
+            String phone = phones.get(i);
+            String normalized = PhoneNumbers.normalize(phone);
+            if (normalized.isEmpty()) {
+                normalized = phone;
+            }
+            Long keptId = kept.get(normalized);
+            if (keptId == null) {
+                kept.put(normalized, id);
+                if (!normalized.equals(phone)) {
+                    db.execSQL("UPDATE " + TABLE_CUSTOMERS + " SET phone = ? WHERE _id = ?", new Object[]{normalized, id});
+                }
+            } else {
+                db.execSQL("UPDATE " + TABLE_ORDERS + " SET customer_id = ? WHERE customer_id = ?", new Object[]{keptId, id});
+                db.execSQL("DELETE FROM " + TABLE_CUSTOMERS + " WHERE _id = ?", new Object[]{id});
+            }
+        }
+        db.execSQL("UPDATE " + TABLE_ORDERS + " SET customer_phone = (SELECT phone FROM " + TABLE_CUSTOMERS
+                + " WHERE _id = " + TABLE_ORDERS + ".customer_id) WHERE customer_id IS NOT NULL");
+    }
+
+    private static String firstTransition(OrderStatus status) {
+        return "IFNULL((SELECT MIN(changed_at) FROM " + TABLE_STATUS_LOGS + " WHERE order_id = "
+                + TABLE_ORDERS + "._id AND new_status = '" + status.label + "'), 0)";
+    }
+
+    /** Recomputes the dashboard rollups from the orders table. */
+    static void rebuildRollups(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE_DAILY_TOTALS);
+        db.execSQL("DELETE FROM " + TABLE_STATUS_TOTALS);
+        db.execSQL("INSERT INTO " + TABLE_DAILY_TOTALS
+                        + " (day, order_count, revenue, weight_grams, picked_up_count)"
+                        + " SELECT " + ORDER_DAY + ", COUNT(*), SUM(price), SUM(weight_grams),"
+                        + " SUM(status = ?) FROM " + TABLE_ORDERS + " GROUP BY " + ORDER_DAY,
+                new Object[]{OrderStatus.DIAMBIL.label});
+        db.execSQL("INSERT INTO " + TABLE_STATUS_TOTALS + " (status, order_count)"
+                + " SELECT status, COUNT(*) FROM " + TABLE_ORDERS + " GROUP BY status");
+    }
+
+    private static void createSyncState(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_orders_local_version ON " + TABLE_ORDERS + " (local_version)");
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + "key TEXT PRIMARY KEY, "
+                + "value INTEGER NOT NULL)");
+        db.execSQL("INSERT INTO " + TABLE_SYNC_STATE + " (key, value) VALUES ('order_version_seq', 0)");
+        db.execSQL("INSERT INTO " + TABLE_SYNC_STATE + " (key, value) VALUES ('orders_synced_version', 0)");
+    }
+
+    private static void createRollups(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_DAILY_TOTALS + " ("
+                + "day INTEGER PRIMARY KEY, "
+                + "order_count INTEGER NOT NULL DEFAULT 0, "
+                + "revenue INTEGER NOT NULL DEFAULT 0, "
+                + "weight_grams INTEGER NOT NULL DEFAULT 0, "
+                + "picked_up_count INTEGER NOT NULL DEFAULT 0)");
+        // Keyed by the stored status label, like orders.status.
+        db.execSQL("CREATE TABLE " + TABLE_STATUS_TOTALS + " ("
+                + "status TEXT PRIMARY KEY, "
+                + "order_count INTEGER NOT NULL DEFAULT 0)");
+    }
+
+    private static void createWhatsappOutbox(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_WA_OUTBOX + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "order_code TEXT NOT NULL, "
+                + "order_status TEXT NOT NULL, "
+                + "phone TEXT NOT NULL, "
+                + "message TEXT NOT NULL, "
+                + "state INTEGER NOT NULL DEFAULT 0, "
+                + "attempts INTEGER NOT NULL DEFAULT 0, "
+                + "next_attempt_at INTEGER NOT NULL, "
+                + "response_code INTEGER, "
+                + "response_body TEXT, "
+                + "logged INTEGER NOT NULL DEFAULT 0, "
+                + "created_at INTEGER NOT NULL)");
+        // One notification per order and status, however often the transition is replayed.
+        db.execSQL("CREATE UNIQUE INDEX idx_wa_outbox_order_status ON " + TABLE_WA_OUTBOX + " (order_code, order_status)");
+        db.execSQL("CREATE INDEX idx_wa_outbox_due ON " + TABLE_WA_OUTBOX + " (state, next_attempt_at)");
+        db.execSQL("CREATE INDEX idx_wa_outbox_unlogged ON " + TABLE_WA_OUTBOX + " (logged, state)");
+    }
+}
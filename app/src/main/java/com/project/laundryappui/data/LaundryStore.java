@@ -0,0 +1,1030 @@
+package com.project.laundryappui.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQLite-backed store for customers, orders and the WhatsApp outbox.
+ * Every mutation touches only the affected rows instead of rewriting the whole history.
+ * Customers are cached in memory so orders can refer to them by id, and the dashboard
+ * rollups are updated in the same transaction as the order they count.
+ */
+public class LaundryStore implements CustomerLookup {
+    private static final String TAG = "LaundryStore";
+
+    // Keys of the old SharedPreferences JSON blob, migrated once on first open.
+    private static final String LEGACY_KEY_CUSTOMERS = "customers";
+    private static final String LEGACY_KEY_ORDERS = "orders";
+
+    private static final String KEY_ORDER_VERSION_SEQ = "order_version_seq";
+    private static final String KEY_ORDERS_SYNCED_VERSION = "orders_synced_version";
+
+    // The customer_* columns are kept for older rows and readers; orders resolve customers by id.
+    private static final String ORDER_COLUMNS = "_id, customer_id, code, weight_grams, price, status, created_at, "
+            + "local_version, dirty, uploaded, server_version, washed_at, finished_at, picked_up_at, details_updated_at";
+
+    // SQLite allows 999 bound arguments per statement on older devices.
+    private static final int CODE_LOOKUP_CHUNK = 500;
+
+    private static LaundryStore instance;
+
+    private final LaundryDbHelper helper;
+    private final Map<Long, Customer> customerCache = new ConcurrentHashMap<>();
+    // Order writes hold this lock across their transaction so a concurrent reload of the
+    // rollups can neither miss nor double count them.
+    private final DashboardCounters dashboard = new DashboardCounters();
+    private boolean dashboardLoaded; // Guarded by dashboard.
+
+    private LaundryStore(Context context) {
+        helper = new LaundryDbHelper(context.getApplicationContext());
+    }
+
+    public static synchronized LaundryStore get(Context context) {
+        if (instance == null) {
+            instance = new LaundryStore(context);
+        }
+        return instance;
+    }
+
+    public List<Customer> loadCustomers() {
+        List<Customer> result = new ArrayList<>();
+        Cursor c = helper.getReadableDatabase().rawQuery(
+                "SELECT _id, name, phone, address FROM " + LaundryDbHelper.TABLE_CUSTOMERS + " ORDER BY _id", null);
+        try {
+            while (c.moveToNext()) {
+                result.add(cacheCustomer(c));
+            }
+        } finally {
+            c.close();
+        }
+        return result;
+    }
+
+    /** Served from memory once loaded; otherwise read by primary key. */
+    @Override
+    public Customer getCustomer(long id) {
+        Customer cached = customerCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Cursor c = helper.getReadableDatabase().rawQuery("SELECT _id, name, phone, address FROM "
+                + LaundryDbHelper.TABLE_CUSTOMERS + " WHERE _id = ?", new String[]{String.valueOf(id)});
+        try {
+            return c.moveToFirst() ? cacheCustomer(c) : null;
+        } finally {
+            c.close();
+        }
+    }
+
+    private Customer cacheCustomer(Cursor c) {
+        Customer customer = new Customer(c.getString(1), c.getString(2), c.getString(3));
+        customer.id = c.getLong(0);
+        Customer previous = customerCache.putIfAbsent(customer.id, customer);
+        return previous != null ? previous : customer;
+    }
+
+    public int countOrders() {
+        Cursor c = helper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM " + LaundryDbHelper.TABLE_ORDERS, null);
+        try {
+            return c.moveToFirst() ? c.getInt(0) : 0;
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * {@code limit} orders starting at {@code offset} in list order (newest first). Used to
+     * jump into the history; walking it page by page is cheaper with the keyset variants.
+     */
+    public List<Order> loadOrdersPage(int offset, int limit) {
+        return queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                + " ORDER BY created_at DESC, _id DESC LIMIT " + limit + " OFFSET " + offset, null);
+    }
+
+    /** Up to {@code limit} orders that follow {@code last} in list order. */
+    public List<Order> loadOrdersAfter(Order last, int limit) {
+        String createdAt = String.valueOf(last.createdAtMillis);
+        return queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                        + " WHERE created_at < ? OR (created_at = ? AND _id < ?)"
+                        + " ORDER BY created_at DESC, _id DESC LIMIT " + limit,
+                new String[]{createdAt, createdAt, String.valueOf(last.id)});
+    }
+
+    /** Up to {@code limit} orders that directly precede {@code first}, still in list order. */
+    public List<Order> loadOrdersBefore(Order first, int limit) {
+        String createdAt = String.valueOf(first.createdAtMillis);
+        List<Order> result = queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                        + " WHERE created_at > ? OR (created_at = ? AND _id > ?)"
+                        + " ORDER BY created_at ASC, _id ASC LIMIT " + limit,
+                new String[]{createdAt, createdAt, String.valueOf(first.id)});
+        Collections.reverse(result);
+        return result;
+    }
+
+    /** Orders created at or after {@code since}, oldest first. */
+    public List<Order> loadOrdersCreatedSince(long since) {
+        return queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                + " WHERE created_at >= ? ORDER BY created_at, _id", new String[]{String.valueOf(since)});
+    }
+
+    /** The order with this code, or null. Backed by the unique code index. */
+    public Order findOrderByCode(String code) {
+        List<Order> result = queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                + " WHERE code = ?", new String[]{code});
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * The stored orders with these codes, in no particular order. Codes without an order are
+     * left out. Looked up in chunks that stay under SQLite's bound-argument limit.
+     */
+    public List<Order> findOrdersByCodes(List<String> codes) {
+        return findOrdersByCodes(helper.getReadableDatabase(), codes);
+    }
+
+    private static List<Order> findOrdersByCodes(SQLiteDatabase db, List<String> codes) {
+        List<Order> result = new ArrayList<>();
+        for (int from = 0; from < codes.size(); from += CODE_LOOKUP_CHUNK) {
+            List<String> chunk = codes.subList(from, Math.min(codes.size(), from + CODE_LOOKUP_CHUNK));
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 0; i < chunk.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+            }
+            result.addAll(queryOrders(db, "SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                    + " WHERE code IN (" + placeholders + ")", chunk.toArray(new String[0])));
+        }
+        return result;
+    }
+
+    /** Receives orders one at a time from {@link #forEachOrder}. */
+    public interface OrderVisitor {
+        void visit(Order order);
+    }
+
+    /** Streams every order to {@code visitor} without holding them all in memory. */
+    public void forEachOrder(OrderVisitor visitor) {
+        Cursor c = helper.getReadableDatabase().rawQuery("SELECT " + ORDER_COLUMNS + " FROM "
+                + LaundryDbHelper.TABLE_ORDERS + " ORDER BY _id", null);
+        try {
+            while (c.moveToNext()) {
+                visitor.visit(readOrder(c));
+            }
+        } finally {
+            c.close();
+        }
+    }
+
+    /** True if some local change has not been acknowledged by the server yet. */
+    public boolean hasDirtyOrders() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        long watermark = readSyncState(db, KEY_ORDERS_SYNCED_VERSION);
+        if (watermark >= readSyncState(db, KEY_ORDER_VERSION_SEQ)) {
+            return false;
+        }
+        Cursor c = db.rawQuery("SELECT 1 FROM " + LaundryDbHelper.TABLE_ORDERS
+                + " WHERE local_version > ? AND dirty = 1 LIMIT 1", new String[]{String.valueOf(watermark)});
+        try {
+            return c.moveToFirst();
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Orders changed since the last fully acknowledged sync pass, oldest change first.
+     * Only rows above the synced watermark can be dirty, so this is an index range scan.
+     */
+    public List<Order> loadDirtyOrders() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        long watermark = readSyncState(db, KEY_ORDERS_SYNCED_VERSION);
+        if (watermark >= readSyncState(db, KEY_ORDER_VERSION_SEQ)) {
+            return new ArrayList<>();
+        }
+        return queryOrders("SELECT " + ORDER_COLUMNS + " FROM " + LaundryDbHelper.TABLE_ORDERS
+                        + " WHERE local_version > ? AND dirty = 1 ORDER BY local_version",
+                new String[]{String.valueOf(watermark)});
+    }
+
+    /**
+     * Clears the dirty flag of acknowledged rows and records that the server has them, with
+     * the server version each reported if known. A row changed again while its batch was in
+     * flight has a newer version and stays dirty for the next pass.
+     */
+    public void markSynced(List<Order> acknowledged) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues synced = new ContentValues();
+            synced.put("dirty", 0);
+            synced.put("uploaded", 1);
+            ContentValues uploaded = new ContentValues();
+            uploaded.put("uploaded", 1);
+            for (Order order : acknowledged) {
+                String[] args = {String.valueOf(order.id), String.valueOf(order.localVersion)};
+                if (db.update(LaundryDbHelper.TABLE_ORDERS, synced, "_id = ? AND local_version = ?", args) == 0) {
+                    db.update(LaundryDbHelper.TABLE_ORDERS, uploaded, "_id = ?", new String[]{args[0]});
+                }
+                if (order.version > 0) {
+                    // Versions reported by the server only grow; an older answer must not win.
+                    db.execSQL("UPDATE " + LaundryDbHelper.TABLE_ORDERS + " SET server_version = MAX(server_version, ?)"
+                            + " WHERE _id = ?", new Object[]{order.version, order.id});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Records that the server does not have these rows after all, e.g. they were deleted there,
+     * so the next pass sends them whole instead of as status transitions.
+     */
+    public void markNotUploaded(List<Order> missing) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put("uploaded", 0);
+            for (Order order : missing) {
+                db.update(LaundryDbHelper.TABLE_ORDERS, values, "_id = ?", new String[]{String.valueOf(order.id)});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Records that every change up to and including {@code version} has been acknowledged. */
+    public void advanceSyncedWatermark(long version) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.execSQL("UPDATE " + LaundryDbHelper.TABLE_SYNC_STATE + " SET value = MAX(value, ?) WHERE key = ?",
+                new Object[]{version, KEY_ORDERS_SYNCED_VERSION});
+    }
+
+    /**
+     * Queues a WhatsApp notification. Returns false if one for the same order and status is
+     * already queued or was already sent.
+     */
+    public boolean enqueueWhatsapp(WhatsappMessage message) {
+        return insertWhatsapp(helper.getWritableDatabase(), message);
+    }
+
+    /**
+     * Queues several notifications in one transaction, skipping the ones already queued or
+     * sent. Returns how many were queued.
+     */
+    public int enqueueWhatsappAll(List<WhatsappMessage> messages) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        int queued = 0;
+        db.beginTransaction();
+        try {
+            for (WhatsappMessage message : messages) {
+                if (insertWhatsapp(db, message)) {
+                    queued++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return queued;
+    }
+
+    /** Pending notifications whose next attempt is due, oldest first. */
+    public List<WhatsappMessage> loadDueWhatsapp(long now, int limit) {
+        return queryWhatsapp("WHERE state = " + WhatsappMessage.STATE_PENDING + " AND next_attempt_at <= ?"
+                + " ORDER BY next_attempt_at, _id LIMIT " + limit, new String[]{String.valueOf(now)});
+    }
+
+    /** Earliest scheduled attempt of any pending notification, or -1 if the queue is empty. */
+    public long nextWhatsappAttemptAt() {
+        Cursor c = helper.getReadableDatabase().rawQuery("SELECT MIN(next_attempt_at) FROM "
+                + LaundryDbHelper.TABLE_WA_OUTBOX + " WHERE state = " + WhatsappMessage.STATE_PENDING, null);
+        try {
+            return c.moveToFirst() && !c.isNull(0) ? c.getLong(0) : -1;
+        } finally {
+            c.close();
+        }
+    }
+
+    /** Stores the outcome of a send attempt; {@code nextAttemptAt} only matters while still pending. */
+    public void saveWhatsappAttempt(WhatsappMessage message, long nextAttemptAt) {
+        ContentValues values = new ContentValues();
+        values.put("state", message.state);
+        values.put("attempts", message.attempts);
+        values.put("next_attempt_at", nextAttemptAt);
+        if (message.responseCode > 0) {
+            values.put("response_code", message.responseCode);
+        } else {
+            values.putNull("response_code");
+        }
+        values.put("response_body", message.responseBody);
+        helper.getWritableDatabase().update(LaundryDbHelper.TABLE_WA_OUTBOX, values, "_id = ?",
+                new String[]{String.valueOf(message.id)});
+    }
+
+    /** Sent or finally failed notifications not yet copied to the server-side log. */
+    public List<WhatsappMessage> loadUnloggedWhatsapp(int limit) {
+        return queryWhatsapp("WHERE logged = 0 AND state != " + WhatsappMessage.STATE_PENDING
+                + " ORDER BY _id LIMIT " + limit, null);
+    }
+
+    public void markWhatsappLogged(List<WhatsappMessage> logged) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put("logged", 1);
+            for (WhatsappMessage message : logged) {
+                db.update(LaundryDbHelper.TABLE_WA_OUTBOX, values, "_id = ?", new String[]{String.valueOf(message.id)});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private List<WhatsappMessage> queryWhatsapp(String where, String[] args) {
+        List<WhatsappMessage> result = new ArrayList<>();
+        Cursor c = helper.getReadableDatabase().rawQuery("SELECT _id, order_code, order_status, phone, message, "
+                + "state, attempts, response_code, response_body, created_at FROM "
+                + LaundryDbHelper.TABLE_WA_OUTBOX + " " + where, args);
+        try {
+            while (c.moveToNext()) {
+                WhatsappMessage message = new WhatsappMessage();
+                message.id = c.getLong(0);
+                message.orderCode = c.getString(1);
+                message.orderStatus = c.getString(2);
+                message.phone = c.getString(3);
+                message.message = c.getString(4);
+                message.state = c.getInt(5);
+                message.attempts = c.getInt(6);
+                message.responseCode = c.isNull(7) ? 0 : c.getInt(7);
+                message.responseBody = c.getString(8);
+                message.createdAt = c.getLong(9);
+                result.add(message);
+            }
+        } finally {
+            c.close();
+        }
+        return result;
+    }
+
+    private List<Order> queryOrders(String sql, String[] args) {
+        return queryOrders(helper.getReadableDatabase(), sql, args);
+    }
+
+    private static List<Order> queryOrders(SQLiteDatabase db, String sql, String[] args) {
+        List<Order> result = new ArrayList<>();
+        Cursor c = db.rawQuery(sql, args);
+        try {
+            while (c.moveToNext()) {
+                result.add(readOrder(c));
+            }
+        } finally {
+            c.close();
+        }
+        return result;
+    }
+
+    /** Reads one row selected with {@link #ORDER_COLUMNS}. */
+    private static Order readOrder(Cursor c) {
+        Order order = new Order();
+        order.id = c.getLong(0);
+        order.customerId = c.isNull(1) ? 0 : c.getLong(1);
+        order.code = c.getString(2);
+        order.weightGrams = c.getInt(3);
+        order.price = c.getLong(4);
+        OrderStatus status = OrderStatus.fromLabel(c.getString(5));
+        order.status = (status != null ? status : OrderStatus.MASUK).code;
+        order.createdAtMillis = c.getLong(6);
+        order.localVersion = c.getLong(7);
+        order.dirty = c.getInt(8) != 0;
+        order.uploaded = c.getInt(9) != 0;
+        order.version = c.getLong(10);
+        order.washedAtMillis = c.getLong(11);
+        order.finishedAtMillis = c.getLong(12);
+        order.pickedUpAtMillis = c.getLong(13);
+        order.detailsUpdatedAtMillis = c.getLong(14);
+        return order;
+    }
+
+    public long insertCustomer(Customer customer) {
+        customer.id = insertCustomer(helper.getWritableDatabase(), customer, System.currentTimeMillis());
+        customerCache.put(customer.id, customer);
+        return customer.id;
+    }
+
+    /**
+     * Inserts the order together with its initial status log entry in one transaction.
+     * {@code order.customerId} must refer to an existing customer.
+     */
+    public long insertOrder(Order order) {
+        Customer customer = getCustomer(order.customerId);
+        if (customer == null) {
+            throw new IllegalArgumentException("Unknown customer " + order.customerId);
+        }
+        SQLiteDatabase db = helper.getWritableDatabase();
+        synchronized (dashboard) {
+            db.beginTransaction();
+            try {
+                order.dirty = true;
+                order.uploaded = false;
+                order.detailsUpdatedAtMillis = order.createdAtMillis;
+                order.id = insertOrder(db, order, customer);
+                insertStatusLog(db, order.id, null, OrderStatus.of(order.status).label, order.createdAtMillis);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (dashboardLoaded) {
+                dashboard.onOrderInserted(order);
+            }
+        }
+        return order.id;
+    }
+
+    /**
+     * Moves a single order from {@code oldStatus} to {@code order.status} and records the
+     * transition. Returns false, leaving the row untouched, if the stored status no longer
+     * matches {@code oldStatus}.
+     */
+    public boolean updateOrderStatus(Order order, OrderStatus oldStatus) {
+        return !updateOrderStatuses(Collections.singletonList(order), Collections.singletonList(oldStatus)).isEmpty();
+    }
+
+    /**
+     * Moves each order from the matching entry of {@code oldStatuses} to its {@code status}
+     * in one transaction, so a whole scan batch costs a single commit, and stamps the time it
+     * reached that status. Orders whose stored status no longer matches, or that would move
+     * backwards, are skipped and left untouched. Returns the orders that moved.
+     */
+    public List<Order> updateOrderStatuses(List<Order> orders, List<OrderStatus> oldStatuses) {
+        List<Order> applied = new ArrayList<>(orders.size());
+        List<OrderStatus> appliedOld = new ArrayList<>(orders.size());
+        long[] versions = new long[orders.size()];
+        long now = System.currentTimeMillis();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        synchronized (dashboard) {
+            db.beginTransaction();
+            try {
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    OrderStatus oldStatus = oldStatuses.get(i);
+                    OrderStatus newStatus = OrderStatus.of(order.status);
+                    if (newStatus.code <= oldStatus.code) {
+                        continue;
+                    }
+                    long version = nextLocalVersion(db);
+                    ContentValues values = new ContentValues();
+                    values.put("status", newStatus.label);
+                    values.put("local_version", version);
+                    values.put("dirty", 1);
+                    if (order.getStatusAt(newStatus) == 0) {
+                        values.put(statusTimeColumn(newStatus), now);
+                    }
+                    int updated = db.update(LaundryDbHelper.TABLE_ORDERS, values, "_id = ? AND status = ?",
+                            new String[]{String.valueOf(order.id), oldStatus.label});
+                    if (updated != 1) {
+                        continue;
+                    }
+                    insertStatusLog(db, order.id, oldStatus.label, newStatus.label, now);
+                    moveInRollups(db, order, oldStatus, newStatus);
+                    versions[applied.size()] = version;
+                    applied.add(order);
+                    appliedOld.add(oldStatus);
+                }
+                db.setTransactionSuccessful();
+            } catch (RuntimeException e) {
+                // Nothing was committed; report every order as unchanged.
+                Log.e(TAG, "Status update failed", e);
+                applied.clear();
+                appliedOld.clear();
+            } finally {
+                db.endTransaction();
+            }
+            for (int i = 0; i < applied.size(); i++) {
+                Order order = applied.get(i);
+                order.localVersion = versions[i];
+                order.dirty = true;
+                OrderStatus newStatus = OrderStatus.of(order.status);
+                if (order.getStatusAt(newStatus) == 0) {
+                    order.setStatusAt(newStatus, now);
+                }
+                if (dashboardLoaded) {
+                    dashboard.onStatusChanged(order, appliedOld.get(i));
+                }
+            }
+        }
+        return applied;
+    }
+
+    /** What a merge of pulled server rows changed locally. */
+    public static class RemoteMerge {
+        /** Customers that were not known on this device. */
+        public final List<Customer> newCustomers = new ArrayList<>();
+        /** Orders first seen on this device. */
+        public final List<Order> inserted = new ArrayList<>();
+        /** Known orders whose status was moved to the server's. */
+        public final List<Order> updated = new ArrayList<>();
+
+        public int size() {
+            return newCustomers.size() + inserted.size() + updated.size();
+        }
+    }
+
+    /**
+     * The {@code updated_at} of the last row merged from server table {@code table}, in epoch
+     * millis, or 0 before its first pull.
+     */
+    public long getFeedWatermark(String table) {
+        return readSyncState(helper.getReadableDatabase(), feedWatermarkKey(table));
+    }
+
+    /**
+     * Adds pulled customers this device does not know, matched by phone number, and records
+     * {@code watermark} for {@code table} in the same transaction. Known customers keep their
+     * local details.
+     */
+    public RemoteMerge mergeRemoteCustomers(List<Customer> remote, String table, long watermark) {
+        RemoteMerge result = new RemoteMerge();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long now = System.currentTimeMillis();
+            for (Customer customer : remote) {
+                if (findCustomerIdByPhone(db, customer.phone) == 0) {
+                    customer.id = insertCustomer(db, customer, now);
+                    result.newCustomers.add(customer);
+                }
+            }
+            writeSyncState(db, feedWatermarkKey(table), watermark);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        for (Customer customer : result.newCustomers) {
+            customerCache.put(customer.id, customer);
+        }
+        return result;
+    }
+
+    /**
+     * Merges orders pulled from the server, {@code customers.get(i)} being the customer of
+     * {@code remote.get(i)}, and records {@code watermark} for {@code table} in the same
+     * transaction. Unknown orders are inserted as already uploaded; known ones are merged with
+     * {@link OrderMerger}, so a stale copy never moves an order backwards. A local row the server
+     * has caught up with is no longer dirty; one that is still ahead is queued for the next sync.
+     * Rewritten rows get a new local version, so acknowledging an older push leaves them alone.
+     */
+    public RemoteMerge mergeRemoteOrders(List<Order> remote, List<Customer> customers, String table, long watermark) {
+        RemoteMerge result = new RemoteMerge();
+        List<OrderStatus> oldStatuses = new ArrayList<>();
+        boolean detailsChanged = false;
+        SQLiteDatabase db = helper.getWritableDatabase();
+        synchronized (dashboard) {
+            db.beginTransaction();
+            try {
+                long now = System.currentTimeMillis();
+                List<String> codes = new ArrayList<>(remote.size());
+                Map<Long, Customer> resolved = new HashMap<>();
+                for (int i = 0; i < remote.size(); i++) {
+                    Customer customer = resolveCustomer(db, customers.get(i), now, result);
+                    resolved.put(customer.id, customer);
+                    remote.get(i).customerId = customer.id;
+                    codes.add(remote.get(i).code);
+                }
+                List<Order> known = findOrdersByCodes(db, codes);
+                Map<Long, Order> before = new HashMap<>();
+                for (Order order : known) {
+                    before.put(order.id, order.copy());
+                }
+                OrderMerger.Batch batch = OrderMerger.mergeAll(known, remote, id -> {
+                    Customer customer = resolved.get(id);
+                    return customer != null ? customer : getCustomer(id);
+                });
+
+                for (Order pulled : batch.unknown) {
+                    pulled.dirty = false;
+                    pulled.uploaded = true;
+                    pulled.id = insertOrder(db, pulled, resolved.get(pulled.customerId));
+                    insertStatusLog(db, pulled.id, null, OrderStatus.of(pulled.status).label, pulled.createdAtMillis);
+                    result.inserted.add(pulled);
+                }
+
+                Set<Order> ahead = Collections.newSetFromMap(new IdentityHashMap<Order, Boolean>());
+                ahead.addAll(batch.ahead);
+                for (Order local : known) {
+                    Integer bits = batch.changed.get(local);
+                    int changes = bits != null ? bits : 0;
+                    Order old = before.get(local.id);
+                    ContentValues values = new ContentValues();
+                    values.put("uploaded", 1);
+                    local.uploaded = true;
+                    if (ahead.contains(local)) {
+                        if (!local.dirty) {
+                            // Pushed as a status transition by the next sync.
+                            local.localVersion = nextLocalVersion(db);
+                            local.dirty = true;
+                            values.put("local_version", local.localVersion);
+                            values.put("dirty", 1);
+                        }
+                    } else if (local.dirty) {
+                        local.dirty = false;
+                        values.put("dirty", 0);
+                    }
+                    if (changes != 0 && !values.containsKey("local_version")) {
+                        // A push of the row as it was before the merge may still be in flight;
+                        // its acknowledgement must not mark the merged row synced.
+                        local.localVersion = nextLocalVersion(db);
+                        values.put("local_version", local.localVersion);
+                    }
+                    if (changes != 0) {
+                        Customer customer = resolved.get(local.customerId);
+                        putMerged(values, local, customer != null ? customer : getCustomer(local.customerId));
+                    }
+                    db.update(LaundryDbHelper.TABLE_ORDERS, values, "_id = ?", new String[]{String.valueOf(local.id)});
+
+                    OrderStatus oldStatus = OrderStatus.of(old.status);
+                    OrderStatus newStatus = OrderStatus.of(local.status);
+                    if ((changes & OrderMerger.STATUS) != 0) {
+                        insertStatusLog(db, local.id, oldStatus.label, newStatus.label, now);
+                    }
+                    if ((changes & OrderMerger.DETAILS) != 0) {
+                        removeFromRollups(db, old);
+                        addToRollups(db, local);
+                        detailsChanged = true;
+                    } else if ((changes & OrderMerger.STATUS) != 0) {
+                        moveInRollups(db, local, oldStatus, newStatus);
+                    }
+                    if ((changes & (OrderMerger.STATUS | OrderMerger.DETAILS)) != 0) {
+                        result.updated.add(local);
+                        oldStatuses.add(oldStatus);
+                    }
+                }
+                writeSyncState(db, feedWatermarkKey(table), watermark);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            for (Customer customer : result.newCustomers) {
+                customerCache.put(customer.id, customer);
+            }
+            if (dashboardLoaded && detailsChanged) {
+                // Price, weight or day moved; recounting from the rollups is simpler than patching.
+                loadDashboard(db);
+            } else if (dashboardLoaded) {
+                for (Order order : result.inserted) {
+                    dashboard.onOrderInserted(order);
+                }
+                for (int i = 0; i < result.updated.size(); i++) {
+                    dashboard.onStatusChanged(result.updated.get(i), oldStatuses.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Columns of an order that {@link OrderMerger#merge} may change. */
+    private static void putMerged(ContentValues values, Order order, Customer customer) {
+        values.put("status", OrderStatus.of(order.status).label);
+        values.put("server_version", order.version);
+        values.put("washed_at", order.washedAtMillis);
+        values.put("finished_at", order.finishedAtMillis);
+        values.put("picked_up_at", order.pickedUpAtMillis);
+        values.put("details_updated_at", order.detailsUpdatedAtMillis);
+        values.put("price", order.price);
+        values.put("weight_kg", OrderFormat.formatWeight(order.weightGrams));
+        values.put("weight_grams", order.weightGrams);
+        values.put("created_at", order.createdAtMillis);
+        values.put("customer_id", customer.id);
+        values.put("customer_name", customer.name);
+        values.put("customer_phone", customer.phone);
+        values.put("customer_address", customer.address);
+    }
+
+    /** The local customer with {@code remote}'s phone number, inserted if there is none. */
+    private Customer resolveCustomer(SQLiteDatabase db, Customer remote, long now, RemoteMerge result) {
+        long id = findCustomerIdByPhone(db, remote.phone);
+        if (id != 0) {
+            Customer known = customerCache.get(id);
+            if (known != null) {
+                return known;
+            }
+            Cursor c = db.rawQuery("SELECT _id, name, phone, address FROM " + LaundryDbHelper.TABLE_CUSTOMERS
+                    + " WHERE _id = ?", new String[]{String.valueOf(id)});
+            try {
+                c.moveToFirst();
+                return cacheCustomer(c);
+            } finally {
+                c.close();
+            }
+        }
+        remote.id = insertCustomer(db, remote, now);
+        result.newCustomers.add(remote);
+        return remote;
+    }
+
+    /**
+     * The dashboard counters, read from the rollup tables on first use (so call it off the
+     * main thread the first time) and kept current by every order write after that.
+     */
+    public DashboardCounters getDashboard() {
+        synchronized (dashboard) {
+            if (!dashboardLoaded) {
+                loadDashboard(helper.getReadableDatabase());
+                dashboardLoaded = true;
+            }
+        }
+        return dashboard;
+    }
+
+    /**
+     * Recounts the rollups from the orders themselves, e.g. when they disagree with the
+     * server. Costs one pass over the orders table.
+     */
+    public DashboardCounters rebuildDashboard() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        synchronized (dashboard) {
+            db.beginTransaction();
+            try {
+                LaundryDbHelper.rebuildRollups(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            loadDashboard(db);
+            dashboardLoaded = true;
+        }
+        return dashboard;
+    }
+
+    private void loadDashboard(SQLiteDatabase db) {
+        dashboard.clear();
+        Cursor c = db.rawQuery("SELECT status, order_count FROM " + LaundryDbHelper.TABLE_STATUS_TOTALS, null);
+        try {
+            while (c.moveToNext()) {
+                OrderStatus status = OrderStatus.fromLabel(c.getString(0));
+                // Unknown labels are read as MASUK, see readOrder().
+                OrderStatus counted = status != null ? status : OrderStatus.MASUK;
+                dashboard.setStatusCount(counted, dashboard.getStatusCount(counted) + c.getInt(1));
+            }
+        } finally {
+            c.close();
+        }
+        c = db.rawQuery("SELECT day, order_count, revenue, weight_grams, picked_up_count FROM "
+                + LaundryDbHelper.TABLE_DAILY_TOTALS, null);
+        try {
+            while (c.moveToNext()) {
+                dashboard.setDay(c.getLong(0), new DashboardCounters.DayTotals(
+                        c.getInt(1), c.getLong(2), c.getLong(3), c.getInt(4)));
+            }
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Imports the legacy {@code customers}/{@code orders} JSON strings from SharedPreferences
+     * and removes them once the import has committed. Does nothing when they are absent.
+     */
+    public void migrateFromPreferences(SharedPreferences prefs) {
+        if (!prefs.contains(LEGACY_KEY_CUSTOMERS) && !prefs.contains(LEGACY_KEY_ORDERS)) {
+            return;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(OrderFormat.DATE_PATTERN, new Locale("id", "ID"));
+        long now = System.currentTimeMillis();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            Map<String, Customer> customerByPhone = new HashMap<>();
+            JSONArray customerArray = new JSONArray(prefs.getString(LEGACY_KEY_CUSTOMERS, "[]"));
+            for (int i = 0; i < customerArray.length(); i++) {
+                JSONObject c = customerArray.getJSONObject(i);
+                Customer customer = new Customer(c.getString("name"), PhoneNumbers.normalize(c.getString("phone")),
+                        c.getString("address"));
+                customer.id = insertCustomer(db, customer, now);
+                customerByPhone.put(customer.phone, customer);
+            }
+
+            // The blob is stored newest first; insert oldest first so row ids follow creation order.
+            JSONArray orderArray = new JSONArray(prefs.getString(LEGACY_KEY_ORDERS, "[]"));
+            for (int i = orderArray.length() - 1; i >= 0; i--) {
+                JSONObject o = orderArray.getJSONObject(i);
+                Order order = new Order();
+                order.code = o.getString("code");
+                order.weightGrams = Math.max(0, OrderFormat.parseWeightGrams(o.getString("weightKg")));
+                order.price = o.getLong("price");
+                OrderStatus status = OrderStatus.fromLabel(o.getString("status"));
+                order.status = (status != null ? status : OrderStatus.MASUK).code;
+                order.createdAtMillis = parseCreatedAt(format, o.getString("createdAt"), now);
+                // Orders used to carry their own copy of the customer; attach unknown ones to a new row.
+                String phone = PhoneNumbers.normalize(o.getString("customerPhone"));
+                Customer customer = customerByPhone.get(phone);
+                if (customer == null) {
+                    customer = new Customer(o.getString("customerName"), phone, o.getString("customerAddress"));
+                    customer.id = insertCustomer(db, customer, now);
+                    customerByPhone.put(phone, customer);
+                }
+                order.customerId = customer.id;
+                order.dirty = true;
+                order.detailsUpdatedAtMillis = order.createdAtMillis;
+                order.id = insertOrder(db, order, customer);
+                insertStatusLog(db, order.id, null, OrderStatus.of(order.status).label, order.createdAtMillis);
+            }
+            db.setTransactionSuccessful();
+        } catch (JSONException | SQLException e) {
+            Log.e(TAG, "Legacy data is corrupt, keeping it for a later attempt", e);
+            return;
+        } finally {
+            db.endTransaction();
+            synchronized (dashboard) {
+                // The import bypasses the counters; read them again from the rollups it updated.
+                dashboardLoaded = false;
+            }
+        }
+
+        prefs.edit()
+                .remove(LEGACY_KEY_CUSTOMERS)
+                .remove(LEGACY_KEY_ORDERS)
+                .apply();
+    }
+
+    private static long parseCreatedAt(SimpleDateFormat format, String createdAt, long fallback) {
+        try {
+            return format.parse(createdAt).getTime();
+        } catch (ParseException e) {
+            return fallback;
+        }
+    }
+
+    private static long insertCustomer(SQLiteDatabase db, Customer customer, long createdAt) {
+        ContentValues values = new ContentValues();
+        values.put("name", customer.name);
+        values.put("phone", customer.phone);
+        values.put("address", customer.address);
+        values.put("created_at", createdAt);
+        return db.insertOrThrow(LaundryDbHelper.TABLE_CUSTOMERS, null, values);
+    }
+
+    /** Inserts a local order; {@code order.dirty} and {@code order.uploaded} say whether the server has it. */
+    private static long insertOrder(SQLiteDatabase db, Order order, Customer customer) {
+        order.localVersion = nextLocalVersion(db);
+        ContentValues values = new ContentValues();
+        values.put("code", order.code);
+        values.put("customer_id", customer.id);
+        values.put("customer_name", customer.name);
+        values.put("customer_phone", customer.phone);
+        values.put("customer_address", customer.address);
+        values.put("weight_kg", OrderFormat.formatWeight(order.weightGrams));
+        values.put("weight_grams", order.weightGrams);
+        values.put("price", order.price);
+        values.put("status", OrderStatus.of(order.status).label);
+        values.put("created_at", order.createdAtMillis);
+        values.put("local_version", order.localVersion);
+        values.put("dirty", order.dirty ? 1 : 0);
+        values.put("uploaded", order.uploaded ? 1 : 0);
+        values.put("server_version", order.version);
+        values.put("washed_at", order.washedAtMillis);
+        values.put("finished_at", order.finishedAtMillis);
+        values.put("picked_up_at", order.pickedUpAtMillis);
+        values.put("details_updated_at", order.detailsUpdatedAtMillis);
+        long id = db.insertOrThrow(LaundryDbHelper.TABLE_ORDERS, null, values);
+        addToRollups(db, order);
+        return id;
+    }
+
+    private static void addToRollups(SQLiteDatabase db, Order order) {
+        long day = DashboardCounters.dayOf(order.createdAtMillis);
+        db.execSQL("INSERT OR IGNORE INTO " + LaundryDbHelper.TABLE_DAILY_TOTALS + " (day) VALUES (?)",
+                new Object[]{day});
+        db.execSQL("UPDATE " + LaundryDbHelper.TABLE_DAILY_TOTALS + " SET order_count = order_count + 1,"
+                        + " revenue = revenue + ?, weight_grams = weight_grams + ?,"
+                        + " picked_up_count = picked_up_count + ? WHERE day = ?",
+                new Object[]{order.price, order.weightGrams, order.status == OrderStatus.DIAMBIL.code ? 1 : 0, day});
+        addToStatusTotal(db, OrderStatus.of(order.status), 1);
+    }
+
+    private static void removeFromRollups(SQLiteDatabase db, Order order) {
+        db.execSQL("UPDATE " + LaundryDbHelper.TABLE_DAILY_TOTALS + " SET order_count = order_count - 1,"
+                        + " revenue = revenue - ?, weight_grams = weight_grams - ?,"
+                        + " picked_up_count = picked_up_count - ? WHERE day = ?",
+                new Object[]{order.price, order.weightGrams, order.status == OrderStatus.DIAMBIL.code ? 1 : 0,
+                        DashboardCounters.dayOf(order.createdAtMillis)});
+        addToStatusTotal(db, OrderStatus.of(order.status), -1);
+    }
+
+    private static void moveInRollups(SQLiteDatabase db, Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        addToStatusTotal(db, oldStatus, -1);
+        addToStatusTotal(db, newStatus, 1);
+        int pickedUp = (newStatus == OrderStatus.DIAMBIL ? 1 : 0) - (oldStatus == OrderStatus.DIAMBIL ? 1 : 0);
+        if (pickedUp != 0) {
+            db.execSQL("UPDATE " + LaundryDbHelper.TABLE_DAILY_TOTALS + " SET picked_up_count = picked_up_count + ?"
+                            + " WHERE day = ?",
+                    new Object[]{pickedUp, DashboardCounters.dayOf(order.createdAtMillis)});
+        }
+    }
+
+    private static void addToStatusTotal(SQLiteDatabase db, OrderStatus status, int delta) {
+        db.execSQL("INSERT OR IGNORE INTO " + LaundryDbHelper.TABLE_STATUS_TOTALS + " (status) VALUES (?)",
+                new Object[]{status.label});
+        db.execSQL("UPDATE " + LaundryDbHelper.TABLE_STATUS_TOTALS + " SET order_count = order_count + ?"
+                + " WHERE status = ?", new Object[]{delta, status.label});
+    }
+
+    private static boolean insertWhatsapp(SQLiteDatabase db, WhatsappMessage message) {
+        ContentValues values = new ContentValues();
+        values.put("order_code", message.orderCode);
+        values.put("order_status", message.orderStatus);
+        values.put("phone", message.phone);
+        values.put("message", message.message);
+        values.put("state", WhatsappMessage.STATE_PENDING);
+        values.put("next_attempt_at", message.createdAt);
+        values.put("created_at", message.createdAt);
+        message.id = db.insertWithOnConflict(LaundryDbHelper.TABLE_WA_OUTBOX, null, values,
+                SQLiteDatabase.CONFLICT_IGNORE);
+        return message.id != -1;
+    }
+
+    private static long nextLocalVersion(SQLiteDatabase db) {
+        db.execSQL("UPDATE " + LaundryDbHelper.TABLE_SYNC_STATE + " SET value = value + 1 WHERE key = ?",
+                new Object[]{KEY_ORDER_VERSION_SEQ});
+        return readSyncState(db, KEY_ORDER_VERSION_SEQ);
+    }
+
+    /** The orders column holding when an order reached {@code status}; not defined for {@link OrderStatus#MASUK}. */
+    private static String statusTimeColumn(OrderStatus status) {
+        switch (status) {
+            case DICUCI:
+                return "washed_at";
+            case SELESAI:
+                return "finished_at";
+            case DIAMBIL:
+                return "picked_up_at";
+            default:
+                throw new IllegalArgumentException("No status time column for " + status);
+        }
+    }
+
+    private static void writeSyncState(SQLiteDatabase db, String key, long value) {
+        db.execSQL("INSERT OR REPLACE INTO " + LaundryDbHelper.TABLE_SYNC_STATE + " (key, value) VALUES (?, ?)",
+                new Object[]{key, value});
+    }
+
+    private static String feedWatermarkKey(String table) {
+        return "feed_" + table + "_updated_at";
+    }
+
+    /** Stored phones are normalized (schema version 8 rewrote older ones), so {@code phone} is too. */
+    private static long findCustomerIdByPhone(SQLiteDatabase db, String phone) {
+        Cursor c = db.rawQuery("SELECT _id FROM " + LaundryDbHelper.TABLE_CUSTOMERS + " WHERE phone = ? ORDER BY _id LIMIT 1",
+                new String[]{PhoneNumbers.normalize(phone)});
+        try {
+            return c.moveToFirst() ? c.getLong(0) : 0;
+        } finally {
+            c.close();
+        }
+    }
+
+    private static long readSyncState(SQLiteDatabase db, String key) {
+        Cursor c = db.rawQuery("SELECT value FROM " + LaundryDbHelper.TABLE_SYNC_STATE + " WHERE key = ?",
+                new String[]{key});
+        try {
+            return c.moveToFirst() ? c.getLong(0) : 0;
+        } finally {
+            c.close();
+        }
+    }
+
+    private static void insertStatusLog(SQLiteDatabase db, long orderId, String oldStatus, String newStatus, long changedAt) {
+        ContentValues values = new ContentValues();
+        values.put("order_id", orderId);
+        values.put("old_status", oldStatus);
+        values.put("new_status", newStatus);
+        values.put("changed_at", changedAt);
+        db.insertOrThrow(LaundryDbHelper.TABLE_STATUS_LOGS, null, values);
+    }
+}
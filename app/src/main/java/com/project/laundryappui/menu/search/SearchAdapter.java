@@ -4,56 +4,68 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.project.laundryappui.R;
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.CustomerLookup;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.search.SearchHit;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.ViewHolder>{
-    List<SearchModel> listSearch;
+public class SearchAdapter extends RecyclerView.Adapter<SearchAdapter.ViewHolder> {
+    private final CustomerLookup customers;
+    private final OrderFormat format = new OrderFormat();
+    private List<SearchHit> hits = new ArrayList<>();
 
-    public SearchAdapter(List<SearchModel> listSearch) {
-        this.listSearch = listSearch;
+    public SearchAdapter(CustomerLookup customers) {
+        this.customers = customers;
+    }
+
+    /** Replaces the shown hits; each query returns a fresh ranking, so there is nothing to diff. */
+    public void setHits(List<SearchHit> hits) {
+        this.hits = hits;
+        notifyDataSetChanged();
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_maps, parent, false);
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_order_status, parent, false);
         return new ViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        SearchModel list = listSearch.get(position);
+        SearchHit hit = hits.get(position);
+        Customer customer = customers.getCustomer(hit.customerId);
 
-        holder.textName.setText(list.getName());
-        holder.textScore.setText(list.getScore());
-        holder.textLocation.setText(list.getLocation());
-        holder.containerMaps.setOnClickListener(view -> Toast.makeText(view.getContext(), "Clicked!", Toast.LENGTH_SHORT).show());
+        holder.tvCode.setText(hit.code + " • " + format.formatDate(hit.createdAtMillis));
+        holder.tvCustomer.setText(customer != null ? customer.name + " • " + customer.phone : "-");
+        holder.tvPrice.setText("Total: " + format.formatPrice(hit.price));
+        holder.tvStatus.setText("Status: " + OrderStatus.of(hit.status).label);
     }
 
     @Override
     public int getItemCount() {
-        return listSearch.size();
+        return hits.size();
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
-        CardView containerMaps;
-        TextView textScore, textName, textLocation;
+        TextView tvCode, tvCustomer, tvPrice, tvStatus;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
 
-            containerMaps   = itemView.findViewById(R.id.container_recommended);
-            textName        = itemView.findViewById(R.id.item_recommended_name);
-            textScore       = itemView.findViewById(R.id.item_recommended_price);
-            textLocation    = itemView.findViewById(R.id.item_recommended_location);
+            tvCode      = itemView.findViewById(R.id.tvCode);
+            tvCustomer  = itemView.findViewById(R.id.tvCustomer);
+            tvPrice     = itemView.findViewById(R.id.tvPrice);
+            tvStatus    = itemView.findViewById(R.id.tvStatus);
         }
     }
 }
@@ -5,6 +5,7 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.SearchView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -13,15 +14,16 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.project.laundryappui.R;
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.search.OrderSearch;
 
 import java.util.ArrayList;
-import java.util.List;
 
 public class SearchFragment extends Fragment {
     private Context mContext;
     private RecyclerView recyclerView;
-    private SearchAdapter homeAdapter;
-    private List<SearchModel> searchModelList;
+    private SearchAdapter searchAdapter;
+    private OrderSearch orderSearch;
     public LinearLayoutManager layoutManager;
 
     @Override
@@ -34,16 +36,12 @@ public class SearchFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
+        orderSearch = OrderSearch.get(mContext);
+        orderSearch.build();
+
         setAdapterType(view);
         setAdapter();
-    }
-
-    private void initData() {
-        searchModelList = new ArrayList<>();
-
-        searchModelList.add(new SearchModel(R.drawable.bg_post1, "Adek Laundry \nCompany and Co.", "7.5", "Distance 1.5 km"));
-        searchModelList.add(new SearchModel(R.drawable.bg_post2, "Saudara Laundry \nCompany and Co.", "8.5", "Distance 2.5 km"));
-        searchModelList.add(new SearchModel(R.drawable.bg_post3, "Ponakan Laundry \nCompany and Co.", "9.5", "Distance 3.5 km"));
+        setSearchView(view);
     }
 
     private void setAdapterType(View view) {
@@ -51,15 +49,50 @@ public class SearchFragment extends Fragment {
         layoutManager = new LinearLayoutManager(mContext);
 
         recyclerView.setHasFixedSize(true);
-        recyclerView.setLayoutManager(new LinearLayoutManager(mContext, LinearLayoutManager.HORIZONTAL, false));
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setNestedScrollingEnabled(true);
     }
 
     private void setAdapter() {
-        initData();
+        searchAdapter = new SearchAdapter(LaundryStore.get(mContext));
+        recyclerView.setAdapter(searchAdapter);
+    }
+
+    private void setSearchView(View view) {
+        SearchView searchView = view.findViewById(R.id.search_recipe);
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                search(query);
+                return true;
+            }
 
-        homeAdapter = new SearchAdapter(searchModelList);
-        recyclerView.setAdapter(homeAdapter);
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                search(newText);
+                return true;
+            }
+        });
+    }
+
+    private void search(String query) {
+        if (query.trim().isEmpty()) {
+            orderSearch.cancel();
+            searchAdapter.setHits(new ArrayList<>());
+            return;
+        }
+        orderSearch.search(query, (searched, hits) -> {
+            if (searchAdapter != null) {
+                searchAdapter.setHits(hits);
+            }
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        orderSearch.cancel();
+        searchAdapter = null;
+        super.onDestroyView();
     }
 
     @Override
@@ -67,4 +100,4 @@ public class SearchFragment extends Fragment {
         super.onAttach(context);
         mContext = context;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.project.laundryappui.network;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bookkeeping for a call sent in chunks: each chunk finishes exactly once, even if the
+ * transport reports it twice, and {@link Completion#onComplete} fires once after the last
+ * one, even if reporting a chunk's result throws.
+ */
+public class BatchProgress {
+
+    public interface Completion {
+        void onComplete(int succeededBatches, int failedBatches);
+    }
+
+    private final AtomicBoolean[] finished;
+    private final AtomicInteger remaining;
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Completion completion;
+
+    public BatchProgress(int batchCount, Completion completion) {
+        this.finished = new AtomicBoolean[batchCount];
+        for (int i = 0; i < batchCount; i++) {
+            finished[i] = new AtomicBoolean();
+        }
+        this.remaining = new AtomicInteger(batchCount);
+        this.completion = completion;
+    }
+
+    /**
+     * Marks chunk {@code batchIndex} done and runs {@code reportResult}, unless the chunk was
+     * already finished. Returns false for such a repeat.
+     */
+    public boolean finish(int batchIndex, boolean success, Runnable reportResult) {
+        if (!finished[batchIndex].compareAndSet(false, true)) {
+            return false;
+        }
+        if (!success) {
+            failed.incrementAndGet();
+        }
+        try {
+            reportResult.run();
+        } finally {
+            if (remaining.decrementAndGet() == 0) {
+                completion.onComplete(finished.length - failed.get(), failed.get());
+            }
+        }
+        return true;
+    }
+}
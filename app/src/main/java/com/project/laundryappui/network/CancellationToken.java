@@ -0,0 +1,16 @@
+package com.project.laundryappui.network;
+
+/**
+ * Lets the caller stop a long-running streaming fetch. Checked between rows and pages.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.laundryappui.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stops calling a backend that keeps failing.
+ * <p>
+ * After {@code failureThreshold} consecutive transient failures the breaker opens and every
+ * call fails fast for {@code openMs}. It then lets a single probe through; the probe's result
+ * either closes the breaker again or re-opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong openedCount = new AtomicLong();
+    private final AtomicLong halfOpenedCount = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+
+    /** Returns false if the call must fail fast instead of reaching the network. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (now() - openedAt < openMs) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenedCount.incrementAndGet();
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            closedCount.incrementAndGet();
+        }
+    }
+
+    /** Records a transient failure. Client errors (4xx) should not be reported here. */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                openedCount.incrementAndGet();
+            }
+            state = State.OPEN;
+            openedAt = now();
+            probeInFlight = false;
+        }
+    }
+
+    /** Releases an acquired call that ended without a verdict on the backend, e.g. cancelled. */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getOpenedCount() {
+        return openedCount.get();
+    }
+
+    public long getHalfOpenedCount() {
+        return halfOpenedCount.get();
+    }
+
+    public long getClosedCount() {
+        return closedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+}
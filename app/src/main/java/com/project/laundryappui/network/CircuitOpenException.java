@@ -0,0 +1,12 @@
+package com.project.laundryappui.network;
+
+/**
+ * Thrown without touching the network while the circuit breaker considers the backend down.
+ */
+public class CircuitOpenException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException() {
+        super("Backend unavailable, circuit open");
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.laundryappui.network;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single HTTP call handed to an {@link HttpTransport}.
+ */
+public class HttpRequest {
+
+    /** Interactive calls are dispatched ahead of queued bulk work. */
+    public enum Priority {
+        INTERACTIVE,
+        BULK
+    }
+
+    final String method;
+    final String url;
+    final Map<String, String> headers = new LinkedHashMap<>();
+    byte[] body;
+    Priority priority = Priority.INTERACTIVE;
+    int timeoutMs;
+    Boolean idempotent;
+
+    public HttpRequest(String method, String url) {
+        this.method = method;
+        this.url = url;
+    }
+
+    public HttpRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public HttpRequest body(String json) {
+        this.body = json.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    public HttpRequest priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /** Connect and read timeout for this call; 0 uses the transport default. */
+    public HttpRequest timeoutMs(int timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        return this;
+    }
+
+    /** Marks a POST as safe to repeat, e.g. an upsert that merges duplicates. */
+    public HttpRequest idempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /** Explicitly flagged requests, otherwise every method except POST and PATCH. */
+    public boolean isIdempotent() {
+        if (idempotent != null) {
+            return idempotent;
+        }
+        return !"POST".equals(method) && !"PATCH".equals(method);
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.laundryappui.network;
+
+/**
+ * A request that reached the server but got a non-2xx answer.
+ */
+public class HttpStatusException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    public HttpStatusException(int code) {
+        super("HTTP " + code);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /** Server-side and throttling failures are transient; other 4xx mean the request itself is wrong. */
+    public boolean isTransient() {
+        return isTransient(code);
+    }
+
+    public static boolean isTransient(int code) {
+        return code >= 500 || code == 408 || code == 429;
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.laundryappui.network;
+
+import java.io.InputStream;
+
+/**
+ * Executes HTTP requests asynchronously. {@link SupabaseClient} talks to the backend only
+ * through this interface, so tests can swap in a transport pointed at a local stub server.
+ */
+public interface HttpTransport {
+
+    /**
+     * Receives the outcome of a request on a transport worker thread: exactly one of the two
+     * methods is called per request. {@link #onFailure} reports only failures before a
+     * response arrived; errors reading or handling the body are the handler's to report, and
+     * an exception thrown by {@link #onResponse} is not caught. The body stream is only valid
+     * for the duration of {@link #onResponse}; closing it early drops the connection instead of
+     * draining it.
+     */
+    interface ResponseHandler {
+        void onResponse(int code, InputStream body);
+        void onFailure(Exception e);
+    }
+
+    void execute(HttpRequest request, ResponseHandler handler);
+
+    void shutdown();
+}
@@ -0,0 +1,127 @@
+package com.project.laundryappui.network;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a JSON array response into its top-level elements one at a time, so only the
+ * element currently being handled is held in memory rather than the whole body.
+ */
+public class JsonArrayStreamReader {
+    private final Reader reader;
+    private final StringBuilder element = new StringBuilder(256);
+    private boolean started;
+    private boolean finished;
+    private int pushedBack = -1;
+
+    public JsonArrayStreamReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 8192);
+    }
+
+    /** Returns the raw JSON text of the next element, or null once the array is closed. */
+    public String next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            if (skipWhitespace() != '[') {
+                throw new IOException("Expected a JSON array");
+            }
+            started = true;
+        }
+
+        int c = skipWhitespace();
+        if (c == ',') {
+            c = skipWhitespace();
+        }
+        if (c == ']') {
+            finished = true;
+            return null;
+        }
+        if (c == -1) {
+            throw new IOException("Unexpected end of JSON array");
+        }
+
+        element.setLength(0);
+        if (c == '{' || c == '[') {
+            readContainer(c);
+        } else if (c == '"') {
+            element.append('"');
+            readString();
+        } else {
+            readPrimitive(c);
+        }
+        return element.toString();
+    }
+
+    private void readContainer(int open) throws IOException {
+        int depth = 0;
+        int c = open;
+        while (true) {
+            if (c == -1) {
+                throw new IOException("Unexpected end of JSON element");
+            }
+            element.append((char) c);
+            if (c == '"') {
+                readString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    return;
+                }
+            }
+            c = read();
+        }
+    }
+
+    /** Appends the rest of a string literal whose opening quote was already appended. */
+    private void readString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated JSON string");
+            }
+            element.append((char) c);
+            if (c == '\\') {
+                int escaped = read();
+                if (escaped == -1) {
+                    throw new IOException("Unterminated JSON string");
+                }
+                element.append((char) escaped);
+            } else if (c == '"') {
+                return;
+            }
+        }
+    }
+
+    private void readPrimitive(int first) throws IOException {
+        int c = first;
+        while (c != -1 && c != ',' && c != ']' && !Character.isWhitespace(c)) {
+            element.append((char) c);
+            c = read();
+        }
+        pushedBack = c;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+}
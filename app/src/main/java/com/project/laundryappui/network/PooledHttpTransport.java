@@ -0,0 +1,245 @@
+package com.project.laundryappui.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link HttpTransport} on top of {@link HttpURLConnection} with a bounded worker pool.
+ * <p>
+ * Response bodies are always drained and closed and connections are never disconnected on
+ * success, which lets the platform keep-alive pool reuse the socket for the next call to the
+ * same host. Waiting calls are dispatched interactive-first, at most {@code maxPerHost} run
+ * against one host at a time, and bulk calls never occupy the last free worker so an
+ * interactive fetch can always start.
+ * <p>
+ * {@link #shutdown} is graceful: calls already accepted still run and get their callback,
+ * only new calls are failed.
+ */
+public class PooledHttpTransport implements HttpTransport {
+    private final ExecutorService workers;
+    private final int maxConcurrent;
+    private final int maxPerHost;
+    private final int maxBulk;
+    private final int defaultTimeoutMs;
+
+    private final TreeSet<Call> waiting = new TreeSet<>();
+    private final Map<String, Integer> runningPerHost = new HashMap<>();
+    private int running;
+    private int runningBulk;
+    private long nextSequence;
+    private boolean shutDown;
+
+    public PooledHttpTransport(int maxConcurrent, int maxPerHost, int defaultTimeoutMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.maxBulk = Math.max(1, this.maxConcurrent - 1);
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.workers = new ThreadPoolExecutor(this.maxConcurrent, this.maxConcurrent, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new WorkerFactory());
+        ((ThreadPoolExecutor) workers).allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(HttpRequest request, ResponseHandler handler) {
+        String host;
+        try {
+            host = new URL(request.url).getAuthority();
+        } catch (IOException e) {
+            handler.onFailure(e);
+            return;
+        }
+        boolean accepted;
+        synchronized (this) {
+            accepted = !shutDown;
+            if (accepted) {
+                waiting.add(new Call(request, handler, host, nextSequence++));
+            }
+        }
+        if (!accepted) {
+            handler.onFailure(new IOException("Transport is shut down"));
+            return;
+        }
+        promote();
+    }
+
+    /** Refuses new calls; the workers stop once the accepted ones have finished. */
+    @Override
+    public synchronized void shutdown() {
+        shutDown = true;
+        stopWorkersIfIdle();
+    }
+
+    private void promote() {
+        List<Call> rejected = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Call> it = waiting.iterator();
+            while (it.hasNext() && running < maxConcurrent) {
+                Call call = it.next();
+                boolean bulk = call.request.priority == HttpRequest.Priority.BULK;
+                int hostRunning = runningOnHost(call.host);
+                if (hostRunning >= maxPerHost || (bulk && runningBulk >= maxBulk)) {
+                    continue;
+                }
+                it.remove();
+                running++;
+                if (bulk) runningBulk++;
+                runningPerHost.put(call.host, hostRunning + 1);
+                try {
+                    workers.execute(call);
+                } catch (RejectedExecutionException e) {
+                    finished(call);
+                    rejected.add(call);
+                }
+            }
+        }
+        for (Call call : rejected) {
+            call.handler.onFailure(new IOException("Transport is shut down"));
+        }
+    }
+
+    private synchronized void finished(Call call) {
+        running--;
+        if (call.request.priority == HttpRequest.Priority.BULK) runningBulk--;
+        int hostRunning = runningOnHost(call.host) - 1;
+        if (hostRunning == 0) {
+            runningPerHost.remove(call.host);
+        } else {
+            runningPerHost.put(call.host, hostRunning);
+        }
+        stopWorkersIfIdle();
+    }
+
+    private void stopWorkersIfIdle() {
+        if (shutDown && running == 0 && waiting.isEmpty()) {
+            workers.shutdown();
+        }
+    }
+
+    private int runningOnHost(String host) {
+        Integer count = runningPerHost.get(host);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Only the connection is guarded: once the response is handed over, the handler owns the
+     * outcome, and an exception it throws propagates instead of turning into a second callback.
+     */
+    private void perform(HttpRequest request, ResponseHandler handler) {
+        HttpURLConnection conn = null;
+        int code;
+        InputStream in;
+        try {
+            int timeout = request.timeoutMs > 0 ? request.timeoutMs : defaultTimeoutMs;
+            conn = (HttpURLConnection) new URL(request.url).openConnection();
+            conn.setRequestMethod(request.method);
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(timeout);
+            for (Map.Entry<String, String> header : request.headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (request.body != null) {
+                conn.setDoOutput(true);
+                conn.setFixedLengthStreamingMode(request.body.length);
+                OutputStream os = conn.getOutputStream();
+                os.write(request.body);
+                os.close();
+            }
+
+            code = conn.getResponseCode();
+            in = code >= 400 ? conn.getErrorStream() : conn.getInputStream();
+        } catch (IOException | RuntimeException e) {
+            // A connection in an unknown state must not go back into the keep-alive pool.
+            if (conn != null) conn.disconnect();
+            handler.onFailure(e);
+            return;
+        }
+
+        if (in == null) {
+            handler.onResponse(code, new ByteArrayInputStream(new byte[0]));
+            return;
+        }
+        boolean reusable = false;
+        try {
+            handler.onResponse(code, in);
+            drain(in);
+            reusable = true;
+        } catch (IOException e) {
+            // The body broke off or the handler closed it early; the handler has had its answer.
+        } finally {
+            closeQuietly(in);
+            if (!reusable) conn.disconnect();
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // Discard whatever the handler did not consume.
+        }
+    }
+
+    private final class Call implements Runnable, Comparable<Call> {
+        final HttpRequest request;
+        final ResponseHandler handler;
+        final String host;
+        final long sequence;
+
+        Call(HttpRequest request, ResponseHandler handler, String host, long sequence) {
+            this.request = request;
+            this.handler = handler;
+            this.host = host;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            try {
+                perform(request, handler);
+            } finally {
+                finished(this);
+                promote();
+            }
+        }
+
+        @Override
+        public int compareTo(Call other) {
+            int byPriority = request.priority.compareTo(other.request.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
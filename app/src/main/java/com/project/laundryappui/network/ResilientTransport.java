@@ -0,0 +1,104 @@
+package com.project.laundryappui.network;
+
+import java.io.InputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link HttpTransport} decorator that retries transient failures of idempotent requests with
+ * jittered exponential backoff and fails fast through a {@link CircuitBreaker} while the
+ * backend is down.
+ * <p>
+ * Transient 5xx/408/429 answers are retried before the handler sees them; once a response
+ * has been handed to the handler nothing is retried, so rows are never delivered twice.
+ * {@link #shutdown} still runs the retries already scheduled, which then fail on the shut
+ * down delegate, so every call gets its callback.
+ */
+public class ResilientTransport implements HttpTransport {
+    private final HttpTransport delegate;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker breaker;
+    private final ScheduledExecutorService retryTimer;
+    private final AtomicLong retryCount = new AtomicLong();
+
+    public ResilientTransport(HttpTransport delegate, RetryPolicy retryPolicy, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.retryPolicy = retryPolicy;
+        this.breaker = breaker;
+        this.retryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "http-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(HttpRequest request, ResponseHandler handler) {
+        attempt(request, handler, 1);
+    }
+
+    @Override
+    public void shutdown() {
+        retryTimer.shutdown();
+        delegate.shutdown();
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    private void attempt(HttpRequest request, ResponseHandler handler, int attempt) {
+        if (!breaker.tryAcquire()) {
+            handler.onFailure(new CircuitOpenException());
+            return;
+        }
+
+        delegate.execute(request, new ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream body) {
+                if (HttpStatusException.isTransient(code)) {
+                    breaker.onFailure();
+                    if (!retryLater(new HttpStatusException(code))) {
+                        handler.onResponse(code, body);
+                    }
+                    return;
+                }
+                breaker.onSuccess();
+                handler.onResponse(code, body);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (RetryPolicy.isTransient(e)) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onIgnored();
+                }
+                if (!retryLater(e)) {
+                    handler.onFailure(e);
+                }
+            }
+
+            private boolean retryLater(Exception error) {
+                if (!retryPolicy.shouldRetry(request, attempt, error) || retryTimer.isShutdown()) {
+                    return false;
+                }
+                try {
+                    retryTimer.schedule(() -> attempt(request, handler, attempt + 1),
+                            retryPolicy.delayBeforeRetry(attempt), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    return false;
+                }
+                retryCount.incrementAndGet();
+                return true;
+            }
+        });
+    }
+}
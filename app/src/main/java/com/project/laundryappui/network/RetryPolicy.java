@@ -0,0 +1,41 @@
+package com.project.laundryappui.network;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Exponential backoff with full jitter for transient failures of idempotent requests.
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Random random = new Random();
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /** Whether a request that failed on {@code attempt} (1-based) with {@code error} may be sent again. */
+    public boolean shouldRetry(HttpRequest request, int attempt, Exception error) {
+        return attempt < maxAttempts && request.isIdempotent() && isTransient(error);
+    }
+
+    /** Random delay in [0, min(maxDelay, base * 2^(attempt-1))]. */
+    public long delayBeforeRetry(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        synchronized (random) {
+            return (long) (random.nextDouble() * (ceiling + 1));
+        }
+    }
+
+    /** IO errors and 5xx/408/429 answers are transient; any other 4xx is not. */
+    public static boolean isTransient(Exception error) {
+        if (error instanceof HttpStatusException) {
+            return ((HttpStatusException) error).isTransient();
+        }
+        return error instanceof IOException;
+    }
+}
@@ -3,15 +3,14 @@ package com.project.laundryappui.network;
 import android.util.Log;
 import com.project.laundryappui.BuildConfig;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Basic Supabase REST Client for Production Ready status.
@@ -19,83 +18,538 @@ import java.util.concurrent.Executors;
  */
 public class SupabaseClient {
     private static final String TAG = "SupabaseClient";
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final int MAX_REQUESTS_PER_HOST = 3;
+    private static final int DEFAULT_TIMEOUT_MS = 15000;
+
+    private static final int RETRY_MAX_ATTEMPTS = 4;
+    private static final long RETRY_BASE_DELAY_MS = 500;
+    private static final long RETRY_MAX_DELAY_MS = 8000;
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MS = 30000;
+
+    private static HttpTransport transport = new ResilientTransport(
+            new PooledHttpTransport(MAX_CONCURRENT_REQUESTS, MAX_REQUESTS_PER_HOST, DEFAULT_TIMEOUT_MS),
+            new RetryPolicy(RETRY_MAX_ATTEMPTS, RETRY_BASE_DELAY_MS, RETRY_MAX_DELAY_MS),
+            new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MS));
 
     public interface Callback<T> {
         void onSuccess(T result);
         void onError(Exception e);
     }
 
+    /**
+     * Receives the outcome of each chunk of a batched upsert on a worker thread. Chunks may
+     * complete out of order; {@link #onComplete} is called once after the last one.
+     */
+    public interface BatchCallback {
+        void onBatchResult(int batchIndex, int batchCount, int rowCount, Exception error);
+        void onComplete(int succeededBatches, int failedBatches);
+    }
+
+    /**
+     * Receives the per-item results of each chunk of {@link #updateOrderStatusesInBatches} on a
+     * worker thread. {@code results} has one row per item of the chunk, or is null on error.
+     */
+    public interface StatusBatchCallback {
+        void onBatchResult(int batchIndex, int batchCount, JSONArray results, Exception error);
+        void onComplete(int succeededBatches, int failedBatches);
+    }
+
+    /**
+     * Receives rows of a streaming fetch one at a time on a worker thread. {@link #onPageEnd}
+     * follows the last row of each complete page, before the next one is requested.
+     * {@code rowCount} is the number of rows passed to {@link #onRow}, also when the fetch was
+     * cancelled.
+     */
+    public interface RowCallback {
+        void onRow(JSONObject row) throws Exception;
+        void onPageEnd() throws Exception;
+        void onComplete(int rowCount, boolean cancelled);
+        void onError(Exception e);
+    }
+
+    /**
+     * Replaces the transport, e.g. with one pointed at a local stub server in tests. Calls
+     * already sent through the old transport still finish.
+     */
+    public static synchronized void setTransport(HttpTransport newTransport) {
+        transport.shutdown();
+        transport = newTransport;
+    }
+
+    private static synchronized HttpTransport transport() {
+        return transport;
+    }
+
+    /**
+     * The client's transport for callers that build their own PostgREST requests. Follows
+     * {@link #setTransport}; shutting it down is left to the client.
+     */
+    public static HttpTransport getTransport() {
+        return new HttpTransport() {
+            @Override
+            public void execute(HttpRequest request, ResponseHandler handler) {
+                transport().execute(request, handler);
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
+    /** True while the circuit breaker is failing calls fast because the backend is down. */
+    public static boolean isBackendUnavailable() {
+        HttpTransport current = transport();
+        return current instanceof ResilientTransport
+                && ((ResilientTransport) current).getBreaker().getState() == CircuitBreaker.State.OPEN;
+    }
+
+    /** Retry and breaker counters for diagnostics, e.g. {@code retries=3 opened=1 ...}. */
+    public static String getResilienceStats() {
+        HttpTransport current = transport();
+        if (!(current instanceof ResilientTransport)) {
+            return "";
+        }
+        ResilientTransport resilient = (ResilientTransport) current;
+        CircuitBreaker breaker = resilient.getBreaker();
+        return "retries=" + resilient.getRetryCount()
+                + " opened=" + breaker.getOpenedCount()
+                + " halfOpened=" + breaker.getHalfOpenedCount()
+                + " closed=" + breaker.getClosedCount()
+                + " rejected=" + breaker.getRejectedCount()
+                + " state=" + breaker.getState();
+    }
+
     public static void post(String table, JSONObject data, Callback<String> callback) {
-        executor.execute(() -> {
-            HttpURLConnection conn = null;
-            try {
-                if (BuildConfig.SUPABASE_URL.isEmpty()) {
-                    callback.onError(new Exception("SUPABASE_URL is not configured"));
+        send(table, null, "return=minimal", data.toString(), HttpRequest.Priority.INTERACTIVE, false,
+                new Callback<String>() {
+                    @Override
+                    public void onSuccess(String result) {
+                        callback.onSuccess(result);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Error posting to " + table, e);
+                        callback.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Inserts all {@code rows} in a single bulk-lane request. Plain inserts are not idempotent,
+     * so the transport does not retry them; the caller keeps the rows and sends them again.
+     */
+    public static void insert(String table, JSONArray rows, Callback<String> callback) {
+        send(table, null, "return=minimal", rows.toString(), HttpRequest.Priority.BULK, false,
+                new Callback<String>() {
+                    @Override
+                    public void onSuccess(String result) {
+                        callback.onSuccess(result);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Error inserting into " + table, e);
+                        callback.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Inserts or merges all {@code rows} in a single request. Rows whose {@code onConflict}
+     * columns match an existing row update it instead of failing the unique constraint.
+     */
+    public static void upsert(String table, JSONArray rows, String onConflict, Callback<String> callback) {
+        send(table, onConflict, "resolution=merge-duplicates,return=minimal", rows.toString(),
+                HttpRequest.Priority.BULK, true, new Callback<String>() {
+                    @Override
+                    public void onSuccess(String result) {
+                        callback.onSuccess(result);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Error upserting into " + table, e);
+                        callback.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Upserts all {@code rows} in a single request like {@link #upsert} and returns the
+     * {@code select} columns of the stored rows, e.g. the ids the server assigned.
+     */
+    public static void upsertReturning(String table, JSONArray rows, String onConflict, String select,
+                                       Callback<JSONArray> callback) {
+        if (BuildConfig.SUPABASE_URL.isEmpty()) {
+            callback.onError(new Exception("SUPABASE_URL is not configured"));
+            return;
+        }
+
+        HttpRequest request = authorized(new HttpRequest("POST", BuildConfig.SUPABASE_URL + "/rest/v1/" + table
+                + "?on_conflict=" + onConflict + "&select=" + select))
+                .header("Content-Type", "application/json")
+                .header("Prefer", "resolution=merge-duplicates,return=representation")
+                .body(rows.toString())
+                .priority(HttpRequest.Priority.BULK)
+                .idempotent(true);
+        transport().execute(request, new HttpTransport.ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream body) {
+                if (code < 200 || code >= 300) {
+                    callback.onError(new HttpStatusException(code));
+                    return;
+                }
+                JSONArray stored;
+                try {
+                    stored = new JSONArray(readBody(body));
+                } catch (IOException | JSONException e) {
+                    onFailure(e);
                     return;
                 }
+                callback.onSuccess(stored);
+            }
 
-                URL url = new URL(BuildConfig.SUPABASE_URL + "/rest/v1/" + table);
-                conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setRequestProperty("apikey", BuildConfig.SUPABASE_ANON_KEY);
-                conn.setRequestProperty("Authorization", "Bearer " + BuildConfig.SUPABASE_ANON_KEY);
-                conn.setRequestProperty("Prefer", "return=minimal");
-                conn.setDoOutput(true);
-
-                OutputStream os = conn.getOutputStream();
-                os.write(data.toString().getBytes(StandardCharsets.UTF_8));
-                os.flush();
-                os.close();
-
-                int responseCode = conn.getResponseCode();
-                if (responseCode >= 200 && responseCode < 300) {
-                    callback.onSuccess("Success");
-                } else {
-                    callback.onError(new Exception("HTTP " + responseCode));
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Error upserting into " + table, e);
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Upserts {@code rows} in chunks of at most {@code batchSize}, one bulk-lane request per
+     * chunk. A failed chunk is reported and the remaining chunks are still sent.
+     */
+    public static void upsertInBatches(String table, JSONArray rows, String onConflict, int batchSize,
+                                       BatchCallback callback) {
+        int size = Math.max(1, batchSize);
+        int batchCount = (rows.length() + size - 1) / size;
+        if (batchCount == 0) {
+            callback.onComplete(0, 0);
+            return;
+        }
+
+        BatchProgress progress = new BatchProgress(batchCount, callback::onComplete);
+        for (int batch = 0; batch < batchCount; batch++) {
+            int batchIndex = batch;
+            int from = batch * size;
+            int to = Math.min(rows.length(), from + size);
+            JSONArray chunk = new JSONArray();
+            for (int i = from; i < to; i++) {
+                chunk.put(rows.opt(i));
+            }
+            send(table, onConflict, "resolution=merge-duplicates,return=minimal", chunk.toString(),
+                    HttpRequest.Priority.BULK, true, new Callback<String>() {
+                        @Override
+                        public void onSuccess(String result) {
+                            finish(null);
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            Log.e(TAG, "Error upserting batch " + (batchIndex + 1) + "/" + batchCount + " into " + table, e);
+                            finish(e);
+                        }
+
+                        private void finish(Exception error) {
+                            progress.finish(batchIndex, error == null,
+                                    () -> callback.onBatchResult(batchIndex, batchCount, to - from, error));
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Calls the Postgres function {@code function} with named {@code args} and returns the
+     * rows it produced. The transport may retry the call, so the function must be safe to repeat.
+     */
+    public static void rpc(String function, JSONObject args, Callback<JSONArray> callback) {
+        if (BuildConfig.SUPABASE_URL.isEmpty()) {
+            callback.onError(new Exception("SUPABASE_URL is not configured"));
+            return;
+        }
+
+        HttpRequest request = authorized(new HttpRequest("POST", BuildConfig.SUPABASE_URL + "/rest/v1/rpc/" + function))
+                .header("Content-Type", "application/json")
+                .body(args.toString())
+                .priority(HttpRequest.Priority.BULK)
+                .idempotent(true);
+        transport().execute(request, new HttpTransport.ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream body) {
+                if (code < 200 || code >= 300) {
+                    callback.onError(new HttpStatusException(code));
+                    return;
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error posting to " + table, e);
+                JSONArray rows;
+                try {
+                    rows = new JSONArray(readBody(body));
+                } catch (IOException | JSONException e) {
+                    onFailure(e);
+                    return;
+                }
+                callback.onSuccess(rows);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Error calling " + function, e);
                 callback.onError(e);
-            } finally {
-                if (conn != null) conn.disconnect();
             }
         });
     }
 
-    public static void fetch(String table, String select, Callback<JSONArray> callback) {
-        executor.execute(() -> {
-            HttpURLConnection conn = null;
+    /**
+     * Applies status transitions, {@code {"kode": ..., "status": ...}} objects, through the
+     * {@code update_order_statuses} function in chunks of at most {@code batchSize}. The server
+     * checks access and license once per chunk and reports a {@code hasil} per item. A failed
+     * chunk is reported and the remaining chunks are still sent.
+     */
+    public static void updateOrderStatusesInBatches(String tenantId, JSONArray transitions, int batchSize,
+                                                    StatusBatchCallback callback) {
+        int size = Math.max(1, batchSize);
+        int batchCount = (transitions.length() + size - 1) / size;
+        if (batchCount == 0) {
+            callback.onComplete(0, 0);
+            return;
+        }
+
+        BatchProgress progress = new BatchProgress(batchCount, callback::onComplete);
+        for (int batch = 0; batch < batchCount; batch++) {
+            int batchIndex = batch;
+            int from = batch * size;
+            int to = Math.min(transitions.length(), from + size);
+            JSONArray chunk = new JSONArray();
+            for (int i = from; i < to; i++) {
+                chunk.put(transitions.opt(i));
+            }
+            JSONObject args = new JSONObject();
             try {
-                if (BuildConfig.SUPABASE_URL.isEmpty()) {
-                    callback.onError(new Exception("SUPABASE_URL is not configured"));
+                args.put("p_tenant_id", tenantId);
+                args.put("p_items", chunk);
+            } catch (JSONException e) {
+                throw new AssertionError(e);
+            }
+            rpc("update_order_statuses", args, new Callback<JSONArray>() {
+                @Override
+                public void onSuccess(JSONArray results) {
+                    finish(results, null);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    finish(null, e);
+                }
+
+                private void finish(JSONArray results, Exception error) {
+                    progress.finish(batchIndex, error == null,
+                            () -> callback.onBatchResult(batchIndex, batchCount, results, error));
+                }
+            });
+        }
+    }
+
+    public static void fetch(String table, String select, Callback<JSONArray> callback) {
+        if (BuildConfig.SUPABASE_URL.isEmpty()) {
+            callback.onError(new Exception("SUPABASE_URL is not configured"));
+            return;
+        }
+
+        HttpRequest request = authorized(new HttpRequest("GET",
+                BuildConfig.SUPABASE_URL + "/rest/v1/" + table + "?select=" + select));
+        transport().execute(request, new HttpTransport.ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream body) {
+                if (code < 200 || code >= 300) {
+                    callback.onError(new HttpStatusException(code));
                     return;
                 }
+                JSONArray rows;
+                try {
+                    rows = new JSONArray(readBody(body));
+                } catch (IOException | JSONException e) {
+                    onFailure(e);
+                    return;
+                }
+                callback.onSuccess(rows);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Error fetching from " + table, e);
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Streams every row of {@code table} matching {@code filter} (PostgREST query params such
+     * as {@code tenant_id=eq.X}, may be empty) to {@code callback}, in pages of
+     * {@code pageSize}. Pages are ordered by the two {@code keyset} columns, e.g.
+     * {@code "updated_at,id"}: a timestamp and a unique tie-break, both of which {@code select}
+     * must include. Each next page is requested with a keyset filter on the last row seen, so
+     * rows sharing a timestamp may span pages without being skipped or repeated. Rows are
+     * parsed one at a time while the response is still being read, so memory stays flat
+     * regardless of the result size.
+     * <p>
+     * Requests go through {@code transport} to the PostgREST server at {@code baseUrl}.
+     */
+    public static void fetchStream(HttpTransport transport, String baseUrl, String apiKey,
+                                   String table, String select, String filter, String keyset, int pageSize,
+                                   CancellationToken token, RowCallback callback) {
+        if (baseUrl.isEmpty()) {
+            callback.onError(new Exception("SUPABASE_URL is not configured"));
+            return;
+        }
+        String[] columns = keyset.split(",");
+        if (columns.length != 2) {
+            throw new IllegalArgumentException("Keyset must be two columns: " + keyset);
+        }
+        StringBuilder url = new StringBuilder(baseUrl)
+                .append("/rest/v1/").append(table)
+                .append("?select=").append(select)
+                .append("&order=").append(columns[0]).append(".asc,").append(columns[1]).append(".asc")
+                .append("&limit=").append(Math.max(1, pageSize));
+        if (filter != null && !filter.isEmpty()) {
+            url.append('&').append(filter);
+        }
+        fetchPage(transport, apiKey, table, url.toString(), columns[0], columns[1], Math.max(1, pageSize),
+                null, null, 0, token, callback);
+    }
 
-                URL url = new URL(BuildConfig.SUPABASE_URL + "/rest/v1/" + table + "?select=" + select);
-                conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("apikey", BuildConfig.SUPABASE_ANON_KEY);
-                conn.setRequestProperty("Authorization", "Bearer " + BuildConfig.SUPABASE_ANON_KEY);
-
-                int responseCode = conn.getResponseCode();
-                if (responseCode >= 200 && responseCode < 300) {
-                    BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = in.readLine()) != null) response.append(line);
-                    in.close();
-                    callback.onSuccess(new JSONArray(response.toString()));
+    private static void fetchPage(HttpTransport transport, String apiKey, String table, String url,
+                                  String timeColumn, String idColumn, int pageSize,
+                                  String afterTime, String afterId, int rowsSoFar,
+                                  CancellationToken token, RowCallback callback) {
+        if (token.isCancelled()) {
+            callback.onComplete(rowsSoFar, true);
+            return;
+        }
+
+        String pageUrl = url;
+        if (afterTime != null) {
+            // Quoted, or PostgREST may split the timestamp at its ':' and '+'.
+            String time = '"' + afterTime + '"';
+            pageUrl += "&or=" + encode("(" + timeColumn + ".gt." + time
+                    + ",and(" + timeColumn + ".eq." + time + "," + idColumn + ".gt." + afterId + "))");
+        }
+
+        HttpRequest request = authorized(new HttpRequest("GET", pageUrl), apiKey)
+                .priority(HttpRequest.Priority.BULK);
+        transport.execute(request, new HttpTransport.ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream body) {
+                if (code < 200 || code >= 300) {
+                    callback.onError(new HttpStatusException(code));
+                    return;
+                }
+
+                int pageRows = 0;
+                String lastTime = null;
+                String lastId = null;
+                try {
+                    JsonArrayStreamReader reader = new JsonArrayStreamReader(body);
+                    String element;
+                    while ((element = reader.next()) != null) {
+                        if (token.isCancelled()) {
+                            // Closing the body makes the transport drop the connection instead of draining it.
+                            body.close();
+                            callback.onComplete(rowsSoFar + pageRows, true);
+                            return;
+                        }
+                        JSONObject row = new JSONObject(element);
+                        callback.onRow(row);
+                        lastTime = row.optString(timeColumn, null);
+                        lastId = row.optString(idColumn, null);
+                        pageRows++;
+                    }
+                    if (pageRows > 0) {
+                        callback.onPageEnd();
+                    }
+                } catch (Exception e) {
+                    onFailure(e);
+                    return;
+                }
+
+                int total = rowsSoFar + pageRows;
+                if (pageRows < pageSize || lastTime == null || lastId == null) {
+                    callback.onComplete(total, false);
                 } else {
-                    callback.onError(new Exception("HTTP " + responseCode));
+                    fetchPage(transport, apiKey, table, url, timeColumn, idColumn, pageSize,
+                            lastTime, lastId, total, token, callback);
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching from " + table, e);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Error streaming from " + table, e);
                 callback.onError(e);
-            } finally {
-                if (conn != null) conn.disconnect();
             }
         });
     }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void send(String table, String onConflict, String prefer, String body,
+                             HttpRequest.Priority priority, boolean idempotent, Callback<String> callback) {
+        if (BuildConfig.SUPABASE_URL.isEmpty()) {
+            callback.onError(new Exception("SUPABASE_URL is not configured"));
+            return;
+        }
+
+        String query = onConflict == null ? "" : "?on_conflict=" + onConflict;
+        HttpRequest request = authorized(new HttpRequest("POST", BuildConfig.SUPABASE_URL + "/rest/v1/" + table + query))
+                .header("Content-Type", "application/json")
+                .header("Prefer", prefer)
+                .body(body)
+                .priority(priority)
+                .idempotent(idempotent);
+        transport().execute(request, new HttpTransport.ResponseHandler() {
+            @Override
+            public void onResponse(int code, InputStream responseBody) {
+                if (code >= 200 && code < 300) {
+                    callback.onSuccess("Success");
+                } else {
+                    callback.onError(new HttpStatusException(code));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    private static HttpRequest authorized(HttpRequest request) {
+        return authorized(request, BuildConfig.SUPABASE_ANON_KEY);
+    }
+
+    private static HttpRequest authorized(HttpRequest request, String apiKey) {
+        return request
+                .header("apikey", apiKey)
+                .header("Authorization", "Bearer " + apiKey);
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,36 @@
+package com.project.laundryappui.notification;
+
+/**
+ * Token-bucket rate limiter: allows bursts of up to {@code capacity} sends, refilled at a
+ * steady {@code tokensPerSecond}.
+ */
+public class TokenBucket {
+    private final int capacity;
+    private final double tokensPerMs;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerMs = tokensPerSecond / 1000.0;
+        this.tokens = this.capacity;
+        this.refilledAt = now();
+    }
+
+    /** Takes a token and returns 0, or returns how many ms to wait until one is available. */
+    public synchronized long tryAcquire() {
+        long now = now();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMs);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerMs));
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,321 @@
+package com.project.laundryappui.notification;
+
+import android.util.Log;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.CustomerLookup;
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.data.WhatsappMessage;
+import com.project.laundryappui.network.HttpStatusException;
+import com.project.laundryappui.network.RetryPolicy;
+import com.project.laundryappui.network.SupabaseClient;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers WhatsApp status notifications from the persistent outbox in {@link LaundryStore}.
+ * <p>
+ * Queued messages survive restarts; at most one message per order and status is ever queued.
+ * A fixed pool of workers sends them no faster than the {@link TokenBucket} allows, failed
+ * sends are retried with jittered backoff, and every final outcome is copied to
+ * {@code wa_message_logs} in batches.
+ * <p>
+ * All queue bookkeeping runs on a single dispatcher thread; workers only do the HTTP call.
+ */
+public class WhatsappDispatcher {
+    private static final String TAG = "WhatsappDispatcher";
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_DELAY_MS = 30L * 1000L;
+    private static final long RETRY_MAX_DELAY_MS = 30L * 60L * 1000L;
+    private static final int LOG_BATCH_SIZE = 50;
+    private static final long LOG_FLUSH_DELAY_MS = 10L * 1000L;
+    private static final long LOG_RETRY_DELAY_MS = 60L * 1000L;
+
+    /** Supplies the server-side tenant id, or an empty string while it is still unknown. */
+    public interface TenantSource {
+        String getTenantId();
+    }
+
+    /** Called on a background thread once a message was sent or has finally failed. */
+    public interface Listener {
+        void onMessageFinished(WhatsappMessage message);
+    }
+
+    private final LaundryStore store;
+    private final WhatsappSender sender;
+    private final int workerCount;
+    private final TokenBucket bucket;
+    private final TenantSource tenantSource;
+    private final RetryPolicy retryPolicy = new RetryPolicy(MAX_ATTEMPTS, RETRY_BASE_DELAY_MS, RETRY_MAX_DELAY_MS);
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService workers;
+
+    // Confined to the dispatcher thread.
+    private final Set<Long> inFlight = new HashSet<>();
+    private ScheduledFuture<?> wakeUp;
+    private ScheduledFuture<?> logFlush;
+    private boolean logUploadInFlight;
+
+    private volatile Listener listener;
+
+    public WhatsappDispatcher(LaundryStore store, WhatsappSender sender, int workerCount, TokenBucket bucket,
+                              TenantSource tenantSource) {
+        this.store = store;
+        this.sender = sender;
+        this.workerCount = Math.max(1, workerCount);
+        this.bucket = bucket;
+        this.tenantSource = tenantSource;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wa-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, r -> {
+            Thread thread = new Thread(r, "wa-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isConfigured() {
+        return sender.isConfigured();
+    }
+
+    /** Resumes messages and log rows left over from a previous session. */
+    public void start() {
+        run(() -> {
+            pump();
+            flushLogs();
+        });
+    }
+
+    /** Queues a notification for the order's current status unless one was already queued. */
+    public void enqueue(Order order, Customer customer) {
+        WhatsappMessage message = newMessage(order, customer, System.currentTimeMillis());
+        run(() -> {
+            if (store.enqueueWhatsapp(message)) {
+                pump();
+            }
+        });
+    }
+
+    /**
+     * Queues notifications for a batch of orders in one outbox transaction. Orders whose
+     * customer is unknown are skipped.
+     */
+    public void enqueueAll(List<Order> orders, CustomerLookup customers) {
+        long now = System.currentTimeMillis();
+        List<WhatsappMessage> messages = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Customer customer = customers.getCustomer(order.customerId);
+            if (customer != null) {
+                messages.add(newMessage(order, customer, now));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        run(() -> {
+            if (store.enqueueWhatsappAll(messages) > 0) {
+                pump();
+            }
+        });
+    }
+
+    private static WhatsappMessage newMessage(Order order, Customer customer, long createdAt) {
+        String status = OrderStatus.of(order.status).label;
+        WhatsappMessage message = new WhatsappMessage();
+        message.orderCode = order.code;
+        message.orderStatus = status;
+        message.phone = customer.phone;
+        message.message = "Halo " + customer.name + ", status pesanan " + order.code
+                + " sekarang: " + status + ".";
+        message.createdAt = createdAt;
+        return message;
+    }
+
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /** Hands due messages to idle workers while tokens last, then sleeps until the next is due. */
+    private void pump() {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+
+        long now = System.currentTimeMillis();
+        for (WhatsappMessage message : store.loadDueWhatsapp(now, workerCount + inFlight.size())) {
+            if (inFlight.size() >= workerCount) {
+                return;
+            }
+            if (inFlight.contains(message.id)) {
+                continue;
+            }
+            long waitMs = bucket.tryAcquire();
+            if (waitMs > 0) {
+                scheduleWakeUp(waitMs);
+                return;
+            }
+            inFlight.add(message.id);
+            workers.execute(() -> deliver(message));
+        }
+
+        // Messages already in flight are re-examined when they finish; only wait for future ones.
+        long nextAttemptAt = store.nextWhatsappAttemptAt();
+        if (nextAttemptAt > now && inFlight.size() < workerCount) {
+            scheduleWakeUp(nextAttemptAt - now);
+        }
+    }
+
+    private void deliver(WhatsappMessage message) {
+        WhatsappSender.Response response = null;
+        Exception error = null;
+        try {
+            response = sender.send(message.phone, message.message);
+        } catch (Exception e) {
+            error = e;
+        }
+        WhatsappSender.Response result = response;
+        Exception failure = error;
+        run(() -> onAttemptFinished(message, result, failure));
+    }
+
+    private void onAttemptFinished(WhatsappMessage message, WhatsappSender.Response response, Exception error) {
+        inFlight.remove(message.id);
+        message.attempts++;
+        message.responseCode = response != null ? response.code : 0;
+        message.responseBody = response != null ? response.body : String.valueOf(error);
+
+        boolean success = response != null && response.code >= 200 && response.code < 300;
+        Exception failure = error != null ? error : success ? null : new HttpStatusException(response.code);
+        long nextAttemptAt = 0;
+        if (success) {
+            message.state = WhatsappMessage.STATE_SENT;
+        } else if (message.attempts < MAX_ATTEMPTS && RetryPolicy.isTransient(failure)) {
+            message.state = WhatsappMessage.STATE_PENDING;
+            nextAttemptAt = System.currentTimeMillis() + retryPolicy.delayBeforeRetry(message.attempts);
+        } else {
+            message.state = WhatsappMessage.STATE_FAILED;
+            Log.e(TAG, "Giving up on " + message.orderCode + " after " + message.attempts + " attempts", failure);
+        }
+        store.saveWhatsappAttempt(message, nextAttemptAt);
+
+        if (message.state != WhatsappMessage.STATE_PENDING) {
+            Listener current = listener;
+            if (current != null) {
+                current.onMessageFinished(message);
+            }
+            scheduleLogFlush(LOG_FLUSH_DELAY_MS);
+        }
+        pump();
+    }
+
+    private void scheduleWakeUp(long delayMs) {
+        wakeUp = schedule(this::pump, delayMs);
+    }
+
+    /** Collects outcomes for a short while so they are logged with one request. */
+    private void scheduleLogFlush(long delayMs) {
+        if (logFlush == null && !logUploadInFlight) {
+            logFlush = schedule(this::flushLogs, delayMs);
+        }
+    }
+
+    private void flushLogs() {
+        logFlush = null;
+        if (logUploadInFlight) {
+            return;
+        }
+        String tenantId = tenantSource.getTenantId();
+        if (tenantId == null || tenantId.isEmpty()) {
+            // The tenant is resolved by the first sync; try again later.
+            scheduleLogFlush(LOG_RETRY_DELAY_MS);
+            return;
+        }
+
+        List<WhatsappMessage> batch = store.loadUnloggedWhatsapp(LOG_BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return;
+        }
+        JSONArray rows = new JSONArray();
+        try {
+            for (WhatsappMessage message : batch) {
+                JSONObject row = new JSONObject();
+                row.put("tenant_id", tenantId);
+                row.put("destination_phone", message.phone);
+                row.put("message_body", message.message);
+                row.put("api_url", sender.getApiUrl());
+                row.put("response_code", message.responseCode > 0 ? message.responseCode : JSONObject.NULL);
+                row.put("response_body", message.responseBody != null ? message.responseBody : JSONObject.NULL);
+                row.put("is_success", message.state == WhatsappMessage.STATE_SENT);
+                rows.put(row);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Could not build WhatsApp log rows", e);
+            return;
+        }
+
+        logUploadInFlight = true;
+        SupabaseClient.insert("wa_message_logs", rows, new SupabaseClient.Callback<String>() {
+            @Override
+            public void onSuccess(String result) {
+                run(() -> {
+                    logUploadInFlight = false;
+                    store.markWhatsappLogged(batch);
+                    if (batch.size() == LOG_BATCH_SIZE) {
+                        flushLogs();
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                run(() -> {
+                    logUploadInFlight = false;
+                    scheduleLogFlush(LOG_RETRY_DELAY_MS);
+                });
+            }
+        });
+    }
+
+    private void run(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shut down; the outbox keeps the work for the next session.
+        }
+    }
+
+    private ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        try {
+            return dispatcher.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+}
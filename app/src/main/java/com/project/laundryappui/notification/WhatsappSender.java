@@ -0,0 +1,112 @@
+package com.project.laundryappui.notification;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking client for the WhatsApp reminder API. Response bodies are always read to the end
+ * and closed without disconnecting, so consecutive sends reuse the kept-alive connection.
+ */
+public class WhatsappSender {
+    private static final int TIMEOUT_MS = 15000;
+    private static final int MAX_LOGGED_BODY_CHARS = 1000;
+
+    public static class Response {
+        public final int code;
+        public final String body;
+
+        Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    private final String apiUrl;
+    private final String apiKey;
+    private final String ownerEmail;
+
+    public WhatsappSender(String apiUrl, String apiKey, String ownerEmail) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.ownerEmail = ownerEmail;
+    }
+
+    public boolean isConfigured() {
+        return !isEmpty(apiUrl) && !isEmpty(apiKey) && !isEmpty(ownerEmail);
+    }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    /** Sends one message; throws only if no HTTP answer was received at all. */
+    public Response send(String phone, String message) throws IOException {
+        String payload;
+        try {
+            payload = new JSONObject()
+                    .put("phone", phone)
+                    .put("message", message)
+                    .put("owner_email", ownerEmail)
+                    .toString();
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(apiUrl).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("X-API-KEY", apiKey);
+            connection.setDoOutput(true);
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+
+            int code = connection.getResponseCode();
+            InputStream in = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            return new Response(code, in == null ? null : readBody(in));
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /** Drains the whole body so the connection can go back to the pool, keeping only its start. */
+    private static String readBody(InputStream in) throws IOException {
+        StringBuilder body = new StringBuilder();
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        try {
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int keep = Math.min(read, MAX_LOGGED_BODY_CHARS - body.length());
+                if (keep > 0) {
+                    body.append(buffer, 0, keep);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return body.toString();
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
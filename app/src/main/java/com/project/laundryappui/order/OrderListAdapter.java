@@ -0,0 +1,101 @@
+package com.project.laundryappui.order;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.project.laundryappui.R;
+import com.project.laundryappui.data.Order;
+
+/**
+ * Order list over an {@link OrderPager}. Only the pager's loaded window is backed by rows;
+ * positions outside it bind as placeholders until their page arrives.
+ */
+public class OrderListAdapter extends RecyclerView.Adapter<OrderListAdapter.ViewHolder>
+        implements OrderPager.Listener {
+
+    public interface OnOrderClickListener {
+        void onOrderClick(Order order);
+    }
+
+    private final OrderPager pager;
+    private final OnOrderClickListener listener;
+
+    public OrderListAdapter(OrderPager pager, OnOrderClickListener listener) {
+        this.pager = pager;
+        this.listener = listener;
+        pager.setListener(this);
+    }
+
+    @Override
+    public int getItemCount() {
+        return pager.getCount();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_order_status, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        OrderRow row = pager.getRow(position);
+        holder.row = row;
+        if (row == null) {
+            holder.tvCode.setText("Memuat...");
+            holder.tvCustomer.setText("");
+            holder.tvPrice.setText("");
+            holder.tvStatus.setText("");
+            return;
+        }
+        holder.tvCode.setText(row.codeText);
+        holder.tvCustomer.setText(row.customerText);
+        holder.tvPrice.setText(row.priceText);
+        holder.tvStatus.setText(row.statusText);
+    }
+
+    @Override
+    public void onRowsChanged(int position, int count) {
+        int end = Math.min(position + count, getItemCount());
+        if (end > position) {
+            notifyItemRangeChanged(position, end - position);
+        }
+    }
+
+    @Override
+    public void onRowInserted(int position) {
+        notifyItemInserted(position);
+    }
+
+    @Override
+    public void onCountChanged() {
+        notifyDataSetChanged();
+    }
+
+    public class ViewHolder extends RecyclerView.ViewHolder {
+        TextView tvCode, tvCustomer, tvPrice, tvStatus;
+        OrderRow row;
+
+        public ViewHolder(@NonNull View itemView) {
+            super(itemView);
+
+            tvCode      = itemView.findViewById(R.id.tvCode);
+            tvCustomer  = itemView.findViewById(R.id.tvCustomer);
+            tvPrice     = itemView.findViewById(R.id.tvPrice);
+            tvStatus    = itemView.findViewById(R.id.tvStatus);
+
+            itemView.setOnClickListener(v -> {
+                // Placeholders have nothing to act on yet.
+                if (row != null && getBindingAdapterPosition() != RecyclerView.NO_POSITION) {
+                    listener.onOrderClick(row.order);
+                }
+            });
+        }
+    }
+}
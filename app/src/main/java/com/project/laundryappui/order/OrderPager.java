@@ -0,0 +1,315 @@
+package com.project.laundryappui.order;
+
+import com.project.laundryappui.data.CustomerLookup;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Windowed view of the order history, newest first. Only a contiguous range of at most
+ * {@code maxLoaded} rows is held in memory; positions outside it read as placeholders.
+ * <p>
+ * Pages next to the loaded range are fetched by keyset as binding approaches either edge,
+ * a jump (e.g. fast scroll) reloads around the new position by offset, and rows farthest
+ * from the last bound position are evicted once the range grows past {@code maxLoaded}.
+ * <p>
+ * All public methods must be called on the thread behind {@code mainExecutor}; queries run
+ * on {@code loader}.
+ */
+public class OrderPager {
+
+    /** Local storage queries, all in list order (created_at DESC, id DESC). */
+    public interface Source {
+        int countOrders();
+        List<Order> loadOrdersPage(int offset, int limit);
+        List<Order> loadOrdersAfter(Order last, int limit);
+        List<Order> loadOrdersBefore(Order first, int limit);
+    }
+
+    /** Positions whose rows were loaded, evicted, changed or inserted. */
+    public interface Listener {
+        void onRowsChanged(int position, int count);
+        void onRowInserted(int position);
+        void onCountChanged();
+    }
+
+    private final Source source;
+    private final CustomerLookup customers;
+    private final Executor loader;
+    private final Executor mainExecutor;
+    private final int pageSize;
+    private final int maxLoaded;
+    private final int prefetchDistance;
+    // Rows are built on the loader thread and, for single updates, on the main thread.
+    private final OrderFormat loaderFormat = new OrderFormat();
+    private final OrderFormat mainFormat = new OrderFormat();
+
+    private final List<OrderRow> rows = new ArrayList<>();
+    private final OrderIndex index = new OrderIndex();
+    private int loadedStart;
+    private int totalCount;
+    private int lastBound;
+    private int generation;
+    private boolean loadingNext;
+    private boolean loadingPrevious;
+    private boolean jumping;
+    private Runnable pendingOnLoaded;
+    private Listener listener;
+
+    public OrderPager(Source source, CustomerLookup customers, Executor loader, Executor mainExecutor,
+                      int pageSize, int maxLoaded, int prefetchDistance) {
+        this.source = source;
+        this.customers = customers;
+        this.loader = loader;
+        this.mainExecutor = mainExecutor;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxLoaded = Math.max(this.pageSize * 2, maxLoaded);
+        this.prefetchDistance = Math.max(0, Math.min(prefetchDistance, this.pageSize));
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Counts the history and loads the first page; {@code onLoaded} runs once it is shown. */
+    public void start(Runnable onLoaded) {
+        jumpTo(0, onLoaded);
+    }
+
+    /** Re-reads the count and the rows around the last bound position. */
+    public void refresh() {
+        jumpTo(lastBound, null);
+    }
+
+    public int getCount() {
+        return totalCount;
+    }
+
+    /** Number of rows currently held in memory. */
+    public int getLoadedCount() {
+        return rows.size();
+    }
+
+    /**
+     * Returns the row at {@code position}, or null while it is not loaded, and schedules
+     * whatever loads keep the range ahead of the caller.
+     */
+    public OrderRow getRow(int position) {
+        lastBound = position;
+        int loadedEnd = loadedStart + rows.size();
+        if (position < loadedStart - pageSize || position >= loadedEnd + pageSize) {
+            jumpTo(position, null);
+        } else {
+            if (position >= loadedEnd - prefetchDistance && loadedEnd < totalCount) {
+                loadNext();
+            }
+            if (position < loadedStart + prefetchDistance && loadedStart > 0) {
+                loadPrevious();
+            }
+        }
+        int offset = position - loadedStart;
+        return offset >= 0 && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /** A loaded order with this code, or null if it is outside the window. */
+    public Order findLoaded(String code) {
+        return index.findByCode(code);
+    }
+
+    /** Adds a just-created order, which is always the newest, at position 0. */
+    public void insertNewest(Order order) {
+        if (jumping) {
+            // The reload may or may not have counted this order; read everything again.
+            jumpTo(lastBound, null);
+            return;
+        }
+        // In-flight keyset loads were anchored on the old positions.
+        invalidateLoads();
+        totalCount++;
+        if (loadedStart == 0) {
+            rows.add(0, toRow(order, mainFormat));
+            index.add(order);
+        } else {
+            loadedStart++;
+        }
+        if (listener != null) {
+            listener.onRowInserted(0);
+        }
+        trim();
+    }
+
+    /** Rebuilds the row of an order whose status or details changed. */
+    public void onOrderChanged(Order order) {
+        for (int i = 0; i < rows.size(); i++) {
+            OrderRow row = rows.get(i);
+            if (row.id == order.id) {
+                if (row.order != order) {
+                    // Looked up from storage rather than the window; keep one instance per order.
+                    index.remove(row.order);
+                    index.add(order);
+                }
+                rows.set(i, toRow(order, mainFormat));
+                if (listener != null) {
+                    listener.onRowsChanged(loadedStart + i, 1);
+                }
+                return;
+            }
+        }
+    }
+
+    private void loadNext() {
+        if (loadingNext || jumping || rows.isEmpty()) {
+            return;
+        }
+        loadingNext = true;
+        int requestGeneration = generation;
+        Order last = rows.get(rows.size() - 1).order;
+        loader.execute(() -> {
+            List<OrderRow> page = toRows(source.loadOrdersAfter(last, pageSize));
+            mainExecutor.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingNext = false;
+                int position = loadedStart + rows.size();
+                for (OrderRow row : page) {
+                    rows.add(row);
+                    index.add(row.order);
+                }
+                notifyRowsChanged(position, page.size());
+                trim();
+            });
+        });
+    }
+
+    private void loadPrevious() {
+        if (loadingPrevious || jumping || rows.isEmpty()) {
+            return;
+        }
+        loadingPrevious = true;
+        int requestGeneration = generation;
+        Order first = rows.get(0).order;
+        loader.execute(() -> {
+            List<OrderRow> page = toRows(source.loadOrdersBefore(first, pageSize));
+            mainExecutor.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingPrevious = false;
+                int count = Math.min(page.size(), loadedStart);
+                List<OrderRow> kept = page.subList(page.size() - count, page.size());
+                rows.addAll(0, kept);
+                for (OrderRow row : kept) {
+                    index.add(row.order);
+                }
+                loadedStart -= count;
+                notifyRowsChanged(loadedStart, count);
+                trim();
+            });
+        });
+    }
+
+    private void jumpTo(int position, Runnable onLoaded) {
+        invalidateLoads();
+        jumping = true;
+        if (onLoaded != null) {
+            pendingOnLoaded = onLoaded;
+        }
+        int requestGeneration = generation;
+        loader.execute(() -> {
+            int count = source.countOrders();
+            int offset = Math.max(0, Math.min(position - pageSize / 2, count - pageSize));
+            List<OrderRow> page = toRows(source.loadOrdersPage(offset, pageSize));
+            mainExecutor.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                jumping = false;
+                int oldStart = loadedStart;
+                int oldSize = rows.size();
+                rows.clear();
+                index.clear();
+                rows.addAll(page);
+                for (OrderRow row : page) {
+                    index.add(row.order);
+                }
+                loadedStart = offset;
+                boolean countChanged = count != totalCount;
+                totalCount = count;
+                if (listener != null) {
+                    if (countChanged) {
+                        listener.onCountChanged();
+                    } else {
+                        listener.onRowsChanged(oldStart, oldSize);
+                        listener.onRowsChanged(offset, page.size());
+                    }
+                }
+                Runnable loaded = pendingOnLoaded;
+                pendingOnLoaded = null;
+                if (loaded != null) {
+                    loaded.run();
+                }
+            });
+        });
+    }
+
+    /** Evicts rows from whichever end is farther from the last bound position. */
+    private void trim() {
+        if (rows.size() > maxLoaded) {
+            int drop = rows.size() - maxLoaded;
+            int loadedEnd = loadedStart + rows.size();
+            if (lastBound - loadedStart > loadedEnd - lastBound) {
+                List<OrderRow> evicted = rows.subList(0, drop);
+                removeFromIndex(evicted);
+                evicted.clear();
+                int position = loadedStart;
+                loadedStart += drop;
+                notifyRowsChanged(position, drop);
+            } else {
+                List<OrderRow> evicted = rows.subList(rows.size() - drop, rows.size());
+                removeFromIndex(evicted);
+                evicted.clear();
+                notifyRowsChanged(loadedStart + rows.size(), drop);
+            }
+        }
+    }
+
+    private void removeFromIndex(List<OrderRow> evicted) {
+        for (OrderRow row : evicted) {
+            index.remove(row.order);
+        }
+    }
+
+    private void invalidateLoads() {
+        generation++;
+        loadingNext = false;
+        loadingPrevious = false;
+        jumping = false;
+    }
+
+    private void notifyRowsChanged(int position, int count) {
+        if (listener != null && count > 0) {
+            listener.onRowsChanged(position, count);
+        }
+    }
+
+    private List<OrderRow> toRows(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<OrderRow> page = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            page.add(toRow(order, loaderFormat));
+        }
+        return page;
+    }
+
+    private OrderRow toRow(Order order, OrderFormat format) {
+        return new OrderRow(order, customers.getCustomer(order.customerId), format);
+    }
+}
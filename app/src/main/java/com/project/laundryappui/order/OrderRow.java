@@ -0,0 +1,31 @@
+package com.project.laundryappui.order;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderStatus;
+
+/**
+ * Immutable display snapshot of one order, built off the main thread when its page loads
+ * and rebuilt by {@link OrderPager#onOrderChanged} when the order is mutated in place.
+ */
+public class OrderRow {
+    public final Order order;
+    public final long id;
+    public final long version;
+    public final String codeText;
+    public final String customerText;
+    public final String priceText;
+    public final String statusText;
+
+    OrderRow(Order order, Customer customer, OrderFormat format) {
+        this.order = order;
+        this.id = order.id;
+        this.version = order.localVersion;
+        this.codeText = order.code + " • " + format.formatDate(order.createdAtMillis);
+        this.customerText = customer != null ? customer.name + " • " + customer.phone : "-";
+        this.priceText = "Total: " + format.formatPrice(order.price)
+                + " • " + OrderFormat.formatWeight(order.weightGrams) + " kg";
+        this.statusText = "Status: " + OrderStatus.of(order.status).label;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.laundryappui.order;
+
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.data.Order;
+
+import java.util.List;
+
+/** {@link OrderPager.Source} over the local database. */
+public class StoreOrderSource implements OrderPager.Source {
+    private final LaundryStore store;
+
+    public StoreOrderSource(LaundryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int countOrders() {
+        return store.countOrders();
+    }
+
+    @Override
+    public List<Order> loadOrdersPage(int offset, int limit) {
+        return store.loadOrdersPage(offset, limit);
+    }
+
+    @Override
+    public List<Order> loadOrdersAfter(Order last, int limit) {
+        return store.loadOrdersAfter(last, limit);
+    }
+
+    @Override
+    public List<Order> loadOrdersBefore(Order first, int limit) {
+        return store.loadOrdersBefore(first, limit);
+    }
+}
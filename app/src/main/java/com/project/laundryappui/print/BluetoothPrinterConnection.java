@@ -0,0 +1,77 @@
+package com.project.laundryappui.print;
+
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothManager;
+import android.bluetooth.BluetoothSocket;
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/** Serial-port (SPP) RFCOMM connection to a paired Bluetooth thermal printer. */
+public class BluetoothPrinterConnection implements PrintSpooler.PrinterConnection {
+    private static final String TAG = "BluetoothPrinter";
+    private static final UUID SPP_UUID = UUID.fromString("00001101-0000-1000-8000-00805F9B34FB");
+
+    private final Context context;
+    private final String address;
+    private BluetoothSocket socket;
+
+    public BluetoothPrinterConnection(Context context, String address) {
+        this.context = context.getApplicationContext();
+        this.address = address;
+    }
+
+    /** The device's Bluetooth adapter, or null if it has none. */
+    public static BluetoothAdapter adapter(Context context) {
+        // getSystemService(Class) needs API 23; the app still runs on 22.
+        BluetoothManager manager = (BluetoothManager) context.getSystemService(Context.BLUETOOTH_SERVICE);
+        return manager != null ? manager.getAdapter() : null;
+    }
+
+    @Override
+    public OutputStream open() throws IOException {
+        BluetoothAdapter adapter = adapter(context);
+        if (adapter == null || !adapter.isEnabled()) {
+            throw new IOException("Bluetooth is off");
+        }
+        try {
+            BluetoothDevice device = adapter.getRemoteDevice(address);
+            cancelDiscovery(adapter);
+            socket = device.createRfcommSocketToServiceRecord(SPP_UUID);
+            socket.connect();
+            return new BufferedOutputStream(socket.getOutputStream(), 4096);
+        } catch (SecurityException | IllegalArgumentException e) {
+            close();
+            throw new IOException(e);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** Discovery slows RFCOMM connections down considerably; stopping it needs scan permission on 12+. */
+    private static void cancelDiscovery(BluetoothAdapter adapter) {
+        try {
+            adapter.cancelDiscovery();
+        } catch (SecurityException e) {
+            Log.w(TAG, "Cannot cancel discovery", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Error closing printer socket", e);
+            }
+            socket = null;
+        }
+    }
+}
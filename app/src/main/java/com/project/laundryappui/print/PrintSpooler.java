@@ -0,0 +1,170 @@
+package com.project.laundryappui.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Queues encoded print jobs and streams them back to back over a single printer connection,
+ * e.g. a whole day of receipt reprints. The connection is opened when work arrives and closed
+ * once the queue is empty. A job whose write fails is retried once on a fresh connection; if
+ * that fails too, it and everything behind it stay queued until {@link #resume()}.
+ */
+public class PrintSpooler {
+
+    /** Opens the byte stream to the printer, e.g. an RFCOMM socket. */
+    public interface PrinterConnection {
+        OutputStream open() throws IOException;
+        void close();
+    }
+
+    /** Called on the spooler thread. */
+    public interface Listener {
+        void onJobPrinted(int remainingJobs);
+        void onPrintFailed(Exception error, int remainingJobs);
+    }
+
+    private final PrinterConnection connection;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "print-spooler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this.
+    private final ArrayDeque<byte[]> jobs = new ArrayDeque<>();
+    private boolean draining;
+
+    private volatile Listener listener;
+
+    public PrintSpooler(PrinterConnection connection) {
+        this.connection = connection;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void submit(byte[] job) {
+        synchronized (this) {
+            jobs.addLast(job);
+        }
+        startDraining();
+    }
+
+    public void submitAll(List<byte[]> batch) {
+        synchronized (this) {
+            jobs.addAll(batch);
+        }
+        startDraining();
+    }
+
+    /** Retries the queue after a failure, e.g. once the printer is switched back on. */
+    public void resume() {
+        startDraining();
+    }
+
+    public synchronized int getPendingJobs() {
+        return jobs.size();
+    }
+
+    public synchronized void cancelAll() {
+        jobs.clear();
+    }
+
+    /** Removes and returns the queued jobs, e.g. to hand them to a spooler for another printer. */
+    public synchronized List<byte[]> drainPending() {
+        List<byte[]> pending = new ArrayList<>(jobs);
+        jobs.clear();
+        return pending;
+    }
+
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private void startDraining() {
+        synchronized (this) {
+            if (draining || jobs.isEmpty()) {
+                return;
+            }
+            draining = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                draining = false;
+            }
+        }
+    }
+
+    private void drain() {
+        OutputStream out = null;
+        try {
+            while (true) {
+                byte[] job;
+                synchronized (this) {
+                    job = jobs.peekFirst();
+                    if (job == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+
+                try {
+                    if (out == null) {
+                        out = connection.open();
+                    }
+                    write(out, job);
+                } catch (IOException first) {
+                    connection.close();
+                    out = null;
+                    try {
+                        out = connection.open();
+                        write(out, job);
+                    } catch (IOException second) {
+                        int remaining;
+                        synchronized (this) {
+                            draining = false;
+                            remaining = jobs.size();
+                        }
+                        Listener current = listener;
+                        if (current != null) {
+                            current.onPrintFailed(second, remaining);
+                        }
+                        return;
+                    }
+                }
+
+                int remaining;
+                synchronized (this) {
+                    // cancelAll() may have emptied the queue while the job was printing.
+                    if (jobs.peekFirst() == job) {
+                        jobs.removeFirst();
+                    }
+                    remaining = jobs.size();
+                }
+                Listener current = listener;
+                if (current != null) {
+                    current.onJobPrinted(remaining);
+                }
+            }
+        } finally {
+            if (out != null) {
+                connection.close();
+            }
+        }
+    }
+
+    private static void write(OutputStream out, byte[] job) throws IOException {
+        out.write(job);
+        out.flush();
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.laundryappui.scan;
+
+import android.Manifest;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.OnBackPressedCallback;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.zxing.client.android.BeepManager;
+import com.journeyapps.barcodescanner.DecoratedBarcodeView;
+import com.project.laundryappui.R;
+import com.project.laundryappui.data.OrderIndex;
+import com.project.laundryappui.data.OrderStatus;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the camera open and stages every scanned order code until the cashier taps Simpan.
+ * The staged codes are returned in {@link #EXTRA_CODES}; the caller moves all of them to
+ * {@link #EXTRA_TARGET_STATUS} in one batch. Scanning itself never touches storage, so the
+ * next bag can be scanned as soon as the beep sounds.
+ */
+public class BatchScanActivity extends AppCompatActivity {
+    /** {@link OrderStatus#code} the scanned orders should move to. */
+    public static final String EXTRA_TARGET_STATUS = "target_status";
+    /** Staged codes in scan order, a {@code String} array list. */
+    public static final String EXTRA_CODES = "codes";
+
+    // The camera keeps reporting a code while it stays in view.
+    private static final long REPEAT_WINDOW_MS = 1500;
+    private static final int REQUEST_CAMERA = 2001;
+    private static final String STATE_CODES = "codes";
+
+    private final ScanSession session = new ScanSession(REPEAT_WINDOW_MS);
+    private DecoratedBarcodeView barcodeView;
+    private BeepManager beepManager;
+    private TextView tvScanCount;
+    private TextView tvLastScan;
+    private Button btnCommit;
+    private OrderStatus target;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_batch_scan);
+
+        target = OrderStatus.of(getIntent().getByteExtra(EXTRA_TARGET_STATUS, OrderStatus.DIAMBIL.code));
+        if (savedInstanceState != null) {
+            ArrayList<String> saved = savedInstanceState.getStringArrayList(STATE_CODES);
+            if (saved != null) {
+                session.restore(saved);
+            }
+        }
+
+        TextView tvScanTarget = findViewById(R.id.tvScanTarget);
+        tvScanTarget.setText("Ubah status ke: " + target.label);
+        tvScanCount = findViewById(R.id.tvScanCount);
+        tvLastScan = findViewById(R.id.tvLastScan);
+        btnCommit = findViewById(R.id.btnScanCommit);
+        Button btnCancel = findViewById(R.id.btnScanCancel);
+
+        beepManager = new BeepManager(this);
+        barcodeView = findViewById(R.id.barcodeView);
+        barcodeView.setStatusText("Scan barcode pesanan satu per satu");
+        barcodeView.decodeContinuous(result -> onScanned(result.getText()));
+
+        btnCommit.setOnClickListener(v -> commit());
+        btnCancel.setOnClickListener(v -> confirmDiscard());
+        getOnBackPressedDispatcher().addCallback(this, new OnBackPressedCallback(true) {
+            @Override
+            public void handleOnBackPressed() {
+                confirmDiscard();
+            }
+        });
+        updateCount();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && checkSelfPermission(Manifest.permission.CAMERA) != PackageManager.PERMISSION_GRANTED) {
+            requestPermissions(new String[]{Manifest.permission.CAMERA}, REQUEST_CAMERA);
+            return;
+        }
+        barcodeView.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        barcodeView.pause();
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putStringArrayList(STATE_CODES, session.getCodes());
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode != REQUEST_CAMERA) {
+            return;
+        }
+        if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
+            barcodeView.resume();
+        } else {
+            Toast.makeText(this, "Izin kamera diperlukan untuk scan.", Toast.LENGTH_SHORT).show();
+            finish();
+        }
+    }
+
+    /** Called on the main thread for every decoded frame. */
+    private void onScanned(String code) {
+        switch (session.offer(code, SystemClock.elapsedRealtime())) {
+            case STAGED:
+                beepManager.playBeepSoundAndVibrate();
+                tvLastScan.setText("Terakhir: " + OrderIndex.codeFromBarcode(code));
+                updateCount();
+                break;
+            case DUPLICATE:
+                tvLastScan.setText(OrderIndex.codeFromBarcode(code) + " sudah discan");
+                break;
+            case IGNORED:
+                break;
+        }
+    }
+
+    private void updateCount() {
+        tvScanCount.setText(session.size() + " pesanan discan");
+        btnCommit.setEnabled(session.size() > 0);
+        btnCommit.setText("Simpan (" + session.size() + ")");
+    }
+
+    private void commit() {
+        Intent data = new Intent();
+        data.putExtra(EXTRA_TARGET_STATUS, target.code);
+        data.putStringArrayListExtra(EXTRA_CODES, session.getCodes());
+        setResult(RESULT_OK, data);
+        finish();
+    }
+
+    private void confirmDiscard() {
+        if (session.size() == 0) {
+            setResult(RESULT_CANCELED);
+            finish();
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Keluar dari scan?")
+                .setMessage(session.size() + " pesanan sudah discan dan belum disimpan.")
+                .setPositiveButton("Simpan", (dialog, which) -> commit())
+                .setNegativeButton("Buang", (dialog, which) -> {
+                    setResult(RESULT_CANCELED);
+                    finish();
+                })
+                .setNeutralButton("Lanjut scan", null)
+                .show();
+    }
+}
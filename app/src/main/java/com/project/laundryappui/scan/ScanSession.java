@@ -0,0 +1,66 @@
+package com.project.laundryappui.scan;
+
+import com.project.laundryappui.data.OrderIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Order codes staged during one continuous scan session, in scan order. Nothing is looked up
+ * or written while scanning; the whole session is committed at once when it ends.
+ * <p>
+ * The camera reports a code on every frame it stays in view, so a repeat of the last code
+ * within {@code repeatWindowMs} of its previous sighting is ignored silently. A code that is
+ * already staged is reported as a duplicate and never staged twice.
+ */
+public class ScanSession {
+
+    public enum Result {
+        STAGED,
+        DUPLICATE,
+        IGNORED
+    }
+
+    private final long repeatWindowMs;
+    private final Set<String> codes = new LinkedHashSet<>();
+    private String lastCode;
+    private long lastSeenAt;
+
+    public ScanSession(long repeatWindowMs) {
+        this.repeatWindowMs = repeatWindowMs;
+    }
+
+    public Result offer(String rawCode, long nowMillis) {
+        String code = OrderIndex.codeFromBarcode(rawCode);
+        if (code.isEmpty()) {
+            return Result.IGNORED;
+        }
+        boolean stillInView = code.equals(lastCode) && nowMillis - lastSeenAt < repeatWindowMs;
+        lastCode = code;
+        lastSeenAt = nowMillis;
+        if (stillInView) {
+            return Result.IGNORED;
+        }
+        return codes.add(code) ? Result.STAGED : Result.DUPLICATE;
+    }
+
+    /** Drops a staged code, e.g. a bag scanned by mistake. */
+    public boolean remove(String code) {
+        return codes.remove(code);
+    }
+
+    /** Re-stages codes saved before the screen was recreated. */
+    public void restore(Collection<String> saved) {
+        codes.addAll(saved);
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    public ArrayList<String> getCodes() {
+        return new ArrayList<>(codes);
+    }
+}
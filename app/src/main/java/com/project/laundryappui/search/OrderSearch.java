@@ -0,0 +1,133 @@
+package com.project.laundryappui.search;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.data.Order;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide order search. The {@link OrderSearchIndex} is built from the database once and
+ * then kept current through {@link #onOrderChanged}; it is only touched on the
+ * {@code order-search} thread. Queries are debounced, and a new query cancels the one still
+ * running, so fast typing only ever pays for the last keystroke.
+ */
+public class OrderSearch {
+    private static final String TAG = "OrderSearch";
+    private static final long DEBOUNCE_MS = 150L;
+    private static final int MAX_HITS = 50;
+
+    /** Called on the main thread with the hits of the latest query only. */
+    public interface Callback {
+        void onResults(String query, List<SearchHit> hits);
+    }
+
+    private static OrderSearch instance;
+
+    private final LaundryStore store;
+    private final OrderSearchIndex index = new OrderSearchIndex();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // Search thread only.
+    private boolean built;
+    // Main thread only.
+    private ScheduledFuture<?> pending;
+
+    private OrderSearch(Context context) {
+        store = LaundryStore.get(context);
+    }
+
+    public static synchronized OrderSearch get(Context context) {
+        if (instance == null) {
+            instance = new OrderSearch(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Builds the index in the background unless it already is; later calls are no-ops. */
+    public void build() {
+        run(this::ensureBuilt);
+    }
+
+    /** Indexes a new order or re-indexes a changed one. Call with the order as just saved. */
+    public void onOrderChanged(Order order) {
+        Order snapshot = snapshot(order);
+        run(() -> {
+            if (built) {
+                index.put(snapshot, store.getCustomer(snapshot.customerId));
+            }
+        });
+    }
+
+    /** Runs {@code query} after a short pause in typing. Call on the main thread. */
+    public void search(String query, Callback callback) {
+        int requestGeneration = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        try {
+            pending = executor.schedule(() -> {
+                ensureBuilt();
+                List<SearchHit> hits = index.search(query, MAX_HITS, () -> generation.get() != requestGeneration);
+                if (hits == null) {
+                    return;
+                }
+                mainHandler.post(() -> {
+                    if (generation.get() == requestGeneration) {
+                        callback.onResults(query, hits);
+                    }
+                });
+            }, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "Search executor rejected query", e);
+        }
+    }
+
+    /** Drops the pending query and stops the running one, e.g. when the screen goes away. */
+    public void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        long start = System.nanoTime();
+        store.forEachOrder(order -> index.put(order, store.getCustomer(order.customerId)));
+        built = true;
+        Log.i(TAG, "Indexed " + index.size() + " orders in " + (System.nanoTime() - start) / 1_000_000L + " ms");
+    }
+
+    private void run(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "Search executor rejected task", e);
+        }
+    }
+
+    /** Orders are mutated on the main thread; the index reads a copy. */
+    private static Order snapshot(Order order) {
+        return order.copy();
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.laundryappui.startup;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Keeps the last cold-start traces, tagged with the app version, so startup regressions can
+ * be compared release to release. Each trace is also logged under the {@code Startup} tag.
+ */
+public class StartupTraceLog {
+    private static final String TAG = "Startup";
+    private static final String PREFS = "startup_traces";
+    private static final String KEY_TRACES = "traces";
+    private static final int MAX_TRACES = 30;
+
+    private StartupTraceLog() {
+    }
+
+    /** Call off the main thread. */
+    public static void record(Context context, String versionName, StartupTracer tracer) {
+        Log.i(TAG, "version=" + versionName + " " + tracer);
+
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        try {
+            JSONArray traces = new JSONArray(prefs.getString(KEY_TRACES, "[]"));
+            JSONObject trace = new JSONObject();
+            trace.put("version", versionName);
+            trace.put("at", System.currentTimeMillis());
+            trace.put("phases", tracer.toJson());
+
+            JSONArray kept = new JSONArray();
+            for (int i = Math.max(0, traces.length() - (MAX_TRACES - 1)); i < traces.length(); i++) {
+                kept.put(traces.get(i));
+            }
+            kept.put(trace);
+            prefs.edit().putString(KEY_TRACES, kept.toString()).apply();
+        } catch (JSONException e) {
+            Log.e(TAG, "Dropping corrupt startup traces", e);
+            prefs.edit().remove(KEY_TRACES).apply();
+        }
+    }
+
+    /** Recorded traces, oldest first, as {@code [{version, at, phases: {name: ms}}]}. */
+    public static String read(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).getString(KEY_TRACES, "[]");
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.laundryappui.startup;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long each cold-start phase took to be reached, in ms since the tracer was
+ * created. Phases may be marked from any thread; only the first mark of a phase counts.
+ */
+public class StartupTracer {
+    private final long startNanos;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public StartupTracer() {
+        this(System.nanoTime());
+    }
+
+    public StartupTracer(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /** Records {@code phase} as reached now and returns its offset in ms. */
+    public synchronized long mark(String phase) {
+        Long existing = phases.get(phase);
+        if (existing != null) {
+            return existing;
+        }
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000L;
+        phases.put(phase, elapsedMs);
+        return elapsedMs;
+    }
+
+    /** Records a phase measured elsewhere, e.g. process start before the tracer existed. */
+    public synchronized void record(String phase, long elapsedMs) {
+        phases.put(phase, elapsedMs);
+    }
+
+    public synchronized boolean has(String phase) {
+        return phases.containsKey(phase);
+    }
+
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    public synchronized JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            json.put(phase.getKey(), phase.getValue().longValue());
+        }
+        return json;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(phase.getKey()).append('=').append(phase.getValue()).append("ms");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.project.laundryappui.sync;
+
+import com.project.laundryappui.network.CancellationToken;
+import com.project.laundryappui.network.HttpTransport;
+import com.project.laundryappui.network.SupabaseClient;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Pulls the rows of a PostgREST table changed since a watermark, oldest change first, in
+ * keyset pages on {@code (updated_at, id)} streamed by {@link SupabaseClient#fetchStream}.
+ * Rows sharing one {@code updated_at} (a batch written in one transaction) may span pages
+ * without being skipped or repeated.
+ * <p>
+ * {@code updated_at} is the start time of the writing transaction, so a row can commit after
+ * rows with a later timestamp were already pulled. Each pull therefore starts {@code overlapMs}
+ * before the watermark; rows seen twice must merge idempotently.
+ */
+public class ChangeFeed {
+    private static final String KEYSET = "updated_at,id";
+
+    /**
+     * Receives each page on a transport thread before the next one is requested.
+     * {@code watermark} is the {@code updated_at} of the page's last row, in epoch millis;
+     * persist it together with the merged rows.
+     */
+    public interface PageSink {
+        void onPage(JSONArray rows, long watermark) throws Exception;
+    }
+
+    public interface Callback {
+        void onComplete(int rowCount);
+        void onError(Exception e);
+    }
+
+    private final HttpTransport transport;
+    private final String baseUrl;
+    private final String apiKey;
+    private final int pageSize;
+    private final long overlapMs;
+
+    public ChangeFeed(HttpTransport transport, String baseUrl, String apiKey, int pageSize, long overlapMs) {
+        this.transport = transport;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.pageSize = Math.max(1, pageSize);
+        this.overlapMs = Math.max(0, overlapMs);
+    }
+
+    /**
+     * Fetches the rows of {@code table} in {@code tenantId} changed at or after
+     * {@code watermark - overlapMs}, or every row when {@code watermark} is 0. {@code select}
+     * must include {@code id} and {@code updated_at}.
+     */
+    public void pull(String table, String select, String tenantId, long watermark, PageSink sink, Callback callback) {
+        StringBuilder filter = new StringBuilder("tenant_id=eq.").append(encode(tenantId));
+        if (watermark > 0) {
+            filter.append("&updated_at=gte.").append(encode(formatTimestamp(watermark - overlapMs)));
+        }
+        SupabaseClient.fetchStream(transport, baseUrl, apiKey, table, select, filter.toString(), KEYSET, pageSize,
+                new CancellationToken(), new SupabaseClient.RowCallback() {
+                    private JSONArray page = new JSONArray();
+
+                    @Override
+                    public void onRow(JSONObject row) {
+                        page.put(row);
+                    }
+
+                    @Override
+                    public void onPageEnd() throws Exception {
+                        JSONArray rows = page;
+                        page = new JSONArray();
+                        sink.onPage(rows, parseTimestamp(rows.getJSONObject(rows.length() - 1).getString("updated_at")));
+                    }
+
+                    @Override
+                    public void onComplete(int rowCount, boolean cancelled) {
+                        callback.onComplete(rowCount);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        callback.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * Epoch millis of a PostgREST {@code timestamptz}, e.g. {@code 2026-10-17T08:15:30.123456+00:00}.
+     * Digits past the millisecond are dropped, which only widens the next pull.
+     */
+    public static long parseTimestamp(String value) {
+        try {
+            int year = Integer.parseInt(value.substring(0, 4));
+            int month = Integer.parseInt(value.substring(5, 7));
+            int day = Integer.parseInt(value.substring(8, 10));
+            int hour = Integer.parseInt(value.substring(11, 13));
+            int minute = Integer.parseInt(value.substring(14, 16));
+            int second = Integer.parseInt(value.substring(17, 19));
+            int pos = 19;
+            int millis = 0;
+            if (pos < value.length() && value.charAt(pos) == '.') {
+                int digits = 0;
+                pos++;
+                while (pos < value.length() && Character.isDigit(value.charAt(pos))) {
+                    if (digits < 3) {
+                        millis = millis * 10 + (value.charAt(pos) - '0');
+                        digits++;
+                    }
+                    pos++;
+                }
+                for (; digits < 3; digits++) {
+                    millis *= 10;
+                }
+            }
+            long offsetMinutes = 0;
+            if (pos < value.length() && value.charAt(pos) != 'Z') {
+                int sign = value.charAt(pos) == '-' ? -1 : 1;
+                String offset = value.substring(pos + 1).replace(":", "");
+                int hours = Integer.parseInt(offset.substring(0, 2));
+                int minutes = offset.length() >= 4 ? Integer.parseInt(offset.substring(2, 4)) : 0;
+                offsetMinutes = sign * (hours * 60L + minutes);
+            }
+            long seconds = daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+            return (seconds - offsetMinutes * 60L) * 1000L + millis;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Not a timestamp: " + value, e);
+        }
+    }
+
+    /** ISO 8601 in UTC with milliseconds, as accepted by PostgREST filters. */
+    public static String formatTimestamp(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+
+    /** Days since 1970-01-01 of a proleptic Gregorian date. */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.project.laundryappui.sync;
+
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.project.laundryappui.BuildConfig;
+import com.project.laundryappui.data.DashboardCounters;
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.network.SupabaseClient;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically compares the local dashboard counters with the server's {@code v_laporan_harian}
+ * (last {@code days} days) and {@code v_order_belum_diambil}, and recounts the local rollups
+ * from the orders table when they disagree. Passes are skipped while local changes are still
+ * waiting to be uploaded, since the server is expected to lag behind until then.
+ */
+public class DashboardReconciler {
+    private static final String TAG = "DashboardReconciler";
+    private static final long DAY_MS = 24L * 60L * 60L * 1000L;
+
+    public interface TenantSource {
+        String getTenantId();
+    }
+
+    /** Called on the reconciler thread after every completed comparison. */
+    public interface Listener {
+        void onReconciled(DashboardCounters counters, int driftDays, int serverOutstandingPickups);
+    }
+
+    private final LaundryStore store;
+    private final TenantSource tenantSource;
+    private final SyncScheduler.ConnectivityCheck connectivity;
+    private final int days;
+    private final long intervalMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dashboard-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Confined to the executor thread.
+    private boolean passRunning;
+
+    private volatile Listener listener;
+
+    public DashboardReconciler(LaundryStore store, TenantSource tenantSource,
+                               SyncScheduler.ConnectivityCheck connectivity, int days, long intervalMs) {
+        this.store = store;
+        this.tenantSource = tenantSource;
+        this.connectivity = connectivity;
+        this.days = Math.max(1, days);
+        this.intervalMs = intervalMs;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Runs a pass after {@code initialDelayMs}, then one every interval. */
+    public void start(long initialDelayMs) {
+        executor.scheduleWithFixedDelay(this::reconcile, initialDelayMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void reconcile() {
+        String tenantId = tenantSource.getTenantId();
+        if (passRunning || TextUtils.isEmpty(BuildConfig.SUPABASE_URL) || TextUtils.isEmpty(tenantId)
+                || !connectivity.isOnline() || store.hasDirtyOrders()) {
+            return;
+        }
+        passRunning = true;
+
+        long toDay = DashboardCounters.dayOf(System.currentTimeMillis());
+        long fromDay = toDay - days + 1;
+        SimpleDateFormat dateFormat = dateFormat();
+        String filter = "&tenant_id=eq." + tenantId;
+        SupabaseClient.fetch("v_laporan_harian",
+                "tanggal,jumlah_order,omzet_idr,jumlah_selesai_diambil" + filter
+                        + "&tanggal=gte." + dateFormat.format(new Date(fromDay * DAY_MS)),
+                new SupabaseClient.Callback<JSONArray>() {
+                    @Override
+                    public void onSuccess(JSONArray dailyRows) {
+                        SupabaseClient.fetch("v_order_belum_diambil", "id" + filter,
+                                new SupabaseClient.Callback<JSONArray>() {
+                                    @Override
+                                    public void onSuccess(JSONArray outstanding) {
+                                        executor.execute(() -> compare(dailyRows, outstanding.length(), fromDay, toDay));
+                                    }
+
+                                    @Override
+                                    public void onError(Exception e) {
+                                        finishWithError(e);
+                                    }
+                                });
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        finishWithError(e);
+                    }
+                });
+    }
+
+    private void compare(JSONArray dailyRows, int serverOutstanding, long fromDay, long toDay) {
+        passRunning = false;
+        Map<Long, DashboardCounters.DayTotals> server;
+        try {
+            server = parseDays(dailyRows);
+        } catch (Exception e) {
+            Log.e(TAG, "Unreadable v_laporan_harian rows", e);
+            return;
+        }
+
+        DashboardCounters counters = store.getDashboard();
+        int drift = counters.countDriftDays(server, fromDay, toDay);
+        if (drift > 0 || counters.getOutstandingPickups() != serverOutstanding) {
+            counters = store.rebuildDashboard();
+            drift = counters.countDriftDays(server, fromDay, toDay);
+            if (drift > 0 || counters.getOutstandingPickups() != serverOutstanding) {
+                // Left over after a recount: orders entered on other devices or changed on the server.
+                Log.w(TAG, drift + " of " + days + " days differ from the server; belum diambil local="
+                        + counters.getOutstandingPickups() + " server=" + serverOutstanding);
+            }
+        }
+        Listener current = listener;
+        if (current != null) {
+            current.onReconciled(counters, drift, serverOutstanding);
+        }
+    }
+
+    private void finishWithError(Exception e) {
+        Log.w(TAG, "Dashboard reconciliation skipped: " + e.getMessage());
+        executor.execute(() -> passRunning = false);
+    }
+
+    private static Map<Long, DashboardCounters.DayTotals> parseDays(JSONArray rows) throws Exception {
+        SimpleDateFormat dateFormat = dateFormat();
+        Map<Long, DashboardCounters.DayTotals> result = new HashMap<>();
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.getJSONObject(i);
+            long day = parseDay(dateFormat, row.getString("tanggal"));
+            result.put(day, new DashboardCounters.DayTotals(row.optInt("jumlah_order"),
+                    row.optLong("omzet_idr"), 0, row.optInt("jumlah_selesai_diambil")));
+        }
+        return result;
+    }
+
+    private static long parseDay(SimpleDateFormat dateFormat, String date) throws ParseException {
+        // Midnight UTC of a calendar date, divided by a day, is that date's day number.
+        return dateFormat.parse(date).getTime() / DAY_MS;
+    }
+
+    /** {@code tanggal} is a plain date; read and write it in UTC so no offset shifts the day. */
+    private static SimpleDateFormat dateFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.laundryappui.sync;
+
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.LaundryStore;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.data.PhoneNumbers;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls customers and orders written by other devices of the tenant through two
+ * {@link ChangeFeed}s and merges them into the {@link LaundryStore}, page by page. Runs under
+ * a {@link PullScheduler}: every pass reports how many rows changed locally, so an idle shop
+ * is polled less and less often.
+ */
+public class OrderFeed implements PullScheduler.PullTask {
+    private static final String TAG = "OrderFeed";
+
+    private static final String CUSTOMERS = "customers";
+    private static final String CUSTOMER_COLUMNS = "id,nama,no_telepon,alamat,updated_at";
+    private static final String ORDERS = "orders";
+    private static final String ORDER_COLUMNS = "id,kode,berat_kg,total_idr,status,versi,created_at,"
+            + "sedang_dicuci_at,selesai_dicuci_at,diambil_at,details_updated_at,updated_at,"
+            + "customers(nama,no_telepon,alamat)";
+
+    /** Called on a transport thread after every page that changed something locally. */
+    public interface Listener {
+        void onMerged(LaundryStore.RemoteMerge merge);
+    }
+
+    private final ChangeFeed feed;
+    private final LaundryStore store;
+    private final DashboardReconciler.TenantSource tenantSource;
+    private volatile Listener listener;
+
+    public OrderFeed(ChangeFeed feed, LaundryStore store, DashboardReconciler.TenantSource tenantSource) {
+        this.feed = feed;
+        this.store = store;
+        this.tenantSource = tenantSource;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void run(PullScheduler.Completion completion) {
+        String tenantId = tenantSource.getTenantId();
+        if (TextUtils.isEmpty(tenantId)) {
+            completion.onFinished(true, 0);
+            return;
+        }
+        int[] changed = new int[1];
+        // Customers first, so that orders of new customers find them.
+        feed.pull(CUSTOMERS, CUSTOMER_COLUMNS, tenantId, store.getFeedWatermark(CUSTOMERS),
+                (rows, watermark) -> changed[0] += merged(store.mergeRemoteCustomers(parseCustomers(rows),
+                        CUSTOMERS, watermark)),
+                new ChangeFeed.Callback() {
+                    @Override
+                    public void onComplete(int rowCount) {
+                        pullOrders(tenantId, changed, completion);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Customer pull failed: " + e.getMessage());
+                        completion.onFinished(false, changed[0]);
+                    }
+                });
+    }
+
+    private void pullOrders(String tenantId, int[] changed, PullScheduler.Completion completion) {
+        feed.pull(ORDERS, ORDER_COLUMNS, tenantId, store.getFeedWatermark(ORDERS),
+                (rows, watermark) -> {
+                    List<Order> orders = new ArrayList<>(rows.length());
+                    List<Customer> customers = new ArrayList<>(rows.length());
+                    parseOrders(rows, orders, customers);
+                    changed[0] += merged(store.mergeRemoteOrders(orders, customers, ORDERS, watermark));
+                },
+                new ChangeFeed.Callback() {
+                    @Override
+                    public void onComplete(int rowCount) {
+                        completion.onFinished(true, changed[0]);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Order pull failed: " + e.getMessage());
+                        completion.onFinished(false, changed[0]);
+                    }
+                });
+    }
+
+    private int merged(LaundryStore.RemoteMerge merge) {
+        Listener current = listener;
+        if (merge.size() > 0 && current != null) {
+            current.onMerged(merge);
+        }
+        return merge.size();
+    }
+
+    private static List<Customer> parseCustomers(JSONArray rows) throws Exception {
+        List<Customer> result = new ArrayList<>(rows.length());
+        for (int i = 0; i < rows.length(); i++) {
+            result.add(parseCustomer(rows.getJSONObject(i)));
+        }
+        return result;
+    }
+
+    private static void parseOrders(JSONArray rows, List<Order> orders, List<Customer> customers) throws Exception {
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.getJSONObject(i);
+            JSONObject customer = row.optJSONObject("customers");
+            OrderStatus status = OrderStatus.fromServerValue(row.getString("status"));
+            if (customer == null || status == null) {
+                Log.w(TAG, "Skipping order " + row.optString("kode") + " without customer or known status");
+                continue;
+            }
+            Order order = new Order();
+            order.code = row.getString("kode");
+            order.price = row.getLong("total_idr");
+            // numeric(10,2) arrives as a JSON number or null.
+            order.weightGrams = row.isNull("berat_kg") ? 0 : (int) Math.round(row.getDouble("berat_kg") * 1000);
+            order.status = status.code;
+            order.version = row.optLong("versi");
+            order.createdAtMillis = ChangeFeed.parseTimestamp(row.getString("created_at"));
+            order.washedAtMillis = optTimestamp(row, "sedang_dicuci_at");
+            order.finishedAtMillis = optTimestamp(row, "selesai_dicuci_at");
+            order.pickedUpAtMillis = optTimestamp(row, "diambil_at");
+            // Moved by the server only when price, weight or customer change, not by status updates.
+            // A row without a weight never had its details entered there, so a local copy wins.
+            order.detailsUpdatedAtMillis = row.isNull("berat_kg") ? 0 : optTimestamp(row, "details_updated_at");
+            orders.add(order);
+            customers.add(parseCustomer(customer));
+        }
+    }
+
+    /** The time in column {@code name}, or 0 if it is null. */
+    private static long optTimestamp(JSONObject row, String name) {
+        return row.isNull(name) ? 0 : ChangeFeed.parseTimestamp(row.optString(name));
+    }
+
+    private static Customer parseCustomer(JSONObject row) {
+        String address = row.isNull("alamat") ? null : row.optString("alamat");
+        return new Customer(row.optString("nama"), PhoneNumbers.normalize(row.optString("no_telepon")), address);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.laundryappui.sync;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Runs a pull pass every {@code baseIntervalMs} while passes keep finding changes. Every pass
+ * that finds nothing, fails, or is skipped while offline doubles the pause, up to
+ * {@code maxIntervalMs}, so an idle shop polls rarely. {@link #pullNow} runs a pass at once
+ * and drops back to the base interval.
+ */
+public class PullScheduler extends SingleFlightScheduler {
+
+    /** Performs one pull pass and must call {@link Completion#onFinished} exactly once. */
+    public interface PullTask {
+        void run(Completion completion);
+    }
+
+    public interface Completion {
+        void onFinished(boolean success, int changedRows);
+    }
+
+    private final long baseIntervalMs;
+    private final long maxIntervalMs;
+    private final PullTask task;
+
+    private long intervalMs;
+
+    public PullScheduler(ScheduledExecutorService executor, long baseIntervalMs, long maxIntervalMs,
+                         SyncScheduler.ConnectivityCheck connectivity, PullTask task) {
+        super(executor, connectivity);
+        this.baseIntervalMs = Math.max(1, baseIntervalMs);
+        this.maxIntervalMs = Math.max(this.baseIntervalMs, maxIntervalMs);
+        this.task = task;
+        this.intervalMs = this.baseIntervalMs;
+    }
+
+    /** Schedules the first pass after {@code initialDelayMs}. */
+    public synchronized void start(long initialDelayMs) {
+        if (isIdle()) {
+            scheduleNext(initialDelayMs);
+        }
+    }
+
+    /** Pulls right away, or right after the running pass, and resets the idle backoff. */
+    public synchronized void pullNow() {
+        intervalMs = baseIntervalMs;
+        runNow();
+    }
+
+    /** The pause before the next pass as things stand. */
+    public synchronized long getIntervalMs() {
+        return intervalMs;
+    }
+
+    @Override
+    void runPass(Outcome outcome) {
+        task.run(outcome::finish);
+    }
+
+    @Override
+    long offlineDelayMs() {
+        backOff();
+        return intervalMs;
+    }
+
+    @Override
+    Runnable passFinished(boolean success, int changedRows, boolean pullRequested) {
+        if (pullRequested || (success && changedRows > 0)) {
+            intervalMs = baseIntervalMs;
+        } else {
+            backOff();
+        }
+        scheduleNext(pullRequested ? 0 : intervalMs);
+        return null;
+    }
+
+    private void backOff() {
+        intervalMs = Math.min(intervalMs * 2, maxIntervalMs);
+    }
+}
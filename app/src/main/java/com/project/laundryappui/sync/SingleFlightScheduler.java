@@ -0,0 +1,127 @@
+package com.project.laundryappui.sync;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs passes on a scheduled executor, at most one at a time. A pass requested while one is
+ * running starts right after it; a pass due while the device is offline is put off. Subclasses
+ * decide when the next pass is due. Their hooks run with the lock on {@code this} held.
+ */
+abstract class SingleFlightScheduler {
+
+    /** Outcome of a pass; only the first call counts. */
+    interface Outcome {
+        void finish(boolean success, int changedRows);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final SyncScheduler.ConnectivityCheck connectivity;
+
+    private ScheduledFuture<?> scheduled;
+    private boolean running;
+    private boolean rerunRequested;
+
+    SingleFlightScheduler(ScheduledExecutorService executor, SyncScheduler.ConnectivityCheck connectivity) {
+        this.executor = executor;
+        this.connectivity = connectivity;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Starts the pass that must call {@code outcome} once, on any thread. */
+    abstract void runPass(Outcome outcome);
+
+    /** The device was offline when a pass was due; returns the delay before trying again. */
+    abstract long offlineDelayMs();
+
+    /** A pass is about to run. */
+    void passStarting() {
+    }
+
+    /**
+     * A pass finished. Schedules the next one with {@link #scheduleNext}, which a run that was
+     * requested meanwhile should get at once, and returns what to run once the lock is
+     * released, e.g. a listener call, or null.
+     */
+    abstract Runnable passFinished(boolean success, int changedRows, boolean rerunRequested);
+
+    /** Neither running nor scheduled. */
+    final synchronized boolean isIdle() {
+        return !running && scheduled == null;
+    }
+
+    /** Runs a pass right away, or right after the running one. */
+    final synchronized void runNow() {
+        if (running) {
+            rerunRequested = true;
+            return;
+        }
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        schedule(0);
+    }
+
+    /** Schedules a pass after {@code delayMs} unless one is already scheduled. */
+    final synchronized void scheduleNext(long delayMs) {
+        if (scheduled == null) {
+            schedule(delayMs);
+        }
+    }
+
+    private void schedule(long delayMs) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        scheduled = executor.schedule(this::startPass, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void startPass() {
+        synchronized (this) {
+            scheduled = null;
+            if (running) {
+                return;
+            }
+            if (!connectivity.isOnline()) {
+                schedule(offlineDelayMs());
+                return;
+            }
+            running = true;
+            passStarting();
+        }
+
+        boolean[] finished = new boolean[1];
+        try {
+            runPass((success, changedRows) -> {
+                synchronized (finished) {
+                    if (finished[0]) return;
+                    finished[0] = true;
+                }
+                onPassFinished(success, changedRows);
+            });
+        } catch (RuntimeException e) {
+            synchronized (finished) {
+                if (finished[0]) throw e;
+                finished[0] = true;
+            }
+            onPassFinished(false, 0);
+        }
+    }
+
+    private void onPassFinished(boolean success, int changedRows) {
+        Runnable after;
+        synchronized (this) {
+            running = false;
+            boolean rerun = rerunRequested;
+            rerunRequested = false;
+            after = passFinished(success, changedRows, rerun);
+        }
+        if (after != null) {
+            after.run();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.laundryappui.sync;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces sync requests so a burst of mutations results in a single sync pass.
+ * <p>
+ * The first request after an idle period opens a window of {@code coalesceWindowMs}; every
+ * request inside that window joins the same pass. At most one pass runs at a time: requests
+ * that arrive while a pass is running are picked up by a follow-up pass. While the device is
+ * offline, or after a failed pass, the next attempt is delayed with an exponential backoff
+ * until a pass succeeds.
+ */
+public class SyncScheduler extends SingleFlightScheduler {
+
+    /** Performs one sync pass and must call {@link Completion#onFinished} exactly once. */
+    public interface SyncTask {
+        void run(Completion completion);
+    }
+
+    public interface Completion {
+        void onFinished(boolean success);
+    }
+
+    public interface ConnectivityCheck {
+        boolean isOnline();
+    }
+
+    /**
+     * Called after every finished pass on the thread that finished it: the transport thread
+     * the task completed on, or the scheduler thread if the task completed or threw inline.
+     */
+    public interface Listener {
+        void onSyncFinished(boolean success, int queueDepth, long latencyMs);
+    }
+
+    private final long coalesceWindowMs;
+    private final long maxBackoffMs;
+    private final SyncTask task;
+    private Listener listener;
+
+    private int pendingRequests;
+    private int inFlightRequests;
+    private long backoffMs;
+    private long passStartedNanos;
+    private volatile long lastSyncLatencyMs = -1;
+
+    public SyncScheduler(ScheduledExecutorService executor, long coalesceWindowMs, long maxBackoffMs,
+                         ConnectivityCheck connectivity, SyncTask task) {
+        super(executor, connectivity);
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.task = task;
+    }
+
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Records a local mutation; the sync for it starts at the end of the current window. */
+    public synchronized void requestSync() {
+        pendingRequests++;
+        if (isIdle()) {
+            scheduleNext(coalesceWindowMs);
+        }
+    }
+
+    /** Starts a pass right away, or right after the running one, skipping the window and any backoff. */
+    public synchronized void flushNow() {
+        backoffMs = 0;
+        runNow();
+    }
+
+    /** Mutations that no pass has picked up yet, plus those of a pass that is still running. */
+    public synchronized int getQueueDepth() {
+        return pendingRequests + inFlightRequests;
+    }
+
+    /** Duration of the last finished pass, or -1 if none has finished yet. */
+    public long getLastSyncLatencyMs() {
+        return lastSyncLatencyMs;
+    }
+
+    @Override
+    void runPass(Outcome outcome) {
+        task.run(success -> outcome.finish(success, 0));
+    }
+
+    @Override
+    long offlineDelayMs() {
+        return nextBackoff();
+    }
+
+    @Override
+    void passStarting() {
+        inFlightRequests = pendingRequests;
+        pendingRequests = 0;
+        passStartedNanos = System.nanoTime();
+    }
+
+    @Override
+    Runnable passFinished(boolean success, int changedRows, boolean flushRequested) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - passStartedNanos);
+        lastSyncLatencyMs = latencyMs;
+        if (success) {
+            backoffMs = 0;
+        } else {
+            // The changes are still dirty locally; keep them queued for the retry.
+            pendingRequests += inFlightRequests;
+        }
+        inFlightRequests = 0;
+
+        if (flushRequested) {
+            scheduleNext(0);
+        } else if (!success) {
+            // Also without pending requests: a failed flush still has dirty rows to send.
+            scheduleNext(nextBackoff());
+        } else if (pendingRequests > 0) {
+            scheduleNext(coalesceWindowMs);
+        }
+        Listener toNotify = listener;
+        int depth = pendingRequests;
+        return toNotify == null ? null : () -> toNotify.onSyncFinished(success, depth, latencyMs);
+    }
+
+    private long nextBackoff() {
+        backoffMs = backoffMs == 0 ? Math.max(coalesceWindowMs, 1000) : Math.min(backoffMs * 2, maxBackoffMs);
+        return backoffMs;
+    }
+}
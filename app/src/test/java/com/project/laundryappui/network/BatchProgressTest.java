@@ -0,0 +1,48 @@
+package com.project.laundryappui.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchProgressTest {
+
+    @Test
+    public void throwingResultCallbackStillCompletesOnce() {
+        List<String> completions = new ArrayList<>();
+        BatchProgress progress = new BatchProgress(2, (ok, failed) -> completions.add(ok + "/" + failed));
+
+        try {
+            progress.finish(0, true, () -> {
+                throw new IllegalStateException("markSynced failed");
+            });
+            fail("the callback's exception must propagate");
+        } catch (IllegalStateException expected) {
+        }
+        assertTrue(completions.isEmpty());
+
+        progress.finish(1, false, () -> {
+        });
+        assertEquals(1, completions.size());
+        assertEquals("1/1", completions.get(0));
+    }
+
+    @Test
+    public void repeatedReportOfABatchIsIgnored() {
+        List<String> completions = new ArrayList<>();
+        int[] reported = new int[1];
+        BatchProgress progress = new BatchProgress(2, (ok, failed) -> completions.add(ok + "/" + failed));
+
+        assertTrue(progress.finish(0, true, () -> reported[0]++));
+        // A transport answering once with a result and once with a failure.
+        assertFalse(progress.finish(0, false, () -> reported[0]++));
+        assertTrue(completions.isEmpty());
+
+        assertTrue(progress.finish(1, true, () -> reported[0]++));
+        assertEquals(2, reported[0]);
+        assertEquals(1, completions.size());
+        assertEquals("2/0", completions.get(0));
+    }
+}
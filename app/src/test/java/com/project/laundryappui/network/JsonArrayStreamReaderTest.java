@@ -0,0 +1,85 @@
+package com.project.laundryappui.network;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JsonArrayStreamReaderTest {
+
+    @Test
+    public void splitsTopLevelElements() throws IOException {
+        String json = " [ {\"kode\":\"LND-1\",\"catatan\":\"kemeja ]} \\\"putih\\\"\",\"tags\":[1,{\"a\":[]}]},"
+                + "\"teks\",42 , null,{}]";
+        JsonArrayStreamReader reader = reader(json);
+
+        JSONObject first = new JSONObject(reader.next());
+        assertEquals("LND-1", first.getString("kode"));
+        assertEquals("kemeja ]} \"putih\"", first.getString("catatan"));
+        assertEquals("\"teks\"", reader.next());
+        assertEquals("42", reader.next());
+        assertEquals("null", reader.next());
+        assertEquals("{}", reader.next());
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void readsEmptyArray() throws IOException {
+        assertNull(reader("[]").next());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedBody() throws IOException {
+        JsonArrayStreamReader reader = reader("[{\"kode\":\"LND-1\"");
+        reader.next();
+    }
+
+    @Test
+    public void streamsLargeBodyWithoutBufferingIt() throws IOException {
+        int rows = 200_000;
+        JsonArrayStreamReader reader = new JsonArrayStreamReader(new GeneratedArrayStream(rows));
+        int count = 0;
+        String element;
+        while ((element = reader.next()) != null) {
+            assertEquals(count, new JSONObject(element).getInt("n"));
+            count++;
+        }
+        assertEquals(rows, count);
+    }
+
+    private static JsonArrayStreamReader reader(String json) {
+        return new JsonArrayStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** Produces {@code [{"n":0,...},{"n":1,...},...]} on the fly, never holding it whole. */
+    private static class GeneratedArrayStream extends InputStream {
+        private final int rows;
+        private int next;
+        private byte[] current = "[".getBytes(StandardCharsets.UTF_8);
+        private int pos;
+
+        GeneratedArrayStream(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (pos == current.length) {
+                if (next > rows) return -1;
+                String chunk = next == rows
+                        ? "]"
+                        : (next > 0 ? "," : "") + "{\"n\":" + next + ",\"kode\":\"LND-" + next + "\",\"status\":\"pesanan_masuk\"}";
+                next++;
+                current = chunk.getBytes(StandardCharsets.UTF_8);
+                pos = 0;
+            }
+            return current[pos++];
+        }
+    }
+}
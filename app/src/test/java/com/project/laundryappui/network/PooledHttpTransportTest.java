@@ -0,0 +1,222 @@
+package com.project.laundryappui.network;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives {@link PooledHttpTransport} against a local stub server.
+ */
+public class PooledHttpTransportTest {
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final List<String> served = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/echo", exchange -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            served.add(exchange.getRequestURI().getQuery());
+            byte[] body = readAll(exchange.getRequestBody());
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(body);
+            os.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void returnsResponseBody() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(2, 2, 5000);
+        Recorder recorder = new Recorder(1);
+        transport.execute(new HttpRequest("POST", baseUrl + "/echo?a").body("{\"kode\":\"LND-1\"}"), recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("200:{\"kode\":\"LND-1\"}"), recorder.results);
+        transport.shutdown();
+    }
+
+    @Test
+    public void limitsConcurrencyPerHost() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(4, 2, 5000);
+        gate = new CountDownLatch(1);
+        Recorder recorder = new Recorder(6);
+        for (int i = 0; i < 6; i++) {
+            transport.execute(new HttpRequest("GET", baseUrl + "/echo?" + i), recorder);
+        }
+        Thread.sleep(300);
+        gate.countDown();
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxInFlight.get());
+        transport.shutdown();
+    }
+
+    @Test
+    public void interactiveRequestsOvertakeQueuedBulkWork() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(1, 1, 5000);
+        gate = new CountDownLatch(1);
+        Recorder recorder = new Recorder(4);
+        for (int i = 0; i < 3; i++) {
+            transport.execute(new HttpRequest("GET", baseUrl + "/echo?bulk" + i)
+                    .priority(HttpRequest.Priority.BULK), recorder);
+        }
+        transport.execute(new HttpRequest("GET", baseUrl + "/echo?interactive"), recorder);
+        Thread.sleep(300);
+        gate.countDown();
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        // bulk0 was already running when the interactive call arrived.
+        assertEquals("bulk0", served.get(0));
+        assertEquals("interactive", served.get(1));
+        transport.shutdown();
+    }
+
+    @Test
+    public void failsRequestsThatExceedTheirTimeout() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(1, 1, 5000);
+        Recorder recorder = new Recorder(1);
+        transport.execute(new HttpRequest("GET", baseUrl + "/slow").timeoutMs(200), recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertTrue(recorder.failures.get(0) instanceof SocketTimeoutException);
+        transport.shutdown();
+    }
+
+    @Test
+    public void exceptionFromTheHandlerIsNotReportedAsAFailure() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(1, 1, 5000);
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        List<Throwable> uncaught = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch thrown = new CountDownLatch(1);
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            uncaught.add(e);
+            thrown.countDown();
+        });
+        try {
+            Recorder recorder = new Recorder(1) {
+                @Override
+                public void onResponse(int code, InputStream body) {
+                    super.onResponse(code, body);
+                    throw new IllegalStateException("bookkeeping failed");
+                }
+            };
+            transport.execute(new HttpRequest("GET", baseUrl + "/echo?a"), recorder);
+
+            assertTrue(thrown.await(5, TimeUnit.SECONDS));
+            assertEquals("bookkeeping failed", uncaught.get(0).getMessage());
+            assertEquals(1, recorder.results.size());
+            assertTrue(recorder.failures.isEmpty());
+
+            // The pool slot was released: the next call still runs.
+            Recorder next = new Recorder(1);
+            transport.execute(new HttpRequest("GET", baseUrl + "/echo?b"), next);
+            assertTrue(next.done.await(5, TimeUnit.SECONDS));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void shutdownLetsAcceptedCallsFinish() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(1, 1, 5000);
+        gate = new CountDownLatch(1);
+        Recorder accepted = new Recorder(2);
+        transport.execute(new HttpRequest("GET", baseUrl + "/echo?running"), accepted);
+        transport.execute(new HttpRequest("GET", baseUrl + "/echo?queued"), accepted);
+        Thread.sleep(200);
+        transport.shutdown();
+
+        Recorder late = new Recorder(1);
+        transport.execute(new HttpRequest("GET", baseUrl + "/echo?late"), late);
+        assertTrue(late.done.await(1, TimeUnit.SECONDS));
+        assertEquals(1, late.failures.size());
+
+        gate.countDown();
+        assertTrue(accepted.done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, accepted.results.size());
+        assertTrue(accepted.failures.isEmpty());
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static class Recorder implements HttpTransport.ResponseHandler {
+        final CountDownLatch done;
+        final List<String> results = Collections.synchronizedList(new ArrayList<>());
+        final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+
+        Recorder(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onResponse(int code, InputStream body) {
+            try {
+                results.add(code + ":" + new String(readAll(body), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                failures.add(e);
+            }
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            failures.add(e);
+            done.countDown();
+        }
+    }
+}
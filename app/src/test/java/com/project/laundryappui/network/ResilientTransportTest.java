@@ -0,0 +1,131 @@
+package com.project.laundryappui.network;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResilientTransportTest {
+
+    @Test
+    public void retriesTransientFailuresOfIdempotentRequests() throws Exception {
+        ScriptedTransport backend = new ScriptedTransport(503, -1, 200);
+        ResilientTransport transport = new ResilientTransport(backend,
+                new RetryPolicy(4, 1, 5), new CircuitBreaker(10, 1000));
+
+        Outcome outcome = run(transport, new HttpRequest("GET", "http://stub/rest/v1/orders"));
+
+        assertEquals(Integer.valueOf(200), outcome.code);
+        assertEquals(3, backend.calls.get());
+        assertEquals(2, transport.getRetryCount());
+    }
+
+    @Test
+    public void doesNotRetryClientErrorsOrPlainPosts() throws Exception {
+        ScriptedTransport backend = new ScriptedTransport(400, 503);
+        ResilientTransport transport = new ResilientTransport(backend,
+                new RetryPolicy(4, 1, 5), new CircuitBreaker(10, 1000));
+
+        assertEquals(Integer.valueOf(400), run(transport, new HttpRequest("GET", "http://stub/a")).code);
+        assertEquals(Integer.valueOf(503), run(transport, new HttpRequest("POST", "http://stub/a")).code);
+        assertEquals(2, backend.calls.get());
+        assertEquals(0, transport.getRetryCount());
+    }
+
+    @Test
+    public void breakerFailsFastWhileOpenAndProbesBeforeClosing() throws Exception {
+        ScriptedTransport backend = new ScriptedTransport(-1, -1, 200);
+        ManualBreaker breaker = new ManualBreaker(2, 1000);
+        ResilientTransport transport = new ResilientTransport(backend, new RetryPolicy(1, 1, 1), breaker);
+
+        run(transport, new HttpRequest("GET", "http://stub/a"));
+        run(transport, new HttpRequest("GET", "http://stub/a"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Outcome rejected = run(transport, new HttpRequest("GET", "http://stub/a"));
+        assertTrue(rejected.error instanceof CircuitOpenException);
+        assertEquals(2, backend.calls.get());
+
+        breaker.time += 1000;
+        assertEquals(Integer.valueOf(200), run(transport, new HttpRequest("GET", "http://stub/a")).code);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getOpenedCount());
+        assertEquals(1, breaker.getHalfOpenedCount());
+        assertEquals(1, breaker.getClosedCount());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    private static Outcome run(HttpTransport transport, HttpRequest request) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        transport.execute(request, outcome);
+        assertTrue(outcome.done.await(5, TimeUnit.SECONDS));
+        return outcome;
+    }
+
+    /** Answers each call with the next scripted status code; -1 means a connection failure. */
+    private static class ScriptedTransport implements HttpTransport {
+        final List<Integer> script = new ArrayList<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        ScriptedTransport(int... codes) {
+            for (int code : codes) script.add(code);
+        }
+
+        @Override
+        public void execute(HttpRequest request, ResponseHandler handler) {
+            int code = script.get(Math.min(calls.getAndIncrement(), script.size() - 1));
+            try {
+                if (code < 0) {
+                    handler.onFailure(new IOException("connection reset"));
+                } else {
+                    handler.onResponse(code, new ByteArrayInputStream(new byte[0]));
+                }
+            } catch (Exception e) {
+                handler.onFailure(e);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    private static class ManualBreaker extends CircuitBreaker {
+        long time = 1;
+
+        ManualBreaker(int failureThreshold, long openMs) {
+            super(failureThreshold, openMs);
+        }
+
+        @Override
+        long now() {
+            return time;
+        }
+    }
+
+    private static class Outcome implements HttpTransport.ResponseHandler {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Integer code;
+        volatile Exception error;
+
+        @Override
+        public void onResponse(int code, InputStream body) {
+            this.code = code;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            error = e;
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.project.laundryappui.order;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Scrolls a 10k order history through {@link OrderPager} with synchronous executors and
+ * checks that the loaded window stays bounded while every position resolves to its order.
+ */
+public class OrderPagerTest {
+    private static final int ORDERS = 10_000;
+    private static final int PAGE = 50;
+    private static final int MAX_LOADED = 250;
+    private static final int PREFETCH = 20;
+
+    private FakeSource source;
+    private OrderPager pager;
+
+    @Before
+    public void setUp() {
+        source = new FakeSource(ORDERS);
+        Executor direct = Runnable::run;
+        Customer customer = new Customer("Budi", "0812", "Jl. Melati 5");
+        pager = new OrderPager(source, id -> customer, direct, direct, PAGE, MAX_LOADED, PREFETCH);
+        boolean[] loaded = new boolean[1];
+        pager.start(() -> loaded[0] = true);
+        assertTrue(loaded[0]);
+    }
+
+    @Test
+    public void scrollingDownAndUpKeepsWindowBounded() {
+        assertEquals(ORDERS, pager.getCount());
+        int maxSeen = 0;
+        for (int position = 0; position < ORDERS; position++) {
+            assertRow(position);
+            maxSeen = Math.max(maxSeen, pager.getLoadedCount());
+        }
+        for (int position = ORDERS - 1; position >= 0; position--) {
+            assertRow(position);
+            maxSeen = Math.max(maxSeen, pager.getLoadedCount());
+        }
+        assertTrue(maxSeen <= MAX_LOADED);
+        // Sequential scrolling walks by keyset; only the initial load uses an offset.
+        assertEquals(1, source.offsetLoads);
+    }
+
+    @Test
+    public void jumpLoadsAroundTarget() {
+        assertRow(7_000);
+        assertRow(7_000 - PAGE / 2);
+        assertNull(pager.findLoaded(source.orders.get(0).code));
+        assertNotNull(pager.findLoaded(source.orders.get(7_000).code));
+        assertTrue(pager.getLoadedCount() <= MAX_LOADED);
+    }
+
+    @Test
+    public void insertNewestShiftsPositions() {
+        Order newest = source.insertNewest();
+        pager.insertNewest(newest);
+        assertEquals(ORDERS + 1, pager.getCount());
+        assertSame(newest, pager.getRow(0).order);
+        assertSame(newest, pager.findLoaded(newest.code));
+        assertRow(1);
+    }
+
+    @Test
+    public void insertNewestWhileScrolledAwayKeepsLoadedRowsAligned() {
+        assertRow(5_000);
+        Order newest = source.insertNewest();
+        pager.insertNewest(newest);
+        assertEquals(ORDERS + 1, pager.getCount());
+        assertRow(5_001);
+        assertNull(pager.findLoaded(newest.code));
+    }
+
+    @Test
+    public void changedOrderRebuildsItsRow() {
+        OrderRow before = pager.getRow(3);
+        Order order = before.order;
+        order.status = OrderStatus.DICUCI.code;
+        order.localVersion++;
+        pager.onOrderChanged(order);
+        OrderRow after = pager.getRow(3);
+        assertNotSame(before, after);
+        assertEquals("Status: Sedang dicuci", after.statusText);
+    }
+
+    private void assertRow(int position) {
+        OrderRow row = pager.getRow(position);
+        assertNotNull("position " + position, row);
+        assertSame("position " + position, source.orders.get(position), row.order);
+    }
+
+    /** In-memory history in list order, answering the same queries as the database. */
+    private static class FakeSource implements OrderPager.Source {
+        final List<Order> orders = new ArrayList<>();
+        int offsetLoads;
+        int keysetLoads;
+        private long nextId;
+
+        FakeSource(int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                orders.add(createOrder(i));
+            }
+            nextId = count;
+        }
+
+        Order insertNewest() {
+            Order order = createOrder(nextId++);
+            orders.add(0, order);
+            return order;
+        }
+
+        @Override
+        public int countOrders() {
+            return orders.size();
+        }
+
+        @Override
+        public List<Order> loadOrdersPage(int offset, int limit) {
+            offsetLoads++;
+            return copy(offset, offset + limit);
+        }
+
+        @Override
+        public List<Order> loadOrdersAfter(Order last, int limit) {
+            keysetLoads++;
+            int from = positionOf(last) + 1;
+            return copy(from, from + limit);
+        }
+
+        @Override
+        public List<Order> loadOrdersBefore(Order first, int limit) {
+            keysetLoads++;
+            int to = positionOf(first);
+            return copy(to - limit, to);
+        }
+
+        private int positionOf(Order order) {
+            for (int i = 0; i < orders.size(); i++) {
+                if (orders.get(i).id == order.id) {
+                    return i;
+                }
+            }
+            throw new AssertionError("unknown order " + order.code);
+        }
+
+        private List<Order> copy(int from, int to) {
+            return new ArrayList<>(orders.subList(Math.max(0, from), Math.min(orders.size(), to)));
+        }
+
+        private static Order createOrder(long id) {
+            Order order = new Order();
+            order.id = id + 1;
+            order.code = "LND-" + (1_700_000_000_000L + id);
+            order.customerId = id % 300 + 1;
+            order.weightGrams = 3_000;
+            order.price = 21_000;
+            order.status = OrderStatus.MASUK.code;
+            order.createdAtMillis = 1_700_000_000_000L + id * 60_000L;
+            return order;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.laundryappui.print;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PrintSpoolerTest {
+
+    @Test
+    public void streamsJobsBackToBackOverOneConnection() throws Exception {
+        FakePrinter printer = new FakePrinter(0);
+        PrintSpooler spooler = new PrintSpooler(printer);
+        CountDownLatch done = new CountDownLatch(1);
+        spooler.setListener(listener(done, null));
+
+        spooler.submitAll(Arrays.asList(job("A"), job("B"), job("C")));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("ABC", printer.received.toString("US-ASCII"));
+        assertEquals(1, printer.opens.get());
+        assertEquals(0, spooler.getPendingJobs());
+        spooler.shutdown();
+    }
+
+    @Test
+    public void reconnectsOnceThenKeepsJobsQueued() throws Exception {
+        FakePrinter printer = new FakePrinter(1);
+        PrintSpooler spooler = new PrintSpooler(printer);
+        CountDownLatch done = new CountDownLatch(1);
+        spooler.setListener(listener(done, null));
+
+        spooler.submitAll(Arrays.asList(job("A"), job("B")));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("AB", printer.received.toString("US-ASCII"));
+        assertEquals(2, printer.opens.get());
+
+        printer.failuresLeft.set(2);
+        CountDownLatch failed = new CountDownLatch(1);
+        spooler.setListener(listener(null, failed));
+        spooler.submitAll(Arrays.asList(job("C"), job("D")));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, spooler.getPendingJobs());
+
+        CountDownLatch resumed = new CountDownLatch(1);
+        spooler.setListener(listener(resumed, null));
+        spooler.resume();
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        assertEquals("ABCD", printer.received.toString("US-ASCII"));
+        spooler.shutdown();
+    }
+
+    private static PrintSpooler.Listener listener(CountDownLatch drained, CountDownLatch failed) {
+        return new PrintSpooler.Listener() {
+            @Override
+            public void onJobPrinted(int remainingJobs) {
+                if (remainingJobs == 0 && drained != null) drained.countDown();
+            }
+
+            @Override
+            public void onPrintFailed(Exception error, int remainingJobs) {
+                if (failed != null) failed.countDown();
+            }
+        };
+    }
+
+    private static byte[] job(String text) {
+        return text.getBytes();
+    }
+
+    /** Collects everything written; the first {@code failures} writes throw. */
+    private static class FakePrinter implements PrintSpooler.PrinterConnection {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        final AtomicInteger opens = new AtomicInteger();
+        final AtomicInteger failuresLeft;
+
+        FakePrinter(int failures) {
+            failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public OutputStream open() {
+            opens.incrementAndGet();
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (failuresLeft.getAndDecrement() > 0) {
+                        throw new IOException("broken pipe");
+                    }
+                    synchronized (received) {
+                        received.write(b, off, len);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.laundryappui.scan;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ScanSessionTest {
+
+    @Test
+    public void codeHeldInViewIsStagedOnce() {
+        ScanSession session = new ScanSession(1500);
+        assertEquals(ScanSession.Result.STAGED, session.offer("LDR-001", 0));
+        // Every frame while the bag stays under the camera.
+        for (long t = 50; t < 3000; t += 50) {
+            assertEquals(ScanSession.Result.IGNORED, session.offer("LDR-001\n", t));
+        }
+        assertEquals(1, session.size());
+    }
+
+    @Test
+    public void rescanAfterAnotherCodeIsReportedAsDuplicate() {
+        ScanSession session = new ScanSession(1500);
+        session.offer("LDR-001", 0);
+        session.offer("LDR-002", 100);
+        assertEquals(ScanSession.Result.DUPLICATE, session.offer("LDR-001", 200));
+        // Out of the window the same code again is a deliberate rescan, still not staged twice.
+        assertEquals(ScanSession.Result.DUPLICATE, session.offer("LDR-001", 5000));
+        assertEquals(ScanSession.Result.IGNORED, session.offer("  ", 5100));
+        assertEquals(Arrays.asList("LDR-001", "LDR-002"), session.getCodes());
+    }
+
+    @Test
+    public void restoreKeepsOrderAndRemoveDropsMistakes() {
+        ScanSession session = new ScanSession(1500);
+        session.restore(Arrays.asList("A", "B"));
+        assertEquals(ScanSession.Result.STAGED, session.offer("C", 0));
+        assertEquals(ScanSession.Result.DUPLICATE, session.offer("A", 10));
+        assertTrue(session.remove("B"));
+        assertFalse(session.remove("B"));
+        assertEquals(Arrays.asList("A", "C"), session.getCodes());
+    }
+
+    @Test
+    public void stagesEveryBagOfALargeBatchOnce() {
+        ScanSession session = new ScanSession(1500);
+        int bags = 20_000;
+        for (int i = 0; i < bags; i++) {
+            String code = "LDR-" + i;
+            // Each bag is seen on a few frames before the next one.
+            for (int frame = 0; frame < 5; frame++) {
+                session.offer(code, i * 2000L + frame * 30L);
+            }
+        }
+        assertEquals(bags, session.size());
+    }
+}
@@ -0,0 +1,255 @@
+package com.project.laundryappui.sync;
+
+import com.project.laundryappui.network.HttpStatusException;
+import com.project.laundryappui.network.PooledHttpTransport;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives {@link ChangeFeed} against a local stand-in for PostgREST that implements the
+ * filters, ordering and limit the feed sends.
+ */
+public class ChangeFeedTest {
+    private static final String TENANT = "tenant-a";
+    private static final Pattern KEYSET = Pattern.compile(
+            "\\(updated_at\\.gt\\.\"(.+)\",and\\(updated_at\\.eq\\.\"(.+)\",id\\.gt\\.(.+)\\)\\)");
+
+    private HttpServer server;
+    private String baseUrl;
+    private PooledHttpTransport transport;
+    private final List<JSONObject> table = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    private volatile int failWith;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/rest/v1/orders", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(query);
+            byte[] body;
+            int code = failWith;
+            if (code == 0) {
+                code = 200;
+                body = select(query).toString().getBytes(StandardCharsets.UTF_8);
+            } else {
+                body = "{\"message\":\"unavailable\"}".getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(code, body.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(body);
+            os.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        transport = new PooledHttpTransport(2, 2, 5000);
+    }
+
+    @After
+    public void stopServer() {
+        transport.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void pagesThroughABatchSharingOneTimestamp() throws Exception {
+        // One update_order_statuses call stamps every row with the same transaction time.
+        for (int i = 1; i <= 7; i++) {
+            row(TENANT, i, "2026-10-17T08:00:00.123456+00:00", "diambil");
+        }
+        row("tenant-b", 8, "2026-10-17T08:00:00.123456+00:00", "lain");
+
+        Recorder recorder = pull(new ChangeFeed(transport, baseUrl, "key", 3, 0), 0);
+
+        assertNull(recorder.error);
+        assertEquals(7, recorder.total);
+        assertEquals(ids(1, 2, 3, 4, 5, 6, 7), recorder.ids);
+        assertEquals(3, recorder.pages);
+        assertEquals(ChangeFeed.parseTimestamp("2026-10-17T08:00:00.123+00:00"), recorder.lastWatermark);
+        assertEquals(3, queries.size());
+    }
+
+    @Test
+    public void pullsOnlyRowsChangedSinceTheWatermarkWithOverlap() throws Exception {
+        row(TENANT, 1, "2026-10-17T07:00:00.000000+00:00", "lama");
+        row(TENANT, 2, "2026-10-17T08:00:00.000000+00:00", "terakhir");
+        ChangeFeed feed = new ChangeFeed(transport, baseUrl, "key", 50, 10_000);
+        long watermark = pull(feed, 0).lastWatermark;
+        assertEquals(ChangeFeed.parseTimestamp("2026-10-17T08:00:00Z"), watermark);
+
+        // A transaction that started before the last pull but committed after it.
+        row(TENANT, 3, "2026-10-17T07:59:55.000000+00:00", "terlambat");
+        row(TENANT, 4, "2026-10-17T08:05:00.000000+00:00", "baru");
+        Recorder second = pull(feed, watermark);
+
+        assertNull(second.error);
+        assertEquals(ids(3, 2, 4), second.ids);
+        assertEquals(ChangeFeed.parseTimestamp("2026-10-17T08:05:00Z"), second.lastWatermark);
+
+        // Nothing new: only the overlap is read again.
+        Recorder idle = pull(feed, second.lastWatermark);
+        assertEquals(ids(4), idle.ids);
+    }
+
+    @Test
+    public void reportsServerErrors() throws Exception {
+        failWith = 404;
+        Recorder recorder = pull(new ChangeFeed(transport, baseUrl, "key", 10, 0), 0);
+        assertTrue(recorder.error instanceof HttpStatusException);
+        assertEquals(0, recorder.pages);
+    }
+
+    @Test
+    public void parsesPostgrestTimestamps() {
+        long expected = ChangeFeed.parseTimestamp("2026-10-17T08:15:30.123Z");
+        assertEquals(expected, ChangeFeed.parseTimestamp("2026-10-17T08:15:30.123456+00:00"));
+        assertEquals(expected, ChangeFeed.parseTimestamp("2026-10-17T15:15:30.123+07:00"));
+        assertEquals(expected, ChangeFeed.parseTimestamp("2026-10-17 08:15:30.12345+00"));
+        assertEquals(expected - 123, ChangeFeed.parseTimestamp("2026-10-17T08:15:30+00:00"));
+        assertEquals(1_792_225_800_000L, ChangeFeed.parseTimestamp("2026-10-17T08:30:00Z"));
+        assertEquals(expected, ChangeFeed.parseTimestamp(ChangeFeed.formatTimestamp(expected)));
+    }
+
+    private Recorder pull(ChangeFeed feed, long watermark) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        feed.pull("orders", "id,status,updated_at", TENANT, watermark, recorder, recorder);
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        return recorder;
+    }
+
+    private void row(String tenant, int id, String updatedAt, String status) throws Exception {
+        table.add(new JSONObject()
+                .put("tenant_id", tenant)
+                .put("id", String.format("%08d", id))
+                .put("status", status)
+                .put("updated_at", updatedAt));
+    }
+
+    private static List<String> ids(int... ids) {
+        List<String> result = new ArrayList<>();
+        for (int id : ids) {
+            result.add(String.format("%08d", id));
+        }
+        return result;
+    }
+
+    /** Applies {@code tenant_id=eq}, {@code updated_at=gte}, the keyset {@code or}, order and limit. */
+    private JSONArray select(String rawQuery) throws IOException {
+        String tenant = null;
+        Long since = null;
+        Long afterTime = null;
+        String afterId = null;
+        int limit = Integer.MAX_VALUE;
+        for (String param : rawQuery.split("&")) {
+            int eq = param.indexOf('=');
+            String name = param.substring(0, eq);
+            String value = URLDecoder.decode(param.substring(eq + 1), "UTF-8");
+            if (name.equals("tenant_id")) {
+                tenant = value.substring("eq.".length());
+            } else if (name.equals("updated_at")) {
+                since = micros(value.substring("gte.".length()));
+            } else if (name.equals("limit")) {
+                limit = Integer.parseInt(value);
+            } else if (name.equals("order")) {
+                assertEquals("updated_at.asc,id.asc", value);
+            } else if (name.equals("or")) {
+                Matcher m = KEYSET.matcher(value);
+                assertTrue(value, m.matches());
+                assertEquals(m.group(1), m.group(2));
+                afterTime = micros(m.group(1));
+                afterId = m.group(3);
+            }
+        }
+
+        List<JSONObject> matching = new ArrayList<>();
+        synchronized (table) {
+            for (JSONObject row : table) {
+                long time = micros(row.optString("updated_at"));
+                String id = row.optString("id");
+                if (!row.optString("tenant_id").equals(tenant)
+                        || (since != null && time < since)
+                        || (afterTime != null && (time < afterTime || (time == afterTime && id.compareTo(afterId) <= 0)))) {
+                    continue;
+                }
+                matching.add(row);
+            }
+        }
+        Collections.sort(matching, (a, b) -> {
+            long ta = micros(a.optString("updated_at"));
+            long tb = micros(b.optString("updated_at"));
+            return ta != tb ? Long.compare(ta, tb) : a.optString("id").compareTo(b.optString("id"));
+        });
+        JSONArray result = new JSONArray();
+        for (int i = 0; i < matching.size() && i < limit; i++) {
+            result.put(matching.get(i));
+        }
+        return result;
+    }
+
+    /** Full microsecond precision, as Postgres compares them. */
+    private static long micros(String timestamp) {
+        long micros = ChangeFeed.parseTimestamp(timestamp) * 1000;
+        int dot = timestamp.indexOf('.');
+        if (dot >= 0) {
+            int digit = 0;
+            for (int i = dot + 1; i < timestamp.length() && Character.isDigit(timestamp.charAt(i)); i++, digit++) {
+                if (digit >= 3 && digit < 6) {
+                    micros += (timestamp.charAt(i) - '0') * (long) Math.pow(10, 5 - digit);
+                }
+            }
+        }
+        return micros;
+    }
+
+    private static class Recorder implements ChangeFeed.PageSink, ChangeFeed.Callback {
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<String> ids = new ArrayList<>();
+        int pages;
+        long lastWatermark;
+        int total;
+        Exception error;
+
+        @Override
+        public synchronized void onPage(JSONArray rows, long watermark) throws Exception {
+            pages++;
+            lastWatermark = watermark;
+            for (int i = 0; i < rows.length(); i++) {
+                ids.add(rows.getJSONObject(i).getString("id"));
+            }
+        }
+
+        @Override
+        public void onComplete(int rowCount) {
+            total = rowCount;
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+            done.countDown();
+        }
+    }
+}
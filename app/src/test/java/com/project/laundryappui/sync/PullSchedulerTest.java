@@ -0,0 +1,62 @@
+package com.project.laundryappui.sync;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PullSchedulerTest {
+
+    @Test
+    public void idlePassesBackOffAndChangesResetTheInterval() throws Exception {
+        // Rows changed per pass.
+        int[] script = {0, 0, 0, 0, 5, 0};
+        List<Long> intervals = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        PullScheduler[] scheduler = new PullScheduler[1];
+        scheduler[0] = new PullScheduler(Executors.newSingleThreadScheduledExecutor(), 10, 80, () -> true,
+                completion -> {
+                    int pass = intervals.size();
+                    if (pass == script.length) {
+                        done.countDown();
+                        return;
+                    }
+                    completion.onFinished(true, script[pass]);
+                    intervals.add(scheduler[0].getIntervalMs());
+                });
+        scheduler[0].start(0);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        scheduler[0].shutdown();
+        assertEquals(Arrays.asList(20L, 40L, 80L, 80L, 10L, 20L), intervals);
+    }
+
+    @Test
+    public void failuresAndOfflineBackOffAndPullNowRunsAtOnce() throws Exception {
+        boolean[] online = {false};
+        List<Boolean> passes = new ArrayList<>();
+        CountDownLatch ran = new CountDownLatch(1);
+        PullScheduler scheduler = new PullScheduler(Executors.newSingleThreadScheduledExecutor(), 10, 1000,
+                () -> online[0], completion -> {
+                    passes.add(true);
+                    completion.onFinished(false, 0);
+                    ran.countDown();
+                });
+        scheduler.start(0);
+        Thread.sleep(100);
+        assertTrue(passes.isEmpty());
+        assertTrue(scheduler.getIntervalMs() > 10);
+
+        online[0] = true;
+        scheduler.pullNow();
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertEquals(20, scheduler.getIntervalMs());
+    }
+}
@@ -0,0 +1,156 @@
+package com.project.laundryappui.sync;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SyncSchedulerTest {
+
+    @Test
+    public void burstOfRequestsIsOnePass() throws Exception {
+        List<Integer> depths = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch ran = new CountDownLatch(1);
+        SyncScheduler[] scheduler = new SyncScheduler[1];
+        scheduler[0] = new SyncScheduler(Executors.newSingleThreadScheduledExecutor(), 100, 1000, () -> true,
+                completion -> {
+                    depths.add(scheduler[0].getQueueDepth());
+                    completion.onFinished(true);
+                    ran.countDown();
+                });
+        for (int i = 0; i < 5; i++) {
+            scheduler[0].requestSync();
+        }
+
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        scheduler[0].shutdown();
+        assertEquals(Collections.singletonList(5), depths);
+        assertEquals(0, scheduler[0].getQueueDepth());
+    }
+
+    @Test
+    public void requestsDuringAPassGetOneFollowUpPass() throws Exception {
+        List<Integer> depths = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        SyncScheduler[] scheduler = new SyncScheduler[1];
+        scheduler[0] = new SyncScheduler(Executors.newSingleThreadScheduledExecutor(), 10, 1000, () -> true,
+                completion -> {
+                    depths.add(scheduler[0].getQueueDepth());
+                    if (depths.size() == 1) {
+                        firstStarted.countDown();
+                        // Finish from another thread, as the transport does.
+                        new Thread(() -> {
+                            try {
+                                releaseFirst.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            completion.onFinished(true);
+                        }).start();
+                    } else {
+                        completion.onFinished(true);
+                        secondDone.countDown();
+                    }
+                });
+        scheduler[0].requestSync();
+        assertTrue(firstStarted.await(1, TimeUnit.SECONDS));
+        scheduler[0].requestSync();
+        scheduler[0].requestSync();
+        releaseFirst.countDown();
+
+        assertTrue(secondDone.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        scheduler[0].shutdown();
+        // The second pass carries the two requests that arrived while the first was running.
+        assertEquals(Arrays.asList(1, 2), depths);
+    }
+
+    @Test
+    public void failedPassesBackOffExponentiallyUpToTheCap() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        int[] passes = new int[1];
+        CountDownLatch succeeded = new CountDownLatch(1);
+        SyncScheduler scheduler = new SyncScheduler(executor, 50, 3000, () -> true, completion -> {
+            passes[0]++;
+            boolean success = passes[0] == 5;
+            completion.onFinished(success);
+            if (success) succeeded.countDown();
+        });
+        scheduler.requestSync();
+
+        assertTrue(succeeded.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        scheduler.shutdown();
+        assertEquals(5, passes[0]);
+        assertEquals(Arrays.asList(50L, 1000L, 2000L, 3000L, 3000L), executor.delays);
+    }
+
+    @Test
+    public void failedFlushWithoutPendingRequestsIsRetried() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        int[] passes = new int[1];
+        CountDownLatch retried = new CountDownLatch(1);
+        SyncScheduler scheduler = new SyncScheduler(executor, 50, 3000, () -> true, completion -> {
+            passes[0]++;
+            completion.onFinished(passes[0] > 1);
+            if (passes[0] > 1) retried.countDown();
+        });
+        scheduler.flushNow();
+
+        assertTrue(retried.await(1, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        scheduler.shutdown();
+        assertEquals(2, passes[0]);
+        assertEquals(Arrays.asList(0L, 1000L), executor.delays);
+    }
+
+    @Test
+    public void offlineDelaysThePassWithBackoff() throws Exception {
+        RecordingExecutor executor = new RecordingExecutor();
+        boolean[] online = {false};
+        CountDownLatch ran = new CountDownLatch(1);
+        SyncScheduler scheduler = new SyncScheduler(executor, 50, 3000, () -> {
+            synchronized (online) {
+                boolean result = online[0];
+                // Comes back after three checks.
+                online[0] = executor.delays.size() >= 3;
+                return result;
+            }
+        }, completion -> {
+            completion.onFinished(true);
+            ran.countDown();
+        });
+        scheduler.requestSync();
+
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertEquals(Arrays.asList(50L, 1000L, 2000L, 3000L), executor.delays);
+    }
+
+    /** Records the requested delays and runs every task without waiting for them. */
+    private static class RecordingExecutor extends ScheduledThreadPoolExecutor {
+        final List<Long> delays = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingExecutor() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            return super.schedule(command, 0, unit);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.laundryappui.benchmarks;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.project.laundryappui.barcode.BarcodePixels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning an order's CODE_128 matrix into ARGB pixels: {@link BarcodePixels} against the
+ * bit-per-pixel walk it replaced, plus the zxing encode that precedes either.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BarcodeConversionBenchmark {
+    private static final int HEIGHT = 200;
+    private static final String CODE = "LND-1700000000000";
+
+    @Param({"400", "800"})
+    public int width;
+
+    private BitMatrix matrix;
+    private int[] pixels;
+
+    @Setup
+    public void setUp() throws WriterException {
+        matrix = encode();
+        pixels = new int[matrix.getWidth() * matrix.getHeight()];
+    }
+
+    @Benchmark
+    public int[] bulk() {
+        return BarcodePixels.toPixels(matrix, pixels);
+    }
+
+    @Benchmark
+    public int[] perPixel() {
+        int w = matrix.getWidth();
+        int h = matrix.getHeight();
+        for (int x = 0; x < w; x++) {
+            for (int y = 0; y < h; y++) {
+                pixels[y * w + x] = matrix.get(x, y) ? BarcodePixels.BLACK : BarcodePixels.WHITE;
+            }
+        }
+        return pixels;
+    }
+
+    @Benchmark
+    public BitMatrix encode() throws WriterException {
+        return new MultiFormatWriter().encode(CODE, BarcodeFormat.CODE_128, width, HEIGHT);
+    }
+}
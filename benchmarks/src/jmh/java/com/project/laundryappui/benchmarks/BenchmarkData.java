@@ -0,0 +1,47 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic orders shaped like a busy shop's, shared by the benchmarks. */
+final class BenchmarkData {
+    static final long BASE = 1_700_000_000_000L;
+    static final int CUSTOMERS = 4_999;
+
+    private BenchmarkData() {
+    }
+
+    /** {@code count} orders, one a minute from {@link #BASE}, in every status. */
+    static List<Order> orders(int count, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.id = i + 1;
+            order.code = "LND-" + (BASE + i * 60_000L);
+            order.customerId = 1 + random.nextInt(CUSTOMERS);
+            order.weightGrams = 500 + random.nextInt(8_000);
+            order.price = order.weightGrams * 7L;
+            order.createdAtMillis = BASE + i * 60_000L;
+            order.detailsUpdatedAtMillis = order.createdAtMillis;
+            order.status = (byte) random.nextInt(OrderStatus.values().length);
+            if (order.status >= OrderStatus.DICUCI.code) order.washedAtMillis = order.createdAtMillis + 3_600_000L;
+            if (order.status >= OrderStatus.SELESAI.code) order.finishedAtMillis = order.createdAtMillis + 7_200_000L;
+            if (order.status >= OrderStatus.DIAMBIL.code) order.pickedUpAtMillis = order.createdAtMillis + 86_400_000L;
+            order.version = 1 + order.status;
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    static Customer customer(long id) {
+        Customer customer = new Customer("Pelanggan " + id, "62812" + (10_000_000 + id), "Jl. Melati No. " + id);
+        customer.id = id;
+        return customer;
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.CustomerIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer type-ahead in the new-order dialog: one {@link CustomerIndex#search} per keystroke
+ * as a cashier types a name or a number in {@code 08xx} notation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerSearchBenchmark {
+    private static final int PREFIXES = 4_096;
+
+    @Param({"1000", "10000", "50000"})
+    public int customers;
+
+    private CustomerIndex index;
+    private String[] typed;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Customer> all = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            all.add(BenchmarkData.customer(i));
+        }
+        index = new CustomerIndex();
+        index.addAll(all);
+
+        // Every prefix of whole names and numbers, as successive keystrokes produce them.
+        Random random = new Random(42);
+        typed = new String[PREFIXES];
+        int count = 0;
+        while (count < PREFIXES) {
+            Customer target = all.get(random.nextInt(customers));
+            String text = count % 2 == 0 ? target.name : "0" + target.phone.substring(2);
+            for (int end = 1; end <= text.length() && count < PREFIXES; end++) {
+                typed[count++] = text.substring(0, end);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Customer> keystroke() {
+        return index.search(typed[next++ & (PREFIXES - 1)], 8);
+    }
+}
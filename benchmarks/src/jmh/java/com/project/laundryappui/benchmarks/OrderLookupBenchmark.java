@@ -0,0 +1,69 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving a scanned barcode to its order, as a scan does before a status change: the
+ * {@link OrderIndex} lookup against the list walk it replaced. Scanners append a line
+ * terminator, so codes are looked up with one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderLookupBenchmark {
+    private static final int CODES = 1_024;
+
+    @Param({"1000", "10000", "100000"})
+    public int orders;
+
+    private List<Order> list;
+    private OrderIndex index;
+    private String[] scanned;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        list = BenchmarkData.orders(orders, 1);
+        index = new OrderIndex();
+        index.addAll(list);
+        Random random = new Random(2);
+        scanned = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            scanned[i] = list.get(random.nextInt(orders)).code + "\n";
+        }
+    }
+
+    @Benchmark
+    public Order indexed() {
+        return index.findByBarcode(nextCode());
+    }
+
+    @Benchmark
+    public Order linearScan() {
+        String code = nextCode().trim();
+        for (Order order : list) {
+            if (order.code.equals(code)) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    private String nextCode() {
+        return scanned[next++ & (CODES - 1)];
+    }
+}
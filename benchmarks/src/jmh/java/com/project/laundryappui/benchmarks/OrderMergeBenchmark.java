@@ -0,0 +1,64 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.CustomerLookup;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderMerger;
+import com.project.laundryappui.data.OrderStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging a page of pulled orders into the local copies, the in-memory part of every pull.
+ * A third of the page moved one status ahead on another device and a tenth is unknown
+ * locally. Local copies are copied again per invocation, since merging changes them; the
+ * copy is part of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderMergeBenchmark {
+
+    @Param({"200", "2000", "20000"})
+    public int pageSize;
+
+    private final CustomerLookup customers = BenchmarkData::customer;
+    private List<Order> local;
+    private List<Order> incoming;
+
+    @Setup
+    public void setUp() {
+        List<Order> all = BenchmarkData.orders(pageSize, 3);
+        local = all.subList(0, pageSize - pageSize / 10);
+        incoming = new ArrayList<>(pageSize);
+        for (int i = 0; i < all.size(); i++) {
+            Order row = all.get(i).copy();
+            OrderStatus next = OrderStatus.of(row.status).next();
+            if (i % 3 == 0 && next != null) {
+                row.status = next.code;
+                row.setStatusAt(next, row.createdAtMillis + 90_000_000L);
+                row.version++;
+            }
+            incoming.add(row);
+        }
+    }
+
+    @Benchmark
+    public OrderMerger.Batch mergeAll() {
+        List<Order> copies = new ArrayList<>(local.size());
+        for (Order order : local) {
+            copies.add(order.copy());
+        }
+        return OrderMerger.mergeAll(copies, incoming, customers);
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.search.OrderSearchIndex;
+import com.project.laundryappui.search.SearchHit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typical cashier queries against {@link OrderSearchIndex}, which must each stay well within
+ * one 16 ms frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderSearchBenchmark {
+    private static final OrderSearchIndex.Cancellation NEVER = () -> false;
+
+    @Param({"1000", "10000", "100000"})
+    public int orders;
+
+    @Param({"b", "pelanggan 12", "0812", "+62 812 1000 0123", "lnd", "lnd-17000", "dicuci",
+            "pelanggan dicuci", "sudah diambil 7", "zzz"})
+    public String query;
+
+    private OrderSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new OrderSearchIndex();
+        for (Order order : BenchmarkData.orders(orders, 1)) {
+            index.put(order, BenchmarkData.customer(order.customerId));
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return index.search(query, 50, NEVER);
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordering the order list newest first: {@link Order#NEWEST_FIRST} on the primitive creation
+ * time against parsing the formatted dates the list used to keep.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderSortBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int orders;
+
+    private List<Order> shuffled;
+    private List<String> shuffledDates;
+    private SimpleDateFormat format;
+
+    private List<Order> list;
+    private List<String> dates;
+
+    @Setup
+    public void setUp() {
+        format = new SimpleDateFormat(OrderFormat.DATE_PATTERN, new Locale("id", "ID"));
+        shuffled = BenchmarkData.orders(orders, 1);
+        Collections.shuffle(shuffled, new Random(7));
+        shuffledDates = new ArrayList<>(orders);
+        for (Order order : shuffled) {
+            shuffledDates.add(format.format(new Date(order.createdAtMillis)));
+        }
+    }
+
+    /** Every invocation sorts the same unsorted input. */
+    @Setup(Level.Invocation)
+    public void copy() {
+        list = new ArrayList<>(shuffled);
+        dates = new ArrayList<>(shuffledDates);
+    }
+
+    @Benchmark
+    public List<Order> primitiveTime() {
+        list.sort(Order.NEWEST_FIRST);
+        return list;
+    }
+
+    @Benchmark
+    public List<String> parseFormatted() {
+        dates.sort(Comparator.comparingLong((String text) -> parse(text)).reversed());
+        return dates;
+    }
+
+    private long parse(String text) {
+        try {
+            return format.parse(text).getTime();
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
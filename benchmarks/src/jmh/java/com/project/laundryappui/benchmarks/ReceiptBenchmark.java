@@ -0,0 +1,45 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.print.EscPosEncoder;
+import com.project.laundryappui.print.ReceiptEncoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Laying out one 58mm receipt, into a reused buffer as the print spooler does. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReceiptBenchmark {
+    private final ReceiptEncoder receipt = new ReceiptEncoder();
+    private final EscPosEncoder out = new EscPosEncoder();
+    private Order order;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.orders(1, 4).get(0);
+        customer = BenchmarkData.customer(order.customerId);
+    }
+
+    @Benchmark
+    public int encode() {
+        receipt.encode(order, customer, out.reset());
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] encodeAndCopy() {
+        receipt.encode(order, customer, out.reset());
+        return out.toByteArray();
+    }
+}
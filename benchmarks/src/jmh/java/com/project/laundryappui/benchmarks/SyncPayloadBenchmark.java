@@ -0,0 +1,55 @@
+package com.project.laundryappui.benchmarks;
+
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.sync.OrderPayloads;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the request bodies of a sync pass: whole rows for new orders and
+ * status items for the rest. 500 is the default {@code SYNC_BATCH_SIZE}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyncPayloadBenchmark {
+    private static final String TENANT_ID = "6f1c2a4e-0b7d-4c1e-9a53-2d8e7f0b1c3a";
+
+    @Param({"50", "500", "5000"})
+    public int orders;
+
+    private final OrderPayloads payloads = new OrderPayloads();
+    private List<Order> pending;
+    private final Map<Long, String> serverCustomerIds = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        pending = BenchmarkData.orders(orders, 5);
+        for (Order order : pending) {
+            serverCustomerIds.put(order.customerId, String.format("00000000-0000-4000-8000-%012d", order.customerId));
+        }
+    }
+
+    @Benchmark
+    public String orderRows() throws JSONException {
+        return payloads.orderRows(TENANT_ID, pending, serverCustomerIds).toString();
+    }
+
+    @Benchmark
+    public String statusItems() throws JSONException {
+        return payloads.statusItems(pending).toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.laundryappui.barcode;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Converts a {@link BitMatrix} into ARGB pixels in bulk, ready for a single
+ * {@code Bitmap.setPixels()} call.
+ * <p>
+ * Each row is filled run by run instead of bit by bit, and a row identical to the one above
+ * it is copied with {@link System#arraycopy} — for 1D codes such as CODE_128 every row after
+ * the first is a copy.
+ */
+public final class BarcodePixels {
+    public static final int BLACK = 0xFF000000;
+    public static final int WHITE = 0xFFFFFFFF;
+
+    private BarcodePixels() {
+    }
+
+    /**
+     * Writes the matrix row by row into {@code pixels}, reusing it when it is large enough,
+     * and returns the array that was written.
+     */
+    public static int[] toPixels(BitMatrix matrix, int[] pixels) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] out = pixels != null && pixels.length >= width * height ? pixels : new int[width * height];
+
+        BitArray row = new BitArray(width);
+        BitArray previous = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = matrix.getRow(y, row);
+            int offset = y * width;
+            if (y > 0 && Arrays.equals(row.getBitArray(), previous.getBitArray())) {
+                System.arraycopy(out, offset - width, out, offset, width);
+            } else {
+                fillRow(row, width, out, offset);
+            }
+            BitArray swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return out;
+    }
+
+    private static void fillRow(BitArray row, int width, int[] out, int offset) {
+        int x = 0;
+        while (x < width) {
+            int black = Math.min(width, row.getNextSet(x));
+            Arrays.fill(out, offset + x, offset + black, WHITE);
+            if (black >= width) {
+                return;
+            }
+            int white = Math.min(width, row.getNextUnset(black));
+            Arrays.fill(out, offset + black, offset + white, BLACK);
+            x = white;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.laundryappui.data;
+
+public class Customer {
+    public long id;
+    public final String name;
+    public final String phone;
+    public final String address;
+
+    public Customer(String name, String phone, String address) {
+        this.name = name;
+        this.phone = phone;
+        this.address = address;
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.laundryappui.data;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sorted prefix index over customer names and normalized phone numbers for type-ahead
+ * lookup. A query walks only the matching key range and stops after {@code limit} hits, so
+ * its cost does not grow with the number of customers. Names are indexed in full and by
+ * each later word, so "san" finds "Budi Santoso".
+ * <p>
+ * Thread-safe: suggestions are filtered on a background thread while customers are added from
+ * the main and database threads.
+ */
+public class CustomerIndex {
+    private final TreeMap<String, List<Customer>> byName = new TreeMap<>();
+    private final TreeMap<String, List<Customer>> byPhone = new TreeMap<>();
+    private int size;
+
+    public synchronized void addAll(List<Customer> customers) {
+        for (Customer customer : customers) {
+            add(customer);
+        }
+    }
+
+    public synchronized void add(Customer customer) {
+        String name = normalizeName(customer.name);
+        put(byName, name, customer);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            put(byName, name.substring(i + 1), customer);
+        }
+        put(byPhone, PhoneNumbers.normalize(customer.phone), customer);
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** The first customer registered under this number in any notation, or null. */
+    public synchronized Customer findByPhone(String phone) {
+        List<Customer> matches = byPhone.get(PhoneNumbers.normalize(phone));
+        return matches == null ? null : matches.get(0);
+    }
+
+    /**
+     * Up to {@code limit} customers whose phone (if {@code query} looks like a number) or
+     * name starts with {@code query}, in key order.
+     */
+    public synchronized List<Customer> search(String query, int limit) {
+        List<Customer> result = new ArrayList<>(Math.min(limit, 16));
+        if (query == null || limit <= 0) {
+            return result;
+        }
+        String prefix;
+        TreeMap<String, List<Customer>> keys;
+        if (PhoneNumbers.looksLikePhone(query)) {
+            prefix = PhoneNumbers.normalize(query);
+            keys = byPhone;
+        } else {
+            prefix = normalizeName(query);
+            keys = byName;
+        }
+        if (prefix.isEmpty()) {
+            return result;
+        }
+
+        // A customer can match under several name keys; report it once.
+        Map<Customer, Boolean> seen = new IdentityHashMap<>();
+        for (Map.Entry<String, List<Customer>> entry : keys.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            for (Customer customer : entry.getValue()) {
+                if (seen.put(customer, Boolean.TRUE) == null) {
+                    result.add(customer);
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void put(TreeMap<String, List<Customer>> keys, String key, Customer customer) {
+        if (key.isEmpty()) {
+            return;
+        }
+        List<Customer> customers = keys.get(key);
+        if (customers == null) {
+            customers = new ArrayList<>(1);
+            keys.put(key, customers);
+        }
+        customers.add(customer);
+    }
+
+    /** Lower case with runs of whitespace collapsed to one space. */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (text.length() > 0 && text.charAt(text.length() - 1) != ' ') {
+                    text.append(' ');
+                }
+            } else {
+                text.append(c);
+            }
+        }
+        int end = text.length();
+        if (end > 0 && text.charAt(end - 1) == ' ') {
+            text.setLength(end - 1);
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+}
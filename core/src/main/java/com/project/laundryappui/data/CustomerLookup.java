@@ -0,0 +1,7 @@
+package com.project.laundryappui.data;
+
+/** Resolves the customer an order refers to. Implementations must be thread-safe. */
+public interface CustomerLookup {
+    /** The customer with this id, or null if it does not exist. */
+    Customer getCustomer(long id);
+}
@@ -0,0 +1,153 @@
+package com.project.laundryappui.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Owner dashboard figures kept up to date as orders are inserted and advanced, so every read
+ * is a lookup instead of a pass over the history: orders per status, outstanding pickups and
+ * per-day order count, revenue, weight and picked-up count. Days are calendar days in
+ * Jakarta, matching the server's {@code v_laporan_harian}, and an order counts towards the
+ * day it was created.
+ * <p>
+ * Seeded from the persisted rollups by {@link LaundryStore#getDashboard()}; safe to read
+ * from any thread.
+ */
+public class DashboardCounters {
+    private static final long DAY_MS = 24L * 60L * 60L * 1000L;
+    // Asia/Jakarta is UTC+7 all year round.
+    private static final long JAKARTA_OFFSET_MS = 7L * 60L * 60L * 1000L;
+
+    /** Totals of the orders created on one day. */
+    public static final class DayTotals {
+        public int orderCount;
+        public long revenue;
+        public long weightGrams;
+        /** Orders of that day which have since been picked up. */
+        public int pickedUpCount;
+
+        public DayTotals() {
+        }
+
+        public DayTotals(int orderCount, long revenue, long weightGrams, int pickedUpCount) {
+            this.orderCount = orderCount;
+            this.revenue = revenue;
+            this.weightGrams = weightGrams;
+            this.pickedUpCount = pickedUpCount;
+        }
+
+        DayTotals copy() {
+            return new DayTotals(orderCount, revenue, weightGrams, pickedUpCount);
+        }
+    }
+
+    private final int[] statusCounts = new int[OrderStatus.values().length];
+    private final Map<Long, DayTotals> days = new HashMap<>();
+    private int totalOrders;
+
+    /** Days since the epoch of the Jakarta calendar day containing {@code millis}. */
+    public static long dayOf(long millis) {
+        long local = millis + JAKARTA_OFFSET_MS;
+        long day = local / DAY_MS;
+        return local % DAY_MS < 0 ? day - 1 : day;
+    }
+
+    /** Start of {@code day} in epoch millis. */
+    public static long startOfDay(long day) {
+        return day * DAY_MS - JAKARTA_OFFSET_MS;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = 0;
+        }
+        days.clear();
+        totalOrders = 0;
+    }
+
+    public synchronized void setStatusCount(OrderStatus status, int count) {
+        totalOrders += count - statusCounts[status.code];
+        statusCounts[status.code] = count;
+    }
+
+    public synchronized void setDay(long day, DayTotals totals) {
+        days.put(day, totals.copy());
+    }
+
+    public synchronized void onOrderInserted(Order order) {
+        statusCounts[order.status]++;
+        totalOrders++;
+        DayTotals totals = day(dayOf(order.createdAtMillis));
+        totals.orderCount++;
+        totals.revenue += order.price;
+        totals.weightGrams += order.weightGrams;
+        if (order.status == OrderStatus.DIAMBIL.code) {
+            totals.pickedUpCount++;
+        }
+    }
+
+    /** {@code order.status} already holds the new status. */
+    public synchronized void onStatusChanged(Order order, OrderStatus oldStatus) {
+        if (oldStatus.code == order.status) {
+            return;
+        }
+        statusCounts[oldStatus.code]--;
+        statusCounts[order.status]++;
+        int pickedUp = (order.status == OrderStatus.DIAMBIL.code ? 1 : 0)
+                - (oldStatus == OrderStatus.DIAMBIL ? 1 : 0);
+        if (pickedUp != 0) {
+            day(dayOf(order.createdAtMillis)).pickedUpCount += pickedUp;
+        }
+    }
+
+    public synchronized int getStatusCount(OrderStatus status) {
+        return statusCounts[status.code];
+    }
+
+    public synchronized int getTotalOrders() {
+        return totalOrders;
+    }
+
+    /** Orders not picked up yet, the local count of {@code v_order_belum_diambil}. */
+    public synchronized int getOutstandingPickups() {
+        return totalOrders - statusCounts[OrderStatus.DIAMBIL.code];
+    }
+
+    /** A copy of the totals for {@code day} (see {@link #dayOf}); all zero if it had no orders. */
+    public synchronized DayTotals getDay(long day) {
+        DayTotals totals = days.get(day);
+        return totals != null ? totals.copy() : new DayTotals();
+    }
+
+    /**
+     * Number of days in {@code fromDay..toDay} whose order count, revenue or picked-up count
+     * differs from {@code server}. Weight is not compared; the server view does not report it.
+     * Days missing from {@code server} had no orders there.
+     */
+    public synchronized int countDriftDays(Map<Long, DayTotals> server, long fromDay, long toDay) {
+        int drift = 0;
+        for (long day = fromDay; day <= toDay; day++) {
+            DayTotals local = days.get(day);
+            DayTotals remote = server.get(day);
+            int localCount = local != null ? local.orderCount : 0;
+            int remoteCount = remote != null ? remote.orderCount : 0;
+            long localRevenue = local != null ? local.revenue : 0;
+            long remoteRevenue = remote != null ? remote.revenue : 0;
+            int localPickedUp = local != null ? local.pickedUpCount : 0;
+            int remotePickedUp = remote != null ? remote.pickedUpCount : 0;
+            if (localCount != remoteCount || localRevenue != remoteRevenue || localPickedUp != remotePickedUp) {
+                drift++;
+            }
+        }
+        return drift;
+    }
+
+    private DayTotals day(long day) {
+        DayTotals totals = days.get(day);
+        if (totals == null) {
+            totals = new DayTotals();
+            days.put(day, totals);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.laundryappui.data;
+
+import java.util.Comparator;
+
+/**
+ * One laundry order, kept compact because the list may page through many of them: no
+ * strings besides the code, and the customer is referenced by id. Use {@link OrderFormat}
+ * to display the fields and {@link CustomerLookup} to resolve the customer.
+ */
+public class Order {
+    /** List order: newest first, ties broken by id. Compares primitives only. */
+    public static final Comparator<Order> NEWEST_FIRST = (a, b) -> a.createdAtMillis != b.createdAtMillis
+            ? Long.compare(b.createdAtMillis, a.createdAtMillis)
+            : Long.compare(b.id, a.id);
+
+    public long id;
+    public long customerId;
+    public String code;
+    public long price;
+    public long createdAtMillis;
+    public int weightGrams;
+    /** An {@link OrderStatus#code}. */
+    public byte status;
+
+    /** Bumped on every local change; compared when a sync acknowledges the row. */
+    public long localVersion;
+    /** True until the server has acknowledged {@link #localVersion}. */
+    public boolean dirty;
+    /** True once the server has the row; later changes are sent as status transitions. */
+    public boolean uploaded;
+    /** The server's {@code orders.versi} when this device last heard of the row; 0 if never. */
+    public long version;
+
+    /** When the order reached each later status, in epoch millis, or 0 if unknown. */
+    public long washedAtMillis;
+    public long finishedAtMillis;
+    public long pickedUpAtMillis;
+    /** When price, weight or customer last changed; the creation time if they never did. */
+    public long detailsUpdatedAtMillis;
+
+    /** When the order reached {@code status}, or 0 if unknown. */
+    public long getStatusAt(OrderStatus status) {
+        switch (status) {
+            case MASUK:
+                return createdAtMillis;
+            case DICUCI:
+                return washedAtMillis;
+            case SELESAI:
+                return finishedAtMillis;
+            default:
+                return pickedUpAtMillis;
+        }
+    }
+
+    /** Records when the order reached {@code status}; the creation time is not changed here. */
+    public void setStatusAt(OrderStatus status, long millis) {
+        switch (status) {
+            case MASUK:
+                break;
+            case DICUCI:
+                washedAtMillis = millis;
+                break;
+            case SELESAI:
+                finishedAtMillis = millis;
+                break;
+            default:
+                pickedUpAtMillis = millis;
+                break;
+        }
+    }
+
+    /** A detached copy, for handing an order to another thread while this one stays live. */
+    public Order copy() {
+        Order copy = new Order();
+        copy.id = id;
+        copy.customerId = customerId;
+        copy.code = code;
+        copy.price = price;
+        copy.createdAtMillis = createdAtMillis;
+        copy.weightGrams = weightGrams;
+        copy.status = status;
+        copy.localVersion = localVersion;
+        copy.dirty = dirty;
+        copy.uploaded = uploaded;
+        copy.version = version;
+        copy.washedAtMillis = washedAtMillis;
+        copy.finishedAtMillis = finishedAtMillis;
+        copy.pickedUpAtMillis = pickedUpAtMillis;
+        copy.detailsUpdatedAtMillis = detailsUpdatedAtMillis;
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+package com.project.laundryappui.data;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Display formatting for the compact {@link Order} fields. Orders keep raw values and are
+ * formatted only when shown. Not thread-safe; use one instance per thread.
+ */
+public class OrderFormat {
+    public static final String DATE_PATTERN = "dd/MM/yyyy HH:mm";
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_PATTERN, new Locale("id", "ID"));
+    private final NumberFormat priceFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+    private final Date date = new Date();
+
+    public String formatDate(long millis) {
+        date.setTime(millis);
+        return dateFormat.format(date);
+    }
+
+    public String formatPrice(long price) {
+        return priceFormat.format(price);
+    }
+
+    /** {@code 3000} → {@code "3"}, {@code 2500} → {@code "2,5"}. */
+    public static String formatWeight(int grams) {
+        int kg = grams / 1000;
+        int fraction = Math.abs(grams % 1000);
+        if (fraction == 0) {
+            return Integer.toString(kg);
+        }
+        StringBuilder text = new StringBuilder(8);
+        if (grams < 0 && kg == 0) {
+            text.append('-');
+        }
+        text.append(kg).append(',');
+        if (fraction < 100) text.append('0');
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+        while (text.charAt(text.length() - 1) == '0') {
+            text.setLength(text.length() - 1);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses a weight in kg as typed, e.g. {@code "3"}, {@code "2.5"} or {@code "2,5"}, into
+     * grams rounded to the nearest gram. Returns -1 if it is not a non-negative number.
+     */
+    public static int parseWeightGrams(String kg) {
+        if (kg == null) {
+            return -1;
+        }
+        try {
+            double value = Double.parseDouble(kg.trim().replace(',', '.'));
+            if (value < 0 || value > Integer.MAX_VALUE / 1000.0 || Double.isNaN(value)) {
+                return -1;
+            }
+            return (int) Math.round(value * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.laundryappui.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index over the loaded orders so scans and lookups resolve in constant time
+ * instead of walking the whole list. With a paged list it only covers the loaded window.
+ * Status changes mutate the indexed {@link Order} in place, so the index only has to be
+ * told about loads and inserts.
+ */
+public class OrderIndex {
+    private final Map<String, Order> byCode = new HashMap<>();
+    private final Map<Long, List<Order>> byCustomer = new HashMap<>();
+
+    public void clear() {
+        byCode.clear();
+        byCustomer.clear();
+    }
+
+    public void addAll(Collection<Order> orders) {
+        for (Order order : orders) {
+            add(order);
+        }
+    }
+
+    public void add(Order order) {
+        byCode.put(order.code, order);
+        List<Order> forCustomer = byCustomer.get(order.customerId);
+        if (forCustomer == null) {
+            forCustomer = new ArrayList<>(1);
+            byCustomer.put(order.customerId, forCustomer);
+        }
+        forCustomer.add(order);
+    }
+
+    /** Forgets {@code order}, e.g. when it is evicted from a paged window. */
+    public void remove(Order order) {
+        if (byCode.get(order.code) == order) {
+            byCode.remove(order.code);
+        }
+        List<Order> forCustomer = byCustomer.get(order.customerId);
+        if (forCustomer != null) {
+            for (int i = forCustomer.size() - 1; i >= 0; i--) {
+                if (forCustomer.get(i) == order) {
+                    forCustomer.remove(i);
+                }
+            }
+            if (forCustomer.isEmpty()) {
+                byCustomer.remove(order.customerId);
+            }
+        }
+    }
+
+    public Order findByCode(String code) {
+        return code == null ? null : byCode.get(code);
+    }
+
+    /** Resolves a scanned barcode, see {@link #codeFromBarcode}. */
+    public Order findByBarcode(String barcodeValue) {
+        return barcodeValue == null ? null : byCode.get(codeFromBarcode(barcodeValue));
+    }
+
+    /**
+     * The order code in a scanned barcode value, or "" for null. Receipts encode the order
+     * code as the barcode value, but scanners may append whitespace or a line terminator to
+     * the payload.
+     */
+    public static String codeFromBarcode(String barcodeValue) {
+        return barcodeValue == null ? "" : barcodeValue.trim();
+    }
+
+    public List<Order> findByCustomer(long customerId) {
+        List<Order> forCustomer = byCustomer.get(customerId);
+        return forCustomer == null ? Collections.<Order>emptyList() : Collections.unmodifiableList(forCustomer);
+    }
+
+    public int size() {
+        return byCode.size();
+    }
+}
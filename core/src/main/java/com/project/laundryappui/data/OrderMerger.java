@@ -0,0 +1,150 @@
+package com.project.laundryappui.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges two copies of the same order, e.g. the local row and the server's, so that every
+ * device ends up with the same result whichever copy it saw first:
+ * <ul>
+ * <li>the status only moves forward, to the later of the two;</li>
+ * <li>each status time is the earliest one known, since it records when the order got there;</li>
+ * <li>price, weight and customer are last-writer-wins on {@link Order#detailsUpdatedAtMillis},
+ * a tie going to the larger price and weight and to the customer with the larger normalized
+ * phone number, which unlike the local customer id is the same on every device;</li>
+ * <li>the version is the higher one.</li>
+ * </ul>
+ * Merging is commutative, associative and idempotent, so rows can be merged again after a
+ * retry or an overlapping pull without side effects.
+ */
+public final class OrderMerger {
+
+    /** {@link #merge} changed the status of the target. */
+    public static final int STATUS = 1;
+    /** {@link #merge} changed one of the status times. */
+    public static final int STATUS_TIMES = 1 << 1;
+    /** {@link #merge} changed price, weight, customer or creation time. */
+    public static final int DETAILS = 1 << 2;
+    /** {@link #merge} raised the version. */
+    public static final int VERSION = 1 << 3;
+    /**
+     * The target is ahead of the other copy: it has a later status or an earlier status time,
+     * which a status transition should still carry to the other side.
+     */
+    public static final int AHEAD = 1 << 4;
+
+    private OrderMerger() {
+    }
+
+    /**
+     * Merges {@code other} into {@code target} in place and returns the {@code STATUS},
+     * {@code STATUS_TIMES}, {@code DETAILS}, {@code VERSION} and {@code AHEAD} bits that apply.
+     * {@code customers} resolves the customer ids of both copies.
+     */
+    public static int merge(Order target, Order other, CustomerLookup customers) {
+        int changes = 0;
+
+        if (other.status > target.status) {
+            target.status = other.status;
+            changes |= STATUS;
+        }
+
+        long washed = earliest(target.washedAtMillis, other.washedAtMillis);
+        long finished = earliest(target.finishedAtMillis, other.finishedAtMillis);
+        long pickedUp = earliest(target.pickedUpAtMillis, other.pickedUpAtMillis);
+        if (washed != target.washedAtMillis || finished != target.finishedAtMillis
+                || pickedUp != target.pickedUpAtMillis) {
+            target.washedAtMillis = washed;
+            target.finishedAtMillis = finished;
+            target.pickedUpAtMillis = pickedUp;
+            changes |= STATUS_TIMES;
+        }
+
+        boolean otherWins = other.detailsUpdatedAtMillis > target.detailsUpdatedAtMillis;
+        boolean tie = other.detailsUpdatedAtMillis == target.detailsUpdatedAtMillis;
+        long price = otherWins || (tie && other.price > target.price) ? other.price : target.price;
+        int weight = otherWins || (tie && other.weightGrams > target.weightGrams) ? other.weightGrams : target.weightGrams;
+        long customer = otherWins || (tie && other.customerId != target.customerId
+                && phoneOf(customers, other.customerId).compareTo(phoneOf(customers, target.customerId)) > 0)
+                ? other.customerId : target.customerId;
+        long createdAt = earliest(target.createdAtMillis, other.createdAtMillis);
+        if (price != target.price || weight != target.weightGrams || customer != target.customerId
+                || createdAt != target.createdAtMillis) {
+            target.price = price;
+            target.weightGrams = weight;
+            target.customerId = customer;
+            target.createdAtMillis = createdAt;
+            changes |= DETAILS;
+        }
+        target.detailsUpdatedAtMillis = Math.max(target.detailsUpdatedAtMillis, other.detailsUpdatedAtMillis);
+
+        if (other.version > target.version) {
+            target.version = other.version;
+            changes |= VERSION;
+        }
+
+        // After the merge any difference is something the other copy lacks.
+        if (target.status != other.status || target.washedAtMillis != other.washedAtMillis
+                || target.finishedAtMillis != other.finishedAtMillis || target.pickedUpAtMillis != other.pickedUpAtMillis) {
+            changes |= AHEAD;
+        }
+        return changes;
+    }
+
+    /** Outcome of {@link #mergeAll}. */
+    public static class Batch {
+        /** Incoming rows with no local copy, in incoming order. */
+        public final List<Order> unknown = new ArrayList<>();
+        /** Local copies that {@link #merge} changed, with the bits it returned (without {@link #AHEAD}). */
+        public final Map<Order, Integer> changed = new LinkedHashMap<>();
+        /** Local copies that are still ahead of the incoming row. */
+        public final List<Order> ahead = new ArrayList<>();
+    }
+
+    /**
+     * Merges each incoming row into the local copy with the same code, in place. Used for a
+     * page of a catch-up pull, whose local copies are looked up once for the whole page.
+     */
+    public static Batch mergeAll(List<Order> local, List<Order> incoming, CustomerLookup customers) {
+        Map<String, Order> byCode = new HashMap<>(local.size() * 2);
+        for (Order order : local) {
+            byCode.put(order.code, order);
+        }
+        Batch batch = new Batch();
+        for (Order row : incoming) {
+            Order target = byCode.get(row.code);
+            if (target == null) {
+                batch.unknown.add(row);
+                byCode.put(row.code, row);
+                continue;
+            }
+            int bits = merge(target, row, customers);
+            int changes = bits & ~AHEAD;
+            if (changes != 0) {
+                Integer before = batch.changed.get(target);
+                batch.changed.put(target, before == null ? changes : before | changes);
+            }
+            if ((bits & AHEAD) != 0) {
+                batch.ahead.add(target);
+            }
+        }
+        return batch;
+    }
+
+    /** The tie-break key of a customer, "" if it is unknown. */
+    private static String phoneOf(CustomerLookup customers, long customerId) {
+        Customer customer = customers.getCustomer(customerId);
+        return customer != null ? PhoneNumbers.normalize(customer.phone) : "";
+    }
+
+    /** The earlier of two times, 0 meaning unknown. */
+    private static long earliest(long a, long b) {
+        if (a == 0) {
+            return b;
+        }
+        return b == 0 ? a : Math.min(a, b);
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.laundryappui.data;
+
+import java.util.Locale;
+
+/**
+ * Order lifecycle. Orders hold only the one-byte {@link #code}; labels are stored in the
+ * database and shown in the UI, server values are sent on sync.
+ */
+public enum OrderStatus {
+    MASUK("Pesanan masuk"),
+    DICUCI("Sedang dicuci"),
+    SELESAI("Selesai dicuci"),
+    DIAMBIL("Sudah diambil");
+
+    private static final OrderStatus[] VALUES = values();
+
+    public final byte code;
+    public final String label;
+    /** e.g. {@code sedang_dicuci}. */
+    public final String serverValue;
+
+    OrderStatus(String label) {
+        this.code = (byte) ordinal();
+        this.label = label;
+        this.serverValue = label.toLowerCase(Locale.ROOT).replace(' ', '_');
+    }
+
+    public static OrderStatus of(byte code) {
+        return VALUES[code];
+    }
+
+    /** The status with this label, or null if there is none. */
+    public static OrderStatus fromLabel(String label) {
+        for (OrderStatus status : VALUES) {
+            if (status.label.equals(label)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /** The status with this {@link #serverValue}, or null if there is none. */
+    public static OrderStatus fromServerValue(String value) {
+        for (OrderStatus status : VALUES) {
+            if (status.serverValue.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /** The following step, or null once the order has been picked up. */
+    public OrderStatus next() {
+        return ordinal() + 1 < VALUES.length ? VALUES[ordinal() + 1] : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.laundryappui.data;
+
+/**
+ * Indonesian mobile numbers in one canonical form, {@code 628xx}, so that {@code 0812...},
+ * {@code +62 812...} and {@code 812...} refer to the same customer.
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Keeps digits only and rewrites a leading {@code 0} or bare {@code 8} to {@code 62}.
+     * Also works on a partially typed number, e.g. {@code "08"} becomes {@code "628"}.
+     */
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length() + 1);
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() > 0 && digits.charAt(0) == '0') {
+            digits.replace(0, 1, "62");
+        } else if (digits.length() > 0 && digits.charAt(0) == '8') {
+            digits.insert(0, "62");
+        }
+        return digits.toString();
+    }
+
+    /** True if {@code text} reads as (part of) a phone number rather than a name. */
+    public static boolean looksLikePhone(String text) {
+        boolean digit = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c != '+' && c != ' ' && c != '-' && c != '(' && c != ')') {
+                return false;
+            }
+        }
+        return digit;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.laundryappui.data;
+
+public class WhatsappMessage {
+    public static final int STATE_PENDING = 0;
+    public static final int STATE_SENT = 1;
+    public static final int STATE_FAILED = 2;
+
+    public long id;
+    public String orderCode;
+    public String orderStatus;
+    public String phone;
+    public String message;
+    public int state;
+    public int attempts;
+    public int responseCode;
+    public String responseBody;
+    public long createdAt;
+}
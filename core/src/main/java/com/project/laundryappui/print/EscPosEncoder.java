@@ -0,0 +1,149 @@
+package com.project.laundryappui.print;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Builds ESC/POS command streams for 58mm thermal printers (32 columns in font A) into a
+ * growable byte buffer that is reused between receipts; call {@link #reset()} before each.
+ * <p>
+ * Text is written as single-byte characters; anything outside printable ASCII becomes
+ * {@code ?}, since cheap printers disagree on code pages.
+ */
+public class EscPosEncoder {
+    public static final int LINE_WIDTH = 32;
+
+    public static final int ALIGN_LEFT = 0;
+    public static final int ALIGN_CENTER = 1;
+    public static final int ALIGN_RIGHT = 2;
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private byte[] buffer;
+    private int size;
+
+    public EscPosEncoder() {
+        this(1024);
+    }
+
+    public EscPosEncoder(int initialCapacity) {
+        buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    public EscPosEncoder reset() {
+        size = 0;
+        return this;
+    }
+
+    /** ESC @: clears formatting left over from a previous job. */
+    public EscPosEncoder initialize() {
+        return raw(ESC, (byte) '@');
+    }
+
+    /** ESC a n */
+    public EscPosEncoder align(int alignment) {
+        return raw(ESC, (byte) 'a', (byte) alignment);
+    }
+
+    /** ESC E n */
+    public EscPosEncoder bold(boolean on) {
+        return raw(ESC, (byte) 'E', (byte) (on ? 1 : 0));
+    }
+
+    /** GS ! n with the double-height bit. */
+    public EscPosEncoder doubleHeight(boolean on) {
+        return raw(GS, (byte) '!', (byte) (on ? 0x01 : 0x00));
+    }
+
+    public EscPosEncoder text(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            buffer[size++] = c >= 0x20 && c < 0x7F ? (byte) c : (byte) '?';
+        }
+        return this;
+    }
+
+    public EscPosEncoder line(CharSequence text) {
+        return text(text).newLine();
+    }
+
+    public EscPosEncoder newLine() {
+        return raw(LF);
+    }
+
+    /** One line with {@code left} flush left and {@code right} flush right, truncating {@code left}. */
+    public EscPosEncoder columns(CharSequence left, CharSequence right) {
+        int room = Math.max(0, LINE_WIDTH - right.length() - 1);
+        CharSequence head = left.length() > room ? left.subSequence(0, room) : left;
+        text(head);
+        repeat(' ', LINE_WIDTH - head.length() - right.length());
+        return text(right).newLine();
+    }
+
+    public EscPosEncoder separator(char c) {
+        return repeat(c, LINE_WIDTH).newLine();
+    }
+
+    /** ESC d n: prints the buffer and feeds {@code lines} lines. */
+    public EscPosEncoder feed(int lines) {
+        return raw(ESC, (byte) 'd', (byte) lines);
+    }
+
+    /**
+     * Prints {@code data} as a CODE_128 barcode (code set B) with the human-readable text
+     * below it: GS h height, GS w module width, GS H 2, then GS k 73 n {B data.
+     */
+    public EscPosEncoder barcode128(String data, int height, int moduleWidth) {
+        int length = Math.min(data.length(), 253);
+        raw(GS, (byte) 'h', (byte) height);
+        raw(GS, (byte) 'w', (byte) moduleWidth);
+        raw(GS, (byte) 'H', (byte) 2);
+        raw(GS, (byte) 'k', (byte) 73, (byte) (length + 2), (byte) '{', (byte) 'B');
+        return text(data.subSequence(0, length));
+    }
+
+    /** GS V 66 n: feeds {@code feedLines} and does a partial cut where supported. */
+    public EscPosEncoder cut(int feedLines) {
+        return raw(GS, (byte) 'V', (byte) 66, (byte) feedLines);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    private EscPosEncoder repeat(char c, int count) {
+        if (count <= 0) {
+            return this;
+        }
+        ensureCapacity(count);
+        Arrays.fill(buffer, size, size + count, (byte) c);
+        size += count;
+        return this;
+    }
+
+    private EscPosEncoder raw(byte... bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
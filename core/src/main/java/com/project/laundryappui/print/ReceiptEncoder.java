@@ -0,0 +1,65 @@
+package com.project.laundryappui.print;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderStatus;
+
+/**
+ * Lays out the 58mm order receipt as ESC/POS commands. Not thread-safe: it reuses one
+ * scratch builder for amounts and one date format.
+ */
+public class ReceiptEncoder {
+    public static final String SHOP_NAME = "Laundry Komersial";
+
+    private static final int BARCODE_HEIGHT = 80;
+    private static final int BARCODE_MODULE_WIDTH = 2;
+
+    private final StringBuilder scratch = new StringBuilder(24);
+    private final OrderFormat format = new OrderFormat();
+
+    /** Appends one complete receipt, including the cut, to {@code out}. */
+    public void encode(Order order, Customer customer, EscPosEncoder out) {
+        out.initialize()
+                .align(EscPosEncoder.ALIGN_CENTER)
+                .bold(true).doubleHeight(true).line(SHOP_NAME).doubleHeight(false).bold(false)
+                .separator('=')
+                .align(EscPosEncoder.ALIGN_LEFT)
+                .columns("Kode", order.code)
+                .columns("Tanggal", format.formatDate(order.createdAtMillis))
+                .columns("Pelanggan", customer.name)
+                .columns("No HP", customer.phone)
+                .line("Alamat: " + customer.address)
+                .columns("Berat", OrderFormat.formatWeight(order.weightGrams) + " kg")
+                .bold(true).columns("Total", formatRupiah(order.price)).bold(false)
+                .columns("Status", OrderStatus.of(order.status).label)
+                .separator('-')
+                .align(EscPosEncoder.ALIGN_CENTER)
+                .barcode128(order.code, BARCODE_HEIGHT, BARCODE_MODULE_WIDTH)
+                .newLine()
+                .line("Terima kasih")
+                .align(EscPosEncoder.ALIGN_LEFT)
+                .cut(3);
+    }
+
+    /** {@code Rp21.000}: Indonesian grouping without allocating a NumberFormat. */
+    String formatRupiah(long amount) {
+        scratch.setLength(0);
+        // Digits come off the non-positive magnitude, which also holds Long.MIN_VALUE.
+        long value = amount < 0 ? amount : -amount;
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                scratch.append('.');
+            }
+            scratch.append((char) ('0' - value % 10));
+            value /= 10;
+            digits++;
+        } while (value < 0);
+        scratch.append("pR");
+        if (amount < 0) {
+            scratch.append('-');
+        }
+        return scratch.reverse().toString();
+    }
+}
@@ -0,0 +1,389 @@
+package com.project.laundryappui.search;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.data.PhoneNumbers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over order code, customer name, customer phone and status. Each query
+ * word must match (as a prefix) at least one of those fields. Hits are ranked by how
+ * strongly the words matched (code over phone over name over status, whole words over
+ * prefixes), newest first on ties.
+ * <p>
+ * Orders are stored as dense doc ids with their display fields in parallel arrays, so the
+ * index holds no {@link Order} objects. Status is kept as one bit set per status rather than
+ * as postings, so a status change is two bit flips. Not thread-safe: confine it to one
+ * thread.
+ */
+public class OrderSearchIndex {
+
+    /** Polled while a query runs; a cancelled query returns null. */
+    public interface Cancellation {
+        boolean isCancelled();
+    }
+
+    private static final int CODE_WEIGHT = 8;
+    private static final int PHONE_WEIGHT = 6;
+    private static final int NAME_WEIGHT = 4;
+    private static final int STATUS_WEIGHT = 1;
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final String[][] STATUS_TOKENS = new String[STATUSES.length][];
+
+    static {
+        for (OrderStatus status : STATUSES) {
+            STATUS_TOKENS[status.code] = tokenize(status.label).toArray(new String[0]);
+        }
+    }
+
+    private final TreeMap<String, Postings> codeTokens = new TreeMap<>();
+    private final TreeMap<String, Postings> nameTokens = new TreeMap<>();
+    private final TreeMap<String, Postings> phoneTokens = new TreeMap<>();
+    private final BitSet[] statusDocs = new BitSet[STATUSES.length];
+    private final Map<Long, Integer> docByOrderId = new HashMap<>();
+
+    private int docCount;
+    private long[] orderIds = new long[1024];
+    private String[] codes = new String[1024];
+    private Customer[] customers = new Customer[1024];
+    private long[] prices = new long[1024];
+    private long[] createdAt = new long[1024];
+    private byte[] statuses = new byte[1024];
+    private int[] scores = new int[1024];
+
+    public OrderSearchIndex() {
+        for (int i = 0; i < statusDocs.length; i++) {
+            statusDocs[i] = new BitSet();
+        }
+    }
+
+    public int size() {
+        return docCount;
+    }
+
+    /** Adds the order, or updates it in place if it is already indexed. */
+    public void put(Order order, Customer customer) {
+        Integer existing = docByOrderId.get(order.id);
+        if (existing == null) {
+            int doc = docCount++;
+            ensureCapacity(docCount);
+            docByOrderId.put(order.id, doc);
+            orderIds[doc] = order.id;
+            store(doc, order, customer);
+            indexTokens(doc, true);
+            statusDocs[order.status].set(doc);
+            return;
+        }
+
+        int doc = existing;
+        boolean retokenize = !order.code.equals(codes[doc]) || customers[doc] != customer;
+        if (retokenize) {
+            indexTokens(doc, false);
+        }
+        statusDocs[statuses[doc]].clear(doc);
+        store(doc, order, customer);
+        statusDocs[order.status].set(doc);
+        if (retokenize) {
+            indexTokens(doc, true);
+        }
+    }
+
+    /**
+     * Up to {@code limit} hits for {@code query}, best first, or null if {@code cancel}
+     * fired meanwhile. An empty query has no hits.
+     */
+    public List<SearchHit> search(String query, int limit, Cancellation cancel) {
+        List<String> terms = queryTerms(query);
+        List<SearchHit> hits = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0 || docCount == 0) {
+            return hits;
+        }
+
+        Arrays.fill(scores, 0, docCount, 0);
+        // Status matches score per status rather than per doc; see score().
+        int[] statusBonus = new int[STATUSES.length];
+        BitSet result = null;
+        for (String term : terms) {
+            BitSet termDocs = new BitSet(docCount);
+            if (!collect(codeTokens, term, CODE_WEIGHT, termDocs, cancel)) return null;
+            if (!collect(nameTokens, term, NAME_WEIGHT, termDocs, cancel)) return null;
+            if (isDigits(term)
+                    && !collect(phoneTokens, PhoneNumbers.normalize(term), PHONE_WEIGHT, termDocs, cancel)) {
+                return null;
+            }
+            for (OrderStatus status : STATUSES) {
+                int weight = matchWeight(STATUS_TOKENS[status.code], term, STATUS_WEIGHT);
+                if (weight > 0) {
+                    termDocs.or(statusDocs[status.code]);
+                    statusBonus[status.code] += weight;
+                }
+            }
+            if (result == null) {
+                result = termDocs;
+            } else {
+                result.and(termDocs);
+            }
+            if (result.isEmpty()) {
+                return hits;
+            }
+            if (cancel.isCancelled()) {
+                return null;
+            }
+        }
+
+        // Bounded min-heap with the weakest of the best docs so far at the root. Walking from
+        // the newest doc down lets most candidates of a broad query lose a single comparison.
+        int[] heap = new int[Math.min(limit, result.cardinality())];
+        int heapSize = 0;
+        int visited = 0;
+        for (int doc = result.previousSetBit(docCount - 1); doc >= 0; doc = result.previousSetBit(doc - 1)) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++, statusBonus);
+            } else if (outranks(doc, heap[0], statusBonus)) {
+                heap[0] = doc;
+                siftDown(heap, heapSize, statusBonus);
+            }
+            if (++visited % CANCEL_CHECK_INTERVAL == 0 && cancel.isCancelled()) {
+                return null;
+            }
+        }
+        while (heapSize > 0) {
+            int doc = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, statusBonus);
+            hits.add(new SearchHit(orderIds[doc], codes[doc], customers[doc] != null ? customers[doc].id : 0,
+                    prices[doc], createdAt[doc], statuses[doc], score(doc, statusBonus)));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private int score(int doc, int[] statusBonus) {
+        return scores[doc] + statusBonus[statuses[doc]];
+    }
+
+    /** Higher score first, then newer, then the later doc. */
+    private boolean outranks(int a, int b, int[] statusBonus) {
+        int scoreA = score(a, statusBonus);
+        int scoreB = score(b, statusBonus);
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        if (createdAt[a] != createdAt[b]) {
+            return createdAt[a] > createdAt[b];
+        }
+        return a > b;
+    }
+
+    private void siftUp(int[] heap, int i, int[] statusBonus) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!outranks(heap[parent], heap[i], statusBonus)) {
+                return;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, int[] statusBonus) {
+        int i = 0;
+        while (true) {
+            int weakest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && outranks(heap[weakest], heap[left], statusBonus)) weakest = left;
+            if (right < size && outranks(heap[weakest], heap[right], statusBonus)) weakest = right;
+            if (weakest == i) {
+                return;
+            }
+            int swap = heap[weakest];
+            heap[weakest] = heap[i];
+            heap[i] = swap;
+            i = weakest;
+        }
+    }
+
+    /** ORs the postings of every key starting with {@code prefix} into {@code docs}. */
+    private boolean collect(TreeMap<String, Postings> keys, String prefix, int weight, BitSet docs,
+                            Cancellation cancel) {
+        if (prefix.isEmpty()) {
+            return true;
+        }
+        int visited = 0;
+        for (Map.Entry<String, Postings> entry : keys.tailMap(prefix, true).entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            // Whole-word matches outrank prefix matches.
+            int score = key.length() == prefix.length() ? weight * 2 : weight;
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                docs.set(doc);
+                scores[doc] += score;
+            }
+            visited += postings.size + 1;
+            if (visited >= CANCEL_CHECK_INTERVAL) {
+                if (cancel.isCancelled()) {
+                    return false;
+                }
+                visited = 0;
+            }
+        }
+        return true;
+    }
+
+    private void store(int doc, Order order, Customer customer) {
+        codes[doc] = order.code;
+        customers[doc] = customer;
+        prices[doc] = order.price;
+        createdAt[doc] = order.createdAtMillis;
+        statuses[doc] = order.status;
+    }
+
+    private void indexTokens(int doc, boolean add) {
+        for (String token : tokenize(codes[doc])) {
+            update(codeTokens, token, doc, add);
+        }
+        Customer customer = customers[doc];
+        if (customer != null) {
+            for (String token : tokenize(customer.name)) {
+                update(nameTokens, token, doc, add);
+            }
+            update(phoneTokens, PhoneNumbers.normalize(customer.phone), doc, add);
+        }
+    }
+
+    private static void update(TreeMap<String, Postings> keys, String key, int doc, boolean add) {
+        if (key.isEmpty()) {
+            return;
+        }
+        Postings postings = keys.get(key);
+        if (add) {
+            if (postings == null) {
+                postings = new Postings();
+                keys.put(key, postings);
+            }
+            postings.add(doc);
+        } else if (postings != null) {
+            postings.remove(doc);
+            if (postings.size == 0) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= orderIds.length) {
+            return;
+        }
+        int length = Math.max(capacity, orderIds.length * 2);
+        orderIds = Arrays.copyOf(orderIds, length);
+        codes = Arrays.copyOf(codes, length);
+        customers = Arrays.copyOf(customers, length);
+        prices = Arrays.copyOf(prices, length);
+        createdAt = Arrays.copyOf(createdAt, length);
+        statuses = Arrays.copyOf(statuses, length);
+        scores = new int[length];
+    }
+
+    private static int matchWeight(String[] tokens, String term, int weight) {
+        int best = 0;
+        for (String token : tokens) {
+            if (token.startsWith(term)) {
+                best = Math.max(best, token.length() == term.length() ? weight * 2 : weight);
+            }
+        }
+        return best;
+    }
+
+    private static boolean isDigits(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Query words: like {@link #tokenize}, but digit groups typed with separators, e.g.
+     * {@code "+62 812-3456"}, are joined into one number.
+     */
+    static List<String> queryTerms(String query) {
+        List<String> tokens = tokenize(query);
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            int last = terms.size() - 1;
+            if (last >= 0 && isDigits(token) && isDigits(terms.get(last))) {
+                terms.set(last, terms.get(last) + token);
+            } else {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /** Distinct lower-case runs of letters and digits; "LND-1700" gives "lnd" and "1700". */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>(4);
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** Growable, unsorted doc id list; docs are appended in id order on the initial build. */
+    private static final class Postings {
+        int[] docs = new int[2];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
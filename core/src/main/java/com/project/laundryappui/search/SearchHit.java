@@ -0,0 +1,23 @@
+package com.project.laundryappui.search;
+
+/** One ranked search result; enough to show the order without loading it. */
+public class SearchHit {
+    public final long orderId;
+    public final String code;
+    public final long customerId;
+    public final long price;
+    public final long createdAtMillis;
+    /** An {@link com.project.laundryappui.data.OrderStatus#code}. */
+    public final byte status;
+    public final int score;
+
+    SearchHit(long orderId, String code, long customerId, long price, long createdAtMillis, byte status, int score) {
+        this.orderId = orderId;
+        this.code = code;
+        this.customerId = customerId;
+        this.price = price;
+        this.createdAtMillis = createdAtMillis;
+        this.status = status;
+        this.score = score;
+    }
+}
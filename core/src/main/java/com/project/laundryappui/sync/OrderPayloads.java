@@ -0,0 +1,100 @@
+package com.project.laundryappui.sync;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+import com.project.laundryappui.data.PhoneNumbers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Builds the JSON the sync sends for a pass of dirty orders. Not thread-safe: it reuses one
+ * date format.
+ */
+public class OrderPayloads {
+    private final SimpleDateFormat isoUtc = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+
+    public OrderPayloads() {
+        isoUtc.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * Rows for the {@code customers} upsert on {@code tenant_id,no_telepon}, which must go
+     * first: the server's orders reference its customer ids.
+     */
+    public JSONArray customerRows(String tenantId, List<Customer> customers) throws JSONException {
+        JSONArray rows = new JSONArray();
+        for (Customer customer : customers) {
+            JSONObject c = new JSONObject();
+            c.put("tenant_id", tenantId);
+            c.put("nama", customer.name);
+            c.put("no_telepon", PhoneNumbers.normalize(customer.phone));
+            c.put("alamat", customer.address);
+            rows.put(c);
+        }
+        return rows;
+    }
+
+    /**
+     * Whole rows for the {@code orders} upsert, for orders the server does not have yet.
+     * {@code serverCustomerIds} maps each order's local {@code customerId} to the server's id
+     * for that customer.
+     */
+    public JSONArray orderRows(String tenantId, List<Order> orders, Map<Long, String> serverCustomerIds)
+            throws JSONException {
+        JSONArray rows = new JSONArray();
+        for (Order order : orders) {
+            String customerId = serverCustomerIds.get(order.customerId);
+            if (customerId == null) {
+                throw new JSONException("No server id for customer " + order.customerId + " of " + order.code);
+            }
+            JSONObject o = new JSONObject();
+            o.put("tenant_id", tenantId);
+            o.put("kode", order.code);
+            o.put("customer_id", customerId);
+            o.put("berat_kg", order.weightGrams / 1000.0);
+            o.put("total_idr", order.price);
+            // The local creation time, so the server reports the order on the same day.
+            o.put("created_at", isoUtc.format(new Date(order.createdAtMillis)));
+            o.put("details_updated_at", isoUtc.format(new Date(order.detailsUpdatedAtMillis)));
+            o.put("status", OrderStatus.of(order.status).serverValue);
+            putStatusTimes(o, order);
+            o.put("barcode_value", order.code);
+            rows.put(o);
+        }
+        return rows;
+    }
+
+    /**
+     * Items for {@code update_order_statuses}, for orders the server already has: the current
+     * status, the server version it was last seen at, and when it reached each status.
+     */
+    public JSONArray statusItems(List<Order> orders) throws JSONException {
+        JSONArray items = new JSONArray();
+        for (Order order : orders) {
+            JSONObject item = new JSONObject();
+            item.put("kode", order.code);
+            item.put("status", OrderStatus.of(order.status).serverValue);
+            if (order.version > 0) item.put("versi", order.version);
+            putStatusTimes(item, order);
+            items.put(item);
+        }
+        return items;
+    }
+
+    /** When the order reached each status, for the columns the server keeps them in. */
+    private void putStatusTimes(JSONObject row, Order order) throws JSONException {
+        if (order.washedAtMillis > 0) row.put("sedang_dicuci_at", isoUtc.format(new Date(order.washedAtMillis)));
+        if (order.finishedAtMillis > 0) row.put("selesai_dicuci_at", isoUtc.format(new Date(order.finishedAtMillis)));
+        if (order.pickedUpAtMillis > 0) row.put("diambil_at", isoUtc.format(new Date(order.pickedUpAtMillis)));
+    }
+}
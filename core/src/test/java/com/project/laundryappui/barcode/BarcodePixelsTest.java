@@ -0,0 +1,45 @@
+package com.project.laundryappui.barcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.common.BitMatrix;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** {@link BarcodePixels} against a plain bit-per-pixel walk. Timings are in the JMH module. */
+public class BarcodePixelsTest {
+
+    @Test
+    public void matchesMatrixForLinearCodes() throws Exception {
+        BitMatrix matrix = new MultiFormatWriter().encode("LND-1700000000000", BarcodeFormat.CODE_128, 800, 200);
+        int[] pixels = BarcodePixels.toPixels(matrix, null);
+
+        int[] expected = new int[matrix.getWidth() * matrix.getHeight()];
+        perPixel(matrix, expected);
+        assertArrayEquals(expected, pixels);
+        // Large enough buffers are reused.
+        assertSame(pixels, BarcodePixels.toPixels(matrix, pixels));
+    }
+
+    @Test
+    public void matchesMatrixForTwoDimensionalCodes() throws Exception {
+        BitMatrix matrix = new MultiFormatWriter().encode("LND-1700000000000", BarcodeFormat.QR_CODE, 101, 101);
+        int[] pixels = BarcodePixels.toPixels(matrix, new int[4]);
+
+        int[] expected = new int[matrix.getWidth() * matrix.getHeight()];
+        perPixel(matrix, expected);
+        assertArrayEquals(expected, pixels);
+    }
+
+    private static void perPixel(BitMatrix matrix, int[] out) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                out[y * width + x] = matrix.get(x, y) ? BarcodePixels.BLACK : BarcodePixels.WHITE;
+            }
+        }
+    }
+}
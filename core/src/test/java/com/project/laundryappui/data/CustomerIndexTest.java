@@ -0,0 +1,40 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CustomerIndexTest {
+    private static final int LIMIT = 8;
+
+    @Test
+    public void phoneNotationsResolveToSameCustomer() {
+        CustomerIndex index = new CustomerIndex();
+        Customer budi = new Customer("Budi Santoso", "0812-3456-7890", "Jl. Melati 5");
+        index.add(budi);
+        index.add(new Customer("Budiman", "628129999999", "Jl. Mawar 1"));
+
+        assertSame(budi, index.findByPhone("081234567890"));
+        assertSame(budi, index.findByPhone("+62 812 3456 7890"));
+        assertSame(budi, index.findByPhone("6281234567890"));
+        assertNull(index.findByPhone("081200000000"));
+
+        assertEquals(1, index.search("+62812345", LIMIT).size());
+        assertEquals(2, index.search("0812", LIMIT).size());
+        assertEquals(2, index.search("bud", LIMIT).size());
+        assertEquals(1, index.search("budi  san", LIMIT).size());
+        assertSame(budi, index.search("SANTO", LIMIT).get(0));
+        assertTrue(index.search("x", LIMIT).isEmpty());
+    }
+
+    @Test
+    public void normalizesPhones() {
+        assertEquals("6281234567890", PhoneNumbers.normalize("0812 3456 7890"));
+        assertEquals("6281234567890", PhoneNumbers.normalize("+62-812-3456-7890"));
+        assertEquals("6281234567890", PhoneNumbers.normalize("81234567890"));
+        assertEquals("628", PhoneNumbers.normalize("08"));
+        assertEquals("", PhoneNumbers.normalize("abc"));
+        assertTrue(PhoneNumbers.looksLikePhone("+62 812"));
+        assertFalse(PhoneNumbers.looksLikePhone("Budi 2"));
+    }
+}
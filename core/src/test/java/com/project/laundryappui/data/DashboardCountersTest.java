@@ -0,0 +1,108 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DashboardCountersTest {
+
+    @Test
+    public void daysFollowTheJakartaCalendar() throws Exception {
+        long lateEvening = jakarta("2026-10-17 23:59");
+        long afterMidnight = jakarta("2026-10-18 00:00");
+        assertEquals(DashboardCounters.dayOf(jakarta("2026-10-17 00:00")), DashboardCounters.dayOf(lateEvening));
+        assertEquals(DashboardCounters.dayOf(lateEvening) + 1, DashboardCounters.dayOf(afterMidnight));
+        assertEquals(afterMidnight, DashboardCounters.startOfDay(DashboardCounters.dayOf(afterMidnight)));
+    }
+
+    @Test
+    public void insertsAndTransitionsUpdateEveryCounter() throws Exception {
+        DashboardCounters counters = new DashboardCounters();
+        Order first = order(jakarta("2026-10-17 08:00"), 25_000, 2500);
+        Order second = order(jakarta("2026-10-17 19:30"), 10_000, 1000);
+        Order nextDay = order(jakarta("2026-10-18 07:00"), 7_000, 700);
+        counters.onOrderInserted(first);
+        counters.onOrderInserted(second);
+        counters.onOrderInserted(nextDay);
+
+        long day = DashboardCounters.dayOf(first.createdAtMillis);
+        DashboardCounters.DayTotals totals = counters.getDay(day);
+        assertEquals(2, totals.orderCount);
+        assertEquals(35_000, totals.revenue);
+        assertEquals(3500, totals.weightGrams);
+        assertEquals(3, counters.getStatusCount(OrderStatus.MASUK));
+        assertEquals(3, counters.getOutstandingPickups());
+
+        // Walk the first order all the way to picked up, as moveToNextStatus does.
+        for (OrderStatus next = OrderStatus.DICUCI; next != null; next = next.next()) {
+            OrderStatus old = OrderStatus.of(first.status);
+            first.status = next.code;
+            counters.onStatusChanged(first, old);
+        }
+        assertEquals(2, counters.getStatusCount(OrderStatus.MASUK));
+        assertEquals(0, counters.getStatusCount(OrderStatus.SELESAI));
+        assertEquals(1, counters.getStatusCount(OrderStatus.DIAMBIL));
+        assertEquals(2, counters.getOutstandingPickups());
+        assertEquals(3, counters.getTotalOrders());
+        assertEquals(1, counters.getDay(day).pickedUpCount);
+        assertEquals(0, counters.getDay(day + 1).pickedUpCount);
+        assertEquals(0, counters.getDay(day + 2).orderCount);
+    }
+
+    @Test
+    public void seededCountersMatchIncrementalOnes() throws Exception {
+        DashboardCounters seeded = new DashboardCounters();
+        seeded.setStatusCount(OrderStatus.MASUK, 4);
+        seeded.setStatusCount(OrderStatus.DIAMBIL, 6);
+        long day = DashboardCounters.dayOf(jakarta("2026-10-17 12:00"));
+        seeded.setDay(day, new DashboardCounters.DayTotals(10, 100_000, 12_000, 6));
+
+        assertEquals(10, seeded.getTotalOrders());
+        assertEquals(4, seeded.getOutstandingPickups());
+        seeded.setStatusCount(OrderStatus.MASUK, 3);
+        assertEquals(9, seeded.getTotalOrders());
+
+        // Reads hand out copies; callers cannot corrupt the counters.
+        seeded.getDay(day).orderCount = 99;
+        assertEquals(10, seeded.getDay(day).orderCount);
+    }
+
+    @Test
+    public void countsDaysThatDisagreeWithTheServer() throws Exception {
+        DashboardCounters counters = new DashboardCounters();
+        long day = DashboardCounters.dayOf(jakarta("2026-10-17 12:00"));
+        counters.setDay(day, new DashboardCounters.DayTotals(2, 30_000, 3000, 1));
+        counters.setDay(day - 1, new DashboardCounters.DayTotals(1, 5_000, 500, 0));
+
+        Map<Long, DashboardCounters.DayTotals> server = new HashMap<>();
+        // Weight is not part of the server view, so it never counts as drift.
+        server.put(day, new DashboardCounters.DayTotals(2, 30_000, 0, 1));
+        server.put(day - 1, new DashboardCounters.DayTotals(1, 5_000, 0, 0));
+        assertEquals(0, counters.countDriftDays(server, day - 6, day));
+
+        server.put(day - 1, new DashboardCounters.DayTotals(1, 5_000, 0, 1));
+        server.put(day - 3, new DashboardCounters.DayTotals(1, 8_000, 0, 0));
+        assertEquals(2, counters.countDriftDays(server, day - 6, day));
+    }
+
+    private static Order order(long createdAt, long price, int weightGrams) {
+        Order order = new Order();
+        order.createdAtMillis = createdAt;
+        order.price = price;
+        order.weightGrams = weightGrams;
+        order.status = OrderStatus.MASUK.code;
+        return order;
+    }
+
+    private static long jakarta(String dateTime) throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("Asia/Jakarta"));
+        return format.parse(dateTime).getTime();
+    }
+}
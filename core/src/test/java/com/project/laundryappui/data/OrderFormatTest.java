@@ -0,0 +1,40 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OrderFormatTest {
+
+    @Test
+    public void parsesTypedWeightsIntoGrams() {
+        assertEquals(3000, OrderFormat.parseWeightGrams("3"));
+        assertEquals(2500, OrderFormat.parseWeightGrams("2.5"));
+        assertEquals(2500, OrderFormat.parseWeightGrams(" 2,5 "));
+        assertEquals(1235, OrderFormat.parseWeightGrams("1.2345"));
+        assertEquals(-1, OrderFormat.parseWeightGrams("tiga"));
+        assertEquals(-1, OrderFormat.parseWeightGrams("-1"));
+        assertEquals(-1, OrderFormat.parseWeightGrams(null));
+    }
+
+    @Test
+    public void formatsGramsAsKg() {
+        assertEquals("3", OrderFormat.formatWeight(3000));
+        assertEquals("2,5", OrderFormat.formatWeight(2500));
+        assertEquals("0,05", OrderFormat.formatWeight(50));
+        assertEquals("1,234", OrderFormat.formatWeight(1234));
+        assertEquals("0", OrderFormat.formatWeight(0));
+    }
+
+    @Test
+    public void statusesRoundTripThroughCodesAndLabels() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertSame(status, OrderStatus.of(status.code));
+            assertSame(status, OrderStatus.fromLabel(status.label));
+        }
+        assertEquals("sedang_dicuci", OrderStatus.DICUCI.serverValue);
+        assertSame(OrderStatus.DICUCI, OrderStatus.MASUK.next());
+        assertNull(OrderStatus.DIAMBIL.next());
+        assertNull(OrderStatus.fromLabel("Hilang"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/** Lookup latency against the old linear walk is measured by the JMH OrderLookupBenchmark. */
+public class OrderIndexTest {
+
+    @Test
+    public void findsByCodeBarcodeAndCustomer() {
+        List<Order> orders = createOrders(10);
+        OrderIndex index = new OrderIndex();
+        index.addAll(orders);
+
+        Order first = orders.get(0);
+        assertSame(first, index.findByCode(first.code));
+        assertSame(first, index.findByBarcode(first.code + "\n"));
+        assertTrue(index.findByCustomer(first.customerId).contains(first));
+        assertNull(index.findByCode("LND-unknown"));
+        assertNull(index.findByBarcode(null));
+        assertTrue(index.findByCustomer(-1).isEmpty());
+    }
+
+    @Test
+    public void stripsScannerPadding() {
+        assertEquals("LND-1", OrderIndex.codeFromBarcode(" LND-1\r\n"));
+        assertEquals("", OrderIndex.codeFromBarcode(null));
+    }
+
+    private static List<Order> createOrders(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        long base = 1_700_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            Order order = new Order();
+            order.code = "LND-" + (base + i);
+            order.customerId = i % 500 + 1;
+            order.weightGrams = 3000;
+            order.price = 21000;
+            order.status = OrderStatus.MASUK.code;
+            order.createdAtMillis = base + i;
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrderMergerTest {
+    private static final long BASE = 1_700_000_000_000L;
+    /** Phone numbers in the reverse order of the ids, so a tie broken on the id would show. */
+    private static final CustomerLookup CUSTOMERS = id -> new Customer("Pelanggan " + id, "0812" + (9 - id), null);
+
+    @Test
+    public void statusOnlyMovesForward() {
+        Order local = order(OrderStatus.DIAMBIL);
+        local.pickedUpAtMillis = BASE + 3_000;
+        Order stale = order(OrderStatus.DICUCI);
+        stale.washedAtMillis = BASE + 1_000;
+
+        int changes = OrderMerger.merge(local, stale, CUSTOMERS);
+        assertEquals(OrderStatus.DIAMBIL.code, local.status);
+        // The stale copy still knew when washing started.
+        assertEquals(BASE + 1_000, local.washedAtMillis);
+        assertEquals(OrderMerger.STATUS_TIMES | OrderMerger.AHEAD, changes);
+    }
+
+    @Test
+    public void concurrentScansConvergeOnEarliestTimes() {
+        // Two cashiers marked the same order finished a few seconds apart.
+        Order first = order(OrderStatus.SELESAI);
+        first.finishedAtMillis = BASE + 5_000;
+        Order second = order(OrderStatus.SELESAI);
+        second.finishedAtMillis = BASE + 9_000;
+        second.version = 4;
+
+        Order a = first.copy();
+        Order b = second.copy();
+        OrderMerger.merge(a, second, CUSTOMERS);
+        OrderMerger.merge(b, first, CUSTOMERS);
+        assertConverged(a, b);
+        assertEquals(BASE + 5_000, a.finishedAtMillis);
+        assertEquals(4, a.version);
+        // The first cashier's copy still has the earlier time to send.
+        assertTrue((OrderMerger.merge(first.copy(), second, CUSTOMERS) & OrderMerger.AHEAD) != 0);
+        assertEquals(0, OrderMerger.merge(second.copy(), first, CUSTOMERS) & OrderMerger.AHEAD);
+    }
+
+    @Test
+    public void detailsAreLastWriterWins() {
+        Order local = order(OrderStatus.MASUK);
+        local.price = 21_000;
+        local.detailsUpdatedAtMillis = BASE + 2_000;
+        Order remote = order(OrderStatus.DICUCI);
+        remote.price = 18_000;
+        remote.weightGrams = 2_500;
+        remote.detailsUpdatedAtMillis = BASE + 1_000;
+
+        int changes = OrderMerger.merge(local, remote, CUSTOMERS);
+        assertEquals(21_000, local.price);
+        assertEquals(3_000, local.weightGrams);
+        assertEquals(0, changes & OrderMerger.DETAILS);
+        assertEquals(OrderMerger.STATUS, changes & OrderMerger.STATUS);
+
+        remote.detailsUpdatedAtMillis = BASE + 3_000;
+        changes = OrderMerger.merge(local, remote, CUSTOMERS);
+        assertEquals(18_000, local.price);
+        assertEquals(2_500, local.weightGrams);
+        assertEquals(BASE + 3_000, local.detailsUpdatedAtMillis);
+        assertEquals(OrderMerger.DETAILS, changes);
+    }
+
+    @Test
+    public void customerTieIsBrokenTheSameWayOnEveryDevice() {
+        // Budi and Siti have different local ids on the two devices.
+        Customer budi = new Customer("Budi", "081200000001", null);
+        Customer siti = new Customer("Siti", "+62 812 0000 0002", null);
+        CustomerLookup deviceA = id -> id == 1 ? budi : siti;
+        CustomerLookup deviceB = id -> id == 1 ? siti : budi;
+
+        Order a = order(OrderStatus.MASUK);
+        a.customerId = 1;
+        Order fromB = order(OrderStatus.MASUK);
+        fromB.customerId = 2;
+        OrderMerger.merge(a, fromB, deviceA);
+
+        Order b = order(OrderStatus.MASUK);
+        b.customerId = 1;
+        Order fromA = order(OrderStatus.MASUK);
+        fromA.customerId = 2;
+        OrderMerger.merge(b, fromA, deviceB);
+
+        assertSame(siti, deviceA.getCustomer(a.customerId));
+        assertSame(siti, deviceB.getCustomer(b.customerId));
+    }
+
+    @Test
+    public void mergeIsCommutativeAndIdempotent() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            Order x = randomOrder(random);
+            Order y = randomOrder(random);
+            Order z = randomOrder(random);
+
+            Order xy = x.copy();
+            OrderMerger.merge(xy, y, CUSTOMERS);
+            Order yx = y.copy();
+            OrderMerger.merge(yx, x, CUSTOMERS);
+            assertConverged(xy, yx);
+
+            Order again = xy.copy();
+            assertEquals(0, OrderMerger.merge(again, y, CUSTOMERS) & ~OrderMerger.AHEAD);
+            assertEquals(0, OrderMerger.merge(again, xy, CUSTOMERS));
+
+            Order left = xy.copy();
+            OrderMerger.merge(left, z, CUSTOMERS);
+            Order right = y.copy();
+            OrderMerger.merge(right, z, CUSTOMERS);
+            OrderMerger.merge(right, x, CUSTOMERS);
+            assertConverged(left, right);
+        }
+    }
+
+    @Test
+    public void mergeAllSeparatesUnknownChangedAndAhead() {
+        Order same = order(OrderStatus.DICUCI);
+        same.code = "LDR-1";
+        same.washedAtMillis = BASE;
+        Order behind = order(OrderStatus.MASUK);
+        behind.code = "LDR-2";
+        Order ahead = order(OrderStatus.DIAMBIL);
+        ahead.code = "LDR-3";
+        ahead.pickedUpAtMillis = BASE;
+        List<Order> local = Arrays.asList(same, behind, ahead);
+
+        List<Order> incoming = new ArrayList<>();
+        for (Order order : local) {
+            Order remote = order.copy();
+            remote.status = OrderStatus.DICUCI.code;
+            remote.washedAtMillis = BASE;
+            remote.pickedUpAtMillis = 0;
+            incoming.add(remote);
+        }
+        Order fresh = order(OrderStatus.MASUK);
+        fresh.code = "LDR-4";
+        incoming.add(fresh);
+
+        OrderMerger.Batch batch = OrderMerger.mergeAll(local, incoming, CUSTOMERS);
+        assertEquals(Arrays.asList(fresh), batch.unknown);
+        assertEquals(2, batch.changed.size());
+        assertEquals(Integer.valueOf(OrderMerger.STATUS | OrderMerger.STATUS_TIMES), batch.changed.get(behind));
+        // Picked up here, but the server knew when washing started.
+        assertEquals(Integer.valueOf(OrderMerger.STATUS_TIMES), batch.changed.get(ahead));
+        assertEquals(Arrays.asList(ahead), batch.ahead);
+        assertEquals(OrderStatus.DIAMBIL.code, ahead.status);
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.code = "LDR-1";
+        order.customerId = 1;
+        order.price = 24_000;
+        order.weightGrams = 3_000;
+        order.status = status.code;
+        order.createdAtMillis = BASE;
+        order.detailsUpdatedAtMillis = BASE;
+        return order;
+    }
+
+    private static Order randomOrder(Random random) {
+        Order order = order(OrderStatus.of((byte) random.nextInt(4)));
+        order.price = 10_000 + 1_000 * random.nextInt(3);
+        order.weightGrams = 1_000 * random.nextInt(3);
+        order.customerId = 1 + random.nextInt(3);
+        order.detailsUpdatedAtMillis = BASE + random.nextInt(3);
+        order.washedAtMillis = random.nextBoolean() ? 0 : BASE + random.nextInt(3);
+        order.finishedAtMillis = random.nextBoolean() ? 0 : BASE + random.nextInt(3);
+        order.pickedUpAtMillis = random.nextBoolean() ? 0 : BASE + random.nextInt(3);
+        order.version = random.nextInt(3);
+        return order;
+    }
+
+    private static void assertConverged(Order expected, Order actual) {
+        assertEquals(expected.status, actual.status);
+        assertEquals(expected.washedAtMillis, actual.washedAtMillis);
+        assertEquals(expected.finishedAtMillis, actual.finishedAtMillis);
+        assertEquals(expected.pickedUpAtMillis, actual.pickedUpAtMillis);
+        assertEquals(expected.price, actual.price);
+        assertEquals(expected.weightGrams, actual.weightGrams);
+        assertEquals(expected.customerId, actual.customerId);
+        assertEquals(expected.createdAtMillis, actual.createdAtMillis);
+        assertEquals(expected.detailsUpdatedAtMillis, actual.detailsUpdatedAtMillis);
+        assertEquals(expected.version, actual.version);
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.laundryappui.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrderTest {
+    private static final long BASE = 1_700_000_000_000L;
+
+    @Test
+    public void sortsNewestFirstByCreationTimeThenId() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Order order = new Order();
+            order.id = i + 1;
+            // Pairs of orders share a minute, so the id breaks the tie.
+            order.createdAtMillis = BASE + (i / 2) * 60_000L;
+            orders.add(order);
+        }
+        Collections.shuffle(orders, new Random(7));
+
+        orders.sort(Order.NEWEST_FIRST);
+
+        for (int i = 1; i < orders.size(); i++) {
+            assertTrue(Order.NEWEST_FIRST.compare(orders.get(i - 1), orders.get(i)) < 0);
+        }
+        assertEquals(1_000, orders.get(0).id);
+        assertEquals(999, orders.get(1).id);
+        assertEquals(1, orders.get(999).id);
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.laundryappui.print;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderFormat;
+import com.project.laundryappui.data.OrderStatus;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class ReceiptEncoderTest {
+
+    @Test
+    public void encodesReceiptToGoldenBytes() throws Exception {
+        Order order = new Order();
+        order.code = "LND-1700000000000";
+        order.createdAtMillis = new SimpleDateFormat(OrderFormat.DATE_PATTERN, new Locale("id", "ID"))
+                .parse("14/11/2023 22:13").getTime();
+        order.weightGrams = 3000;
+        order.price = 21000;
+        order.status = OrderStatus.MASUK.code;
+        Customer customer = new Customer("Budi Santoso", "081234567890", "Jl. Melati 5");
+
+        EscPosEncoder out = new EscPosEncoder(16);
+        new ReceiptEncoder().encode(order, customer, out);
+
+        byte[] golden = bytes(
+                0x1B, '@',
+                0x1B, 'a', 1,
+                0x1B, 'E', 1, 0x1D, '!', 1, "Laundry Komersial\n", 0x1D, '!', 0, 0x1B, 'E', 0,
+                "================================\n",
+                0x1B, 'a', 0,
+                "Kode           LND-1700000000000\n",
+                "Tanggal         14/11/2023 22:13\n",
+                "Pelanggan           Budi Santoso\n",
+                "No HP               081234567890\n",
+                "Alamat: Jl. Melati 5\n",
+                "Berat                       3 kg\n",
+                0x1B, 'E', 1, "Total                   Rp21.000\n", 0x1B, 'E', 0,
+                "Status             Pesanan masuk\n",
+                "--------------------------------\n",
+                0x1B, 'a', 1,
+                0x1D, 'h', 80, 0x1D, 'w', 2, 0x1D, 'H', 2,
+                0x1D, 'k', 73, 19, '{', 'B', "LND-1700000000000",
+                "\n",
+                "Terima kasih\n",
+                0x1B, 'a', 0,
+                0x1D, 'V', 66, 3);
+        assertArrayEquals(golden, out.toByteArray());
+    }
+
+    @Test
+    public void reusesBufferAndTruncatesLongColumns() throws Exception {
+        EscPosEncoder out = new EscPosEncoder();
+        out.columns("Pelanggan dengan nama yang sangat panjang", "Rp1.000");
+        out.reset().columns("Pelanggan dengan nama yang sangat panjang", "Rp1.000").text("é");
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        out.writeTo(written);
+        assertEquals("Pelanggan dengan nama ya Rp1.000\n?", written.toString("US-ASCII"));
+    }
+
+    @Test
+    public void formatsRupiah() {
+        ReceiptEncoder encoder = new ReceiptEncoder();
+        assertEquals("Rp0", encoder.formatRupiah(0));
+        assertEquals("Rp999", encoder.formatRupiah(999));
+        assertEquals("Rp1.000", encoder.formatRupiah(1000));
+        assertEquals("Rp1.234.567", encoder.formatRupiah(1234567));
+        assertEquals("-Rp5.000", encoder.formatRupiah(-5000));
+        assertEquals("Rp9.223.372.036.854.775.807", encoder.formatRupiah(Long.MAX_VALUE));
+        assertEquals("-Rp9.223.372.036.854.775.808", encoder.formatRupiah(Long.MIN_VALUE));
+    }
+
+    /** Ints are single bytes, strings are ASCII text. */
+    private static byte[] bytes(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object part : parts) {
+            if (part instanceof String) {
+                for (char c : ((String) part).toCharArray()) out.write(c);
+            } else if (part instanceof Character) {
+                out.write((Character) part);
+            } else {
+                out.write((Integer) part);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.laundryappui.search;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/** Matching, ranking, incremental updates and cancellation of {@link OrderSearchIndex}. */
+public class OrderSearchIndexTest {
+    private static final int CUSTOMERS = 4_999;
+    private static final long BASE = 1_700_000_000_000L;
+    private static final OrderSearchIndex.Cancellation NEVER = () -> false;
+    private static final String[] FIRST = {"Budi", "Siti", "Agus", "Dewi", "Rina", "Joko", "Wati", "Andi"};
+    private static final String[] LAST = {"Santoso", "Rahayu", "Wijaya", "Lestari", "Saputra", "Hidayat"};
+
+    @Test
+    public void ranksExactCodeFirstAndNewestOnTies() {
+        List<Customer> customers = createCustomers();
+        OrderSearchIndex index = new OrderSearchIndex();
+        for (int i = 0; i < 1_000; i++) {
+            Order order = createOrder(i);
+            index.put(order, customers.get((int) order.customerId - 1));
+        }
+
+        List<SearchHit> hits = index.search("LND-" + (BASE + 500 * 60_000L), 10, NEVER);
+        assertEquals(500 + 1, hits.get(0).orderId);
+
+        hits = index.search("budi", 5, NEVER);
+        assertEquals(5, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).createdAtMillis > hits.get(i).createdAtMillis);
+        }
+
+        // Every word must match some field.
+        for (SearchHit hit : index.search("budi dicuci", 50, NEVER)) {
+            assertEquals(OrderStatus.DICUCI.code, hit.status);
+            assertTrue(customers.get((int) hit.customerId - 1).name.startsWith("Budi"));
+        }
+        assertTrue(index.search("budi hilang", 50, NEVER).isEmpty());
+    }
+
+    @Test
+    public void updatesIncrementally() {
+        Customer budi = new Customer("Budi Santoso", "081234567890", "Jl. Melati 5");
+        budi.id = 1;
+        OrderSearchIndex index = new OrderSearchIndex();
+        Order order = createOrder(0);
+        order.customerId = 1;
+        order.status = OrderStatus.MASUK.code;
+        index.put(order, budi);
+
+        assertEquals(1, index.search("+62 812 3456", 10, NEVER).size());
+        assertEquals(1, index.search("masuk", 10, NEVER).size());
+        assertTrue(index.search("dicuci", 10, NEVER).isEmpty());
+
+        order.status = OrderStatus.DICUCI.code;
+        index.put(order, budi);
+        assertEquals(1, index.size());
+        assertTrue(index.search("masuk", 10, NEVER).isEmpty());
+        assertEquals(1, index.search("sedang dicuci", 10, NEVER).size());
+
+        Customer siti = new Customer("Siti Rahayu", "085700000001", "Jl. Mawar 1");
+        siti.id = 2;
+        order.customerId = 2;
+        index.put(order, siti);
+        assertTrue(index.search("budi", 10, NEVER).isEmpty());
+        assertEquals(2, index.search("rahayu", 10, NEVER).get(0).customerId);
+    }
+
+    @Test
+    public void cancelledQueryReturnsNull() {
+        List<Customer> customers = createCustomers();
+        OrderSearchIndex index = new OrderSearchIndex();
+        for (int i = 0; i < 10_000; i++) {
+            Order order = createOrder(i);
+            index.put(order, customers.get((int) order.customerId - 1));
+        }
+        assertNull(index.search("lnd", 50, () -> true));
+        assertNotNull(index.search("lnd", 50, NEVER));
+    }
+
+    private static List<Customer> createCustomers() {
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String name = FIRST[i % FIRST.length] + " " + LAST[(i / FIRST.length) % LAST.length] + " " + i;
+            Customer customer = new Customer(name, "0812" + String.format("%08d", i), "Jl. Contoh " + i);
+            customer.id = i + 1;
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    private static Order createOrder(int i) {
+        Order order = new Order();
+        order.id = i + 1;
+        order.customerId = (i * 7L) % CUSTOMERS + 1;
+        order.code = "LND-" + (BASE + i * 60_000L);
+        order.price = 21_000;
+        order.weightGrams = 3_000;
+        order.status = (byte) (i % 4);
+        order.createdAtMillis = BASE + i * 60_000L;
+        return order;
+    }
+}
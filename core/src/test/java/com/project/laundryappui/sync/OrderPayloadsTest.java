@@ -0,0 +1,108 @@
+package com.project.laundryappui.sync;
+
+import com.project.laundryappui.data.Customer;
+import com.project.laundryappui.data.Order;
+import com.project.laundryappui.data.OrderStatus;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OrderPayloadsTest {
+
+    @Test
+    public void orderRowCarriesLocalTimesInUtc() throws Exception {
+        Order order = order();
+        JSONObject row = new OrderPayloads().orderRows("tenant-1", Collections.singletonList(order),
+                Collections.singletonMap(order.customerId, "cust-1")).getJSONObject(0);
+        assertEquals("tenant-1", row.getString("tenant_id"));
+        assertEquals("LND-1", row.getString("kode"));
+        assertEquals("LND-1", row.getString("barcode_value"));
+        assertEquals(24_000, row.getLong("total_idr"));
+        assertEquals("selesai_dicuci", row.getString("status"));
+        assertEquals("2023-11-14T22:13:20.000Z", row.getString("created_at"));
+        assertEquals("2023-11-14T22:13:20.000Z", row.getString("details_updated_at"));
+        assertEquals("2023-11-14T23:13:20.000Z", row.getString("sedang_dicuci_at"));
+        assertEquals("2023-11-15T00:13:20.000Z", row.getString("selesai_dicuci_at"));
+        assertFalse(row.has("diambil_at"));
+    }
+
+    @Test
+    public void fullPayloadLinksEveryOrderToItsServerCustomer() throws Exception {
+        Customer budi = new Customer("Budi", "0812-3456-7890", "Jl. Melati 5");
+        budi.id = 3;
+        Customer siti = new Customer("Siti", "+62 857 0000 0001", null);
+        siti.id = 4;
+        OrderPayloads payloads = new OrderPayloads();
+
+        JSONArray customers = payloads.customerRows("tenant-1", Arrays.asList(budi, siti));
+        assertEquals(2, customers.length());
+        JSONObject first = customers.getJSONObject(0);
+        assertEquals("tenant-1", first.getString("tenant_id"));
+        assertEquals("Budi", first.getString("nama"));
+        assertEquals("6281234567890", first.getString("no_telepon"));
+        assertEquals("Jl. Melati 5", first.getString("alamat"));
+        assertEquals("6285700000001", customers.getJSONObject(1).getString("no_telepon"));
+
+        Order firstOrder = order();
+        firstOrder.customerId = 3;
+        firstOrder.weightGrams = 2_500;
+        Order second = order();
+        second.code = "LND-2";
+        second.customerId = 4;
+        second.weightGrams = 0;
+        Map<Long, String> serverIds = new HashMap<>();
+        serverIds.put(3L, "cust-budi");
+        serverIds.put(4L, "cust-siti");
+
+        JSONArray rows = payloads.orderRows("tenant-1", Arrays.asList(firstOrder, second), serverIds);
+        assertEquals(2, rows.length());
+        assertEquals("cust-budi", rows.getJSONObject(0).getString("customer_id"));
+        assertEquals(2.5, rows.getJSONObject(0).getDouble("berat_kg"), 0);
+        assertEquals("cust-siti", rows.getJSONObject(1).getString("customer_id"));
+        assertEquals(0, rows.getJSONObject(1).getDouble("berat_kg"), 0);
+    }
+
+    @Test(expected = JSONException.class)
+    public void orderWithoutServerCustomerIsRejected() throws Exception {
+        new OrderPayloads().orderRows("tenant-1", Collections.singletonList(order()),
+                Collections.<Long, String>emptyMap());
+    }
+
+    @Test
+    public void statusItemSendsVersionOnlyOnceKnown() throws Exception {
+        Order order = order();
+        OrderPayloads payloads = new OrderPayloads();
+        JSONObject item = payloads.statusItems(Collections.singletonList(order)).getJSONObject(0);
+        assertEquals("LND-1", item.getString("kode"));
+        assertEquals("selesai_dicuci", item.getString("status"));
+        assertFalse(item.has("versi"));
+        assertFalse(item.has("total_idr"));
+
+        order.version = 7;
+        item = payloads.statusItems(Collections.singletonList(order)).getJSONObject(0);
+        assertEquals(7, item.getLong("versi"));
+        assertEquals("2023-11-15T00:13:20.000Z", item.getString("selesai_dicuci_at"));
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.code = "LND-1";
+        order.customerId = 1;
+        order.price = 24_000;
+        order.status = OrderStatus.SELESAI.code;
+        order.createdAtMillis = 1_700_000_000_000L;
+        order.detailsUpdatedAtMillis = order.createdAtMillis;
+        order.washedAtMillis = order.createdAtMillis + 3_600_000L;
+        order.finishedAtMillis = order.createdAtMillis + 7_200_000L;
+        return order;
+    }
+}
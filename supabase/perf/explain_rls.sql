@@ -0,0 +1,229 @@
+-- EXPLAIN sebelum/sesudah untuk RLS dan index di schema.sql.
+--
+-- Jalankan di database uji yang sudah berisi schema.sql (mis. `supabase start`, lalu
+-- `psql "$DB_URL" -f supabase/perf/explain_rls.sql > explain.txt`). Jangan di produksi:
+-- skrip membuat ±500 ribu order uji dan semuanya di-rollback di akhir.
+--
+-- Yang dibandingkan, per query:
+--   SESUDAH  policy `tenant_id in (select public.user_tenant_ids())` → satu "InitPlan" /
+--            "hashed SubPlan" per statement, lalu Index Scan pada index baru.
+--   SEBELUM  policy `public.legacy_has_tenant_access(tenant_id)` → fungsi dievaluasi per baris
+--            (terlihat sebagai Filter pada Seq Scan), tanpa index komposit/parsial.
+-- Bandingkan "Execution Time" dan "Buffers" antara kedua bagian.
+--
+-- Hasilnya belum direkam (lihat README.md di folder ini); sampai ada, perbaikan performa
+-- policy/index di schema.sql belum terukur.
+
+\set ON_ERROR_STOP on
+\timing on
+
+begin;
+
+-- =========================
+-- DATA UJI
+-- =========================
+-- 100 tenant × (1.000 customer, 5.000 order, 1 log status per order); user uji punya akses
+-- ke 3 tenant. 90% order sudah diambil, seperti toko yang sudah berjalan lama.
+alter table public.orders disable trigger trg_orders_rollups;
+
+insert into auth.users (id, email)
+values ('00000000-0000-0000-0000-00000000e001', 'explain-rls@example.invalid');
+
+insert into public.profiles (id, nama, global_role)
+values ('00000000-0000-0000-0000-00000000e001', 'Explain RLS', 'kasir');
+
+insert into public.tenants (kode, nama)
+select 'EXPLAIN-' || t, 'Tenant uji ' || t
+from generate_series(1, 100) t;
+
+create temporary table explain_tenants on commit drop as
+select id, row_number() over (order by kode) as n
+from public.tenants
+where kode like 'EXPLAIN-%';
+
+insert into public.user_tenants (tenant_id, user_id, role)
+select id, '00000000-0000-0000-0000-00000000e001', 'kasir'
+from explain_tenants
+where n <= 3;
+
+insert into public.licenses (tenant_id, package, start_at, end_at)
+select id, 'tahunan', now() - interval '30 days', now() + interval '335 days'
+from explain_tenants;
+
+insert into public.customers (tenant_id, nama, no_telepon)
+select t.id, 'Pelanggan ' || c, '08' || lpad((t.n * 10000 + c)::text, 10, '0')
+from explain_tenants t, generate_series(1, 1000) c;
+
+insert into public.orders (tenant_id, kode, customer_id, berat_kg, total_idr, status, barcode_value, created_at)
+select
+  t.id,
+  'EXP-' || t.n || '-' || o,
+  (select c.id from public.customers c where c.tenant_id = t.id
+     and c.no_telepon = '08' || lpad((t.n * 10000 + 1 + o % 1000)::text, 10, '0')),
+  2.5,
+  20000 + (o % 7) * 5000,
+  case when o % 10 = 0 then 'pesanan_masuk'::public.order_status
+       when o % 10 < 9 then 'sudah_diambil'::public.order_status
+       else 'selesai_dicuci'::public.order_status end,
+  'EXP-' || t.n || '-' || o,
+  now() - (o || ' minutes')::interval * 50
+from explain_tenants t, generate_series(1, 5000) o;
+
+insert into public.order_status_logs (tenant_id, order_id, status_baru, created_at)
+select o.tenant_id, o.id, o.status, o.created_at
+from public.orders o
+join explain_tenants t on t.id = o.tenant_id;
+
+alter table public.orders enable trigger trg_orders_rollups;
+select public.rebuild_order_rollups();
+analyze;
+
+create temporary table explain_target on commit drop as
+select
+  (select id from explain_tenants where n = 1) as tenant_id,
+  (select o.id from public.orders o join explain_tenants t on t.id = o.tenant_id
+   where t.n = 1 order by o.created_at desc limit 1) as order_id;
+grant select on explain_target to authenticated;
+
+-- =========================
+-- SESUDAH (schema.sql saat ini)
+-- =========================
+-- Sebagai kasir biasa, seperti lewat PostgREST.
+set local role authenticated;
+select set_config('request.jwt.claims',
+  '{"sub":"00000000-0000-0000-0000-00000000e001","role":"authenticated"}', true);
+
+\echo '=== SESUDAH: order masuk per tenant ==='
+explain (analyze, buffers, costs off)
+select count(*) from public.orders
+where tenant_id = (select tenant_id from explain_target) and status = 'pesanan_masuk';
+
+\echo '=== SESUDAH: 50 order terbaru belum diambil ==='
+explain (analyze, buffers, costs off)
+select id, kode, status, created_at from public.orders
+where tenant_id = (select tenant_id from explain_target) and status <> 'sudah_diambil'
+order by created_at desc limit 50;
+
+\echo '=== SESUDAH: semua order yang terlihat user (biaya policy per baris) ==='
+explain (analyze, buffers, costs off)
+select count(*) from public.orders;
+
+\echo '=== SESUDAH: log status satu order ==='
+explain (analyze, buffers, costs off)
+select * from public.order_status_logs
+where order_id = (select order_id from explain_target) order by created_at;
+
+\echo '=== SESUDAH: status lisensi ==='
+explain (analyze, buffers, costs off)
+select public.license_effective_status(tenant_id) from explain_target;
+
+reset role;
+
+-- =========================
+-- SEBELUM (policy dan fungsi lama, tanpa index baru)
+-- =========================
+create or replace function public.legacy_is_global_admin()
+returns boolean
+language sql
+stable
+as $$
+  select coalesce((select p.global_role = 'admin' from public.profiles p where p.id = auth.uid()), false);
+$$;
+
+create or replace function public.legacy_has_tenant_access(target_tenant uuid)
+returns boolean
+language sql
+stable
+as $$
+  select
+    public.legacy_is_global_admin()
+    or exists (
+      select 1
+      from public.user_tenants ut
+      where ut.user_id = auth.uid()
+        and ut.tenant_id = target_tenant
+        and ut.is_active = true
+    );
+$$;
+
+create or replace function public.legacy_license_effective_status(target_tenant uuid)
+returns public.license_status
+language sql
+stable
+as $$
+  with latest as (
+    select l.*
+    from public.licenses l
+    where l.tenant_id = target_tenant
+      and l.is_active = true
+    order by l.end_at desc
+    limit 1
+  )
+  select case
+    when exists(select 1 from latest where now() <= end_at) then 'aktif'::public.license_status
+    when exists(select 1 from latest where now() > end_at and now() <= (end_at + (grace_days || ' days')::interval)) then 'masa_tenggang'::public.license_status
+    else 'kedaluwarsa'::public.license_status
+  end;
+$$;
+
+grant execute on function public.legacy_is_global_admin() to authenticated;
+grant execute on function public.legacy_has_tenant_access(uuid) to authenticated;
+grant execute on function public.legacy_license_effective_status(uuid) to authenticated;
+
+-- Policy lama profiles/user_tenants memanggil fungsi yang membaca tabel itu sendiri (rekursi);
+-- di sini dibuka saja agar bagian SEBELUM hanya mengukur biaya policy per baris.
+drop policy "profiles_read_self_or_admin" on public.profiles;
+create policy "profiles_read_self_or_admin" on public.profiles for select using (true);
+drop policy "user_tenants_select_scoped" on public.user_tenants;
+create policy "user_tenants_select_scoped" on public.user_tenants for select using (true);
+
+drop policy "orders_tenant_scoped" on public.orders;
+create policy "orders_tenant_scoped" on public.orders
+for all using (public.legacy_has_tenant_access(tenant_id))
+with check (public.legacy_has_tenant_access(tenant_id));
+
+drop policy "order_status_logs_tenant_scoped" on public.order_status_logs;
+create policy "order_status_logs_tenant_scoped" on public.order_status_logs
+for all using (public.legacy_has_tenant_access(tenant_id))
+with check (public.legacy_has_tenant_access(tenant_id));
+
+drop index public.idx_orders_tenant_status_created_at;
+drop index public.idx_orders_tenant_unpicked;
+drop index public.idx_order_status_logs_order;
+drop index public.idx_order_status_logs_tenant_created_at;
+drop index public.idx_licenses_tenant_active_end_at;
+drop index public.idx_user_tenants_user_active;
+analyze;
+
+-- Sebagai kasir biasa, seperti lewat PostgREST.
+set local role authenticated;
+select set_config('request.jwt.claims',
+  '{"sub":"00000000-0000-0000-0000-00000000e001","role":"authenticated"}', true);
+
+\echo '=== SEBELUM: order masuk per tenant ==='
+explain (analyze, buffers, costs off)
+select count(*) from public.orders
+where tenant_id = (select tenant_id from explain_target) and status = 'pesanan_masuk';
+
+\echo '=== SEBELUM: 50 order terbaru belum diambil ==='
+explain (analyze, buffers, costs off)
+select id, kode, status, created_at from public.orders
+where tenant_id = (select tenant_id from explain_target) and status <> 'sudah_diambil'
+order by created_at desc limit 50;
+
+\echo '=== SEBELUM: semua order yang terlihat user (biaya policy per baris) ==='
+explain (analyze, buffers, costs off)
+select count(*) from public.orders;
+
+\echo '=== SEBELUM: log status satu order ==='
+explain (analyze, buffers, costs off)
+select * from public.order_status_logs
+where order_id = (select order_id from explain_target) order by created_at;
+
+\echo '=== SEBELUM: status lisensi ==='
+explain (analyze, buffers, costs off)
+select public.legacy_license_effective_status(tenant_id) from explain_target;
+
+reset role;
+
+rollback;
@@ -111,17 +111,28 @@ create table if not exists public.orders (
   berat_kg numeric(10,2),
   total_idr bigint not null,
   status public.order_status not null default 'pesanan_masuk',
+  versi bigint not null default 1, -- naik di setiap update (trigger trg_orders_status_guard)
   barcode_value text not null,
   catatan text,
   created_by uuid references public.profiles(id),
   created_at timestamptz not null default now(),
   updated_at timestamptz not null default now(),
+  sedang_dicuci_at timestamptz,
   selesai_dicuci_at timestamptz,
   diambil_at timestamptz,
+  details_updated_at timestamptz not null default now(), -- hanya berubah bersama harga/berat/customer (trigger trg_orders_details_stamp)
   unique (tenant_id, kode),
   unique (tenant_id, barcode_value)
 );
 
+-- Untuk database yang dibuat sebelum kolom ini ada.
+alter table public.orders add column if not exists versi bigint not null default 1;
+alter table public.orders add column if not exists sedang_dicuci_at timestamptz;
+alter table public.orders add column if not exists details_updated_at timestamptz;
+update public.orders set details_updated_at = created_at where details_updated_at is null;
+alter table public.orders alter column details_updated_at set default now();
+alter table public.orders alter column details_updated_at set not null;
+
 create table if not exists public.order_status_logs (
   id uuid primary key default gen_random_uuid(),
   tenant_id uuid not null references public.tenants(id) on delete cascade,
@@ -147,68 +158,142 @@ create table if not exists public.wa_message_logs (
   created_at timestamptz not null default now()
 );
 
+-- =========================
+-- ROLLUP LAPORAN
+-- =========================
+-- Dipelihara trigger trg_orders_rollups per baris order, sehingga view laporan
+-- tidak perlu mengagregasi seluruh riwayat order di setiap query.
+create table if not exists public.rollup_harian (
+  tenant_id uuid not null references public.tenants(id) on delete cascade,
+  tanggal date not null, -- tanggal Asia/Jakarta dari orders.created_at
+  jumlah_order bigint not null default 0,
+  omzet_idr numeric not null default 0,
+  berat_kg numeric not null default 0,
+  jumlah_selesai_diambil bigint not null default 0,
+  primary key (tenant_id, tanggal)
+);
+
+create table if not exists public.rollup_customer (
+  tenant_id uuid not null references public.tenants(id) on delete cascade,
+  customer_id uuid not null references public.customers(id) on delete cascade,
+  total_order bigint not null default 0,
+  total_belanja_idr numeric not null default 0,
+  terakhir_order timestamptz,
+  primary key (tenant_id, customer_id)
+);
+
+-- Menghitung ulang terakhir_order saat order terbaru seorang customer pindah atau dihapus.
+create index if not exists idx_orders_customer_created_at on public.orders (customer_id, created_at desc);
+
+-- =========================
+-- INDEXES (jalur query utama)
+-- =========================
+-- Lookup keanggotaan RLS: user_tenant_ids() mencari per user, bukan per tenant.
+create index if not exists idx_user_tenants_user_active on public.user_tenants (user_id, tenant_id)
+  where is_active = true;
+-- Daftar/filter order per tenant + status, terbaru dulu.
+create index if not exists idx_orders_tenant_status_created_at on public.orders (tenant_id, status, created_at desc);
+-- v_order_belum_diambil: hanya order yang belum diambil, yang jumlahnya kecil dibanding riwayat.
+create index if not exists idx_orders_tenant_unpicked on public.orders (tenant_id, created_at desc)
+  where status <> 'sudah_diambil';
+create index if not exists idx_order_status_logs_order on public.order_status_logs (order_id, created_at);
+create index if not exists idx_order_status_logs_tenant_created_at on public.order_status_logs (tenant_id, created_at desc);
+create index if not exists idx_licenses_tenant_active_end_at on public.licenses (tenant_id, end_at desc)
+  where is_active = true;
+create index if not exists idx_payments_tenant_created_at on public.payments (tenant_id, created_at desc);
+create index if not exists idx_wa_message_logs_tenant_created_at on public.wa_message_logs (tenant_id, created_at desc);
+-- Change feed perangkat kasir: baris yang berubah sejak watermark, urut (updated_at, id).
+create index if not exists idx_orders_tenant_updated_at on public.orders (tenant_id, updated_at, id);
+create index if not exists idx_customers_tenant_updated_at on public.customers (tenant_id, updated_at, id);
+
 -- =========================
 -- FUNCTIONS
 -- =========================
+-- Helper RLS dibuat security definer agar query ke profiles/user_tenants di dalamnya tidak
+-- memicu policy tabel itu lagi. Policy memanggilnya lewat subquery
+-- (`(select public.is_global_admin())`, `tenant_id in (select public.user_tenant_ids())`)
+-- sehingga dievaluasi sekali per statement sebagai initplan/hashed subplan, bukan per baris.
 create or replace function public.is_global_admin()
 returns boolean
 language sql
 stable
+security definer
+set search_path = public
 as $$
-  select coalesce((select p.global_role = 'admin' from public.profiles p where p.id = auth.uid()), false);
+  select coalesce((select p.global_role = 'admin' from public.profiles p where p.id = (select auth.uid())), false);
 $$;
 
+-- Tenant aktif milik user saat ini.
+create or replace function public.user_tenant_ids()
+returns setof uuid
+language sql
+stable
+security definer
+set search_path = public
+as $$
+  select ut.tenant_id
+  from public.user_tenants ut
+  where ut.user_id = (select auth.uid())
+    and ut.is_active = true;
+$$;
+
+-- Tenant tempat user saat ini menjadi owner/admin.
+create or replace function public.managed_tenant_ids()
+returns setof uuid
+language sql
+stable
+security definer
+set search_path = public
+as $$
+  select ut.tenant_id
+  from public.user_tenants ut
+  where ut.user_id = (select auth.uid())
+    and ut.is_active = true
+    and ut.role in ('owner', 'admin');
+$$;
+
+-- Untuk pemeriksaan satu tenant di fungsi; policy memakai bentuk subquery di atas.
 create or replace function public.has_tenant_access(target_tenant uuid)
 returns boolean
 language sql
 stable
+security definer
+set search_path = public
 as $$
-  select
-    public.is_global_admin()
-    or exists (
-      select 1
-      from public.user_tenants ut
-      where ut.user_id = auth.uid()
-        and ut.tenant_id = target_tenant
-        and ut.is_active = true
-    );
+  select public.is_global_admin() or target_tenant in (select public.user_tenant_ids());
 $$;
 
 create or replace function public.can_manage_tenant_users(target_tenant uuid)
 returns boolean
 language sql
 stable
+security definer
+set search_path = public
 as $$
-  select
-    public.is_global_admin()
-    or exists (
-      select 1
-      from public.user_tenants ut
-      where ut.user_id = auth.uid()
-        and ut.tenant_id = target_tenant
-        and ut.is_active = true
-        and ut.role in ('owner', 'admin')
-    );
+  select public.is_global_admin() or target_tenant in (select public.managed_tenant_ids());
 $$;
 
+-- Satu probe ke idx_licenses_tenant_active_end_at: lisensi aktif dengan end_at terbaru.
 create or replace function public.license_effective_status(target_tenant uuid)
 returns public.license_status
 language sql
 stable
 as $$
-  with latest as (
-    select l.*
-    from public.licenses l
-    where l.tenant_id = target_tenant
-      and l.is_active = true
-    order by l.end_at desc
-    limit 1
-  )
   select case
-    when exists(select 1 from latest where now() <= end_at) then 'aktif'::public.license_status
-    when exists(select 1 from latest where now() > end_at and now() <= (end_at + (grace_days || ' days')::interval)) then 'masa_tenggang'::public.license_status
+    when l.end_at is null then 'kedaluwarsa'::public.license_status
+    when now() <= l.end_at then 'aktif'::public.license_status
+    when now() <= l.end_at + make_interval(days => l.grace_days) then 'masa_tenggang'::public.license_status
     else 'kedaluwarsa'::public.license_status
-  end;
+  end
+  from (select 1) as one
+  left join lateral (
+    select lic.end_at, lic.grace_days
+    from public.licenses lic
+    where lic.tenant_id = target_tenant
+      and lic.is_active = true
+    order by lic.end_at desc
+    limit 1
+  ) l on true;
 $$;
 
 create or replace function public.update_order_status(
@@ -239,6 +324,10 @@ begin
 
   v_old_status := v_order.status;
 
+  if p_new_status < v_old_status then
+    raise exception 'Status hanya bisa maju';
+  end if;
+
   update public.orders
   set status = p_new_status,
       updated_at = now(),
@@ -254,6 +343,328 @@ begin
 end;
 $$;
 
+-- Versi batch update_order_status untuk banyak order satu tenant (mis. pengambilan beruntun).
+-- p_items: [{"kode": "...", "status": "sudah_diambil", "versi": 3, "sedang_dicuci_at": "...",
+-- "selesai_dicuci_at": "...", "diambil_at": "..."}, ...]; versi dan waktu status opsional,
+-- kode ganda memakai item terakhir. Akses dan lisensi dicek sekali; update dan log status
+-- dilakukan dalam satu statement.
+-- Status hanya maju dan waktu status memakai yang paling awal, jadi dua kasir yang memindai
+-- order yang sama berakhir di hasil yang sama apa pun urutannya.
+-- Hasil per item (urut seperti p_items):
+--   diperbarui        status/waktu diterima, versi pengirim masih terbaru
+--   digabung          diterima, tetapi order sudah diubah perangkat lain sejak versi pengirim
+--   usang             server sudah di status yang lebih lanjut; status pengirim diabaikan
+--   tidak_berubah     tidak ada yang baru
+--   tidak_ditemukan | status_tidak_valid
+-- Kolom versi berisi versi order setelah panggilan. Aman diulang: item tanpa perubahan tidak
+-- menulis apa-apa.
+drop function if exists public.update_order_statuses(uuid, jsonb, text);
+create or replace function public.update_order_statuses(
+  p_tenant_id uuid,
+  p_items jsonb,
+  p_note text default null
+)
+returns table (
+  kode text, order_id uuid, status_lama public.order_status, status_baru public.order_status, hasil text, versi bigint
+)
+language plpgsql
+security definer
+set search_path = public
+as $$
+#variable_conflict use_column
+begin
+  if not public.has_tenant_access(p_tenant_id) then
+    raise exception 'Tidak punya akses tenant';
+  end if;
+
+  if public.license_effective_status(p_tenant_id) <> 'aktif' then
+    raise exception 'Lisensi tidak aktif, mode baca saja';
+  end if;
+
+  return query
+  with items as (
+    select distinct on (e.item->>'kode')
+      e.ord,
+      e.item->>'kode' as kode,
+      (select v from unnest(enum_range(null::public.order_status)) v where v::text = e.item->>'status') as new_status,
+      (e.item->>'versi')::bigint as versi,
+      (e.item->>'sedang_dicuci_at')::timestamptz as sedang_dicuci_at,
+      (e.item->>'selesai_dicuci_at')::timestamptz as selesai_dicuci_at,
+      (e.item->>'diambil_at')::timestamptz as diambil_at
+    from jsonb_array_elements(p_items) with ordinality as e(item, ord)
+    order by e.item->>'kode', e.ord desc
+  ),
+  locked as (
+    select o.id, o.kode, o.status as old_status, o.versi as old_versi,
+      o.sedang_dicuci_at, o.selesai_dicuci_at, o.diambil_at
+    from public.orders o
+    join items i on i.kode = o.kode
+    where o.tenant_id = p_tenant_id
+    order by o.id
+    for update of o
+  ),
+  updated as (
+    -- trg_orders_status_guard menjaga status tidak mundur, waktu status yang paling awal,
+    -- dan menaikkan versi.
+    update public.orders o
+    set status = greatest(i.new_status, l.old_status),
+        sedang_dicuci_at = i.sedang_dicuci_at,
+        selesai_dicuci_at = i.selesai_dicuci_at,
+        diambil_at = i.diambil_at
+    from locked l
+    join items i on i.kode = l.kode
+    where o.id = l.id
+      and i.new_status is not null
+      and (i.new_status > l.old_status
+        or i.sedang_dicuci_at < coalesce(l.sedang_dicuci_at, 'infinity')
+        or i.selesai_dicuci_at < coalesce(l.selesai_dicuci_at, 'infinity')
+        or i.diambil_at < coalesce(l.diambil_at, 'infinity'))
+    returning o.id, o.tenant_id, l.old_status, o.status as new_status, o.versi
+  ),
+  logged as (
+    insert into public.order_status_logs (tenant_id, order_id, status_lama, status_baru, catatan, changed_by)
+    select u.tenant_id, u.id, u.old_status, u.new_status, p_note, (select auth.uid())
+    from updated u
+    where u.new_status <> u.old_status
+    returning 1
+  )
+  select
+    i.kode,
+    l.id,
+    l.old_status,
+    coalesce(u.new_status, l.old_status),
+    case
+      when i.new_status is null then 'status_tidak_valid'
+      when l.id is null then 'tidak_ditemukan'
+      when i.new_status < l.old_status then 'usang'
+      when u.id is null then 'tidak_berubah'
+      when i.versi is not null and i.versi <> l.old_versi then 'digabung'
+      else 'diperbarui'
+    end,
+    coalesce(u.versi, l.old_versi)
+  from items i
+  left join locked l on l.kode = i.kode
+  left join updated u on u.id = l.id
+  order by i.ord;
+end;
+$$;
+
+create or replace function public.add_order_to_rollups(o public.orders)
+returns void
+language sql
+security definer
+set search_path = public
+as $$
+  insert into public.rollup_harian as r (tenant_id, tanggal, jumlah_order, omzet_idr, berat_kg, jumlah_selesai_diambil)
+  values (
+    o.tenant_id, (o.created_at at time zone 'Asia/Jakarta')::date, 1, o.total_idr, coalesce(o.berat_kg, 0),
+    (o.status = 'sudah_diambil')::int
+  )
+  on conflict (tenant_id, tanggal) do update
+  set jumlah_order = r.jumlah_order + 1,
+      omzet_idr = r.omzet_idr + excluded.omzet_idr,
+      berat_kg = r.berat_kg + excluded.berat_kg,
+      jumlah_selesai_diambil = r.jumlah_selesai_diambil + excluded.jumlah_selesai_diambil;
+
+  insert into public.rollup_customer as r (tenant_id, customer_id, total_order, total_belanja_idr, terakhir_order)
+  values (o.tenant_id, o.customer_id, 1, o.total_idr, o.created_at)
+  on conflict (tenant_id, customer_id) do update
+  set total_order = r.total_order + 1,
+      total_belanja_idr = r.total_belanja_idr + excluded.total_belanja_idr,
+      terakhir_order = greatest(r.terakhir_order, excluded.terakhir_order);
+$$;
+
+-- Hanya update/delete, tidak pernah insert: saat tenant dihapus, rollup-nya sudah ikut terhapus.
+create or replace function public.remove_order_from_rollups(o public.orders)
+returns void
+language sql
+security definer
+set search_path = public
+as $$
+  update public.rollup_harian
+  set jumlah_order = jumlah_order - 1,
+      omzet_idr = omzet_idr - o.total_idr,
+      berat_kg = berat_kg - coalesce(o.berat_kg, 0),
+      jumlah_selesai_diambil = jumlah_selesai_diambil - (o.status = 'sudah_diambil')::int
+  where tenant_id = o.tenant_id and tanggal = (o.created_at at time zone 'Asia/Jakarta')::date;
+
+  delete from public.rollup_harian
+  where tenant_id = o.tenant_id and tanggal = (o.created_at at time zone 'Asia/Jakarta')::date
+    and jumlah_order = 0;
+
+  update public.rollup_customer
+  set total_order = total_order - 1,
+      total_belanja_idr = total_belanja_idr - o.total_idr
+  where tenant_id = o.tenant_id and customer_id = o.customer_id;
+
+  delete from public.rollup_customer
+  where tenant_id = o.tenant_id and customer_id = o.customer_id and total_order = 0;
+
+  -- Hanya bila order ini yang terbaru, terakhir_order dicari ulang lewat index customer.
+  update public.rollup_customer r
+  set terakhir_order = (
+    select max(x.created_at) from public.orders x
+    where x.customer_id = o.customer_id and x.tenant_id = o.tenant_id
+  )
+  where r.tenant_id = o.tenant_id and r.customer_id = o.customer_id
+    and r.terakhir_order <= o.created_at;
+$$;
+
+create or replace function public.apply_order_rollups()
+returns trigger
+language plpgsql
+security definer
+set search_path = public
+as $$
+begin
+  if tg_op = 'UPDATE' then
+    if old.tenant_id = new.tenant_id
+       and old.customer_id = new.customer_id
+       and old.created_at = new.created_at then
+      -- Jalur umum (perubahan status/harga): baris rollup yang sama, cukup selisihnya.
+      if old.status = new.status
+         and old.total_idr = new.total_idr
+         and old.berat_kg is not distinct from new.berat_kg then
+        return null;
+      end if;
+
+      update public.rollup_harian
+      set omzet_idr = omzet_idr + new.total_idr - old.total_idr,
+          berat_kg = berat_kg + coalesce(new.berat_kg, 0) - coalesce(old.berat_kg, 0),
+          jumlah_selesai_diambil = jumlah_selesai_diambil
+            + (new.status = 'sudah_diambil')::int - (old.status = 'sudah_diambil')::int
+      where tenant_id = new.tenant_id
+        and tanggal = (new.created_at at time zone 'Asia/Jakarta')::date;
+
+      if new.total_idr <> old.total_idr then
+        update public.rollup_customer
+        set total_belanja_idr = total_belanja_idr + new.total_idr - old.total_idr
+        where tenant_id = new.tenant_id and customer_id = new.customer_id;
+      end if;
+      return null;
+    end if;
+
+    perform public.remove_order_from_rollups(old);
+    perform public.add_order_to_rollups(new);
+  elsif tg_op = 'INSERT' then
+    perform public.add_order_to_rollups(new);
+  else
+    perform public.remove_order_from_rollups(old);
+  end if;
+  return null;
+end;
+$$;
+
+-- Backfill: menghitung ulang rollup dari tabel orders (semua tenant bila p_tenant_id null).
+-- Menahan penulisan order sampai transaksi selesai agar tidak ada delta trigger yang hilang
+-- atau terhitung dua kali; jalankan di luar jam sibuk.
+create or replace function public.rebuild_order_rollups(p_tenant_id uuid default null)
+returns void
+language plpgsql
+security definer
+set search_path = public
+as $$
+begin
+  lock table public.orders in share mode;
+
+  delete from public.rollup_harian where p_tenant_id is null or tenant_id = p_tenant_id;
+  delete from public.rollup_customer where p_tenant_id is null or tenant_id = p_tenant_id;
+
+  insert into public.rollup_harian (tenant_id, tanggal, jumlah_order, omzet_idr, berat_kg, jumlah_selesai_diambil)
+  select
+    o.tenant_id,
+    (o.created_at at time zone 'Asia/Jakarta')::date,
+    count(*),
+    sum(o.total_idr),
+    coalesce(sum(o.berat_kg), 0),
+    count(*) filter (where o.status = 'sudah_diambil')
+  from public.orders o
+  where p_tenant_id is null or o.tenant_id = p_tenant_id
+  group by o.tenant_id, (o.created_at at time zone 'Asia/Jakarta')::date;
+
+  insert into public.rollup_customer (tenant_id, customer_id, total_order, total_belanja_idr, terakhir_order)
+  select o.tenant_id, o.customer_id, count(*), sum(o.total_idr), max(o.created_at)
+  from public.orders o
+  where p_tenant_id is null or o.tenant_id = p_tenant_id
+  group by o.tenant_id, o.customer_id;
+end;
+$$;
+
+-- Pemeriksa konsistensi: membandingkan rollup dengan agregasi langsung dari orders
+-- (definisi view laporan sebelum memakai rollup). Hasil kosong berarti konsisten.
+create or replace function public.check_order_rollups(p_tenant_id uuid default null)
+returns table (rollup text, tenant_id uuid, kunci text, seharusnya jsonb, tercatat jsonb)
+language sql
+stable
+security definer
+set search_path = public
+as $$
+  with live_harian as (
+    select
+      o.tenant_id,
+      (o.created_at at time zone 'Asia/Jakarta')::date as tanggal,
+      count(*) as jumlah_order,
+      sum(o.total_idr) as omzet_idr,
+      coalesce(sum(o.berat_kg), 0) as berat_kg,
+      count(*) filter (where o.status = 'sudah_diambil') as jumlah_selesai_diambil
+    from public.orders o
+    where p_tenant_id is null or o.tenant_id = p_tenant_id
+    group by o.tenant_id, (o.created_at at time zone 'Asia/Jakarta')::date
+  ),
+  stored_harian as (
+    select r.tenant_id, r.tanggal, r.jumlah_order, r.omzet_idr, r.berat_kg, r.jumlah_selesai_diambil
+    from public.rollup_harian r
+    where p_tenant_id is null or r.tenant_id = p_tenant_id
+  ),
+  live_customer as (
+    select o.tenant_id, o.customer_id, count(*) as total_order, sum(o.total_idr) as total_belanja_idr,
+           max(o.created_at) as terakhir_order
+    from public.orders o
+    where p_tenant_id is null or o.tenant_id = p_tenant_id
+    group by o.tenant_id, o.customer_id
+  ),
+  stored_customer as (
+    select r.tenant_id, r.customer_id, r.total_order, r.total_belanja_idr, r.terakhir_order
+    from public.rollup_customer r
+    where p_tenant_id is null or r.tenant_id = p_tenant_id
+  )
+  select
+    'rollup_harian',
+    coalesce(l.tenant_id, s.tenant_id),
+    coalesce(l.tanggal, s.tanggal)::text,
+    case when l.tenant_id is not null then jsonb_build_object(
+      'jumlah_order', l.jumlah_order, 'omzet_idr', l.omzet_idr, 'berat_kg', l.berat_kg,
+      'jumlah_selesai_diambil', l.jumlah_selesai_diambil) end,
+    case when s.tenant_id is not null then jsonb_build_object(
+      'jumlah_order', s.jumlah_order, 'omzet_idr', s.omzet_idr, 'berat_kg', s.berat_kg,
+      'jumlah_selesai_diambil', s.jumlah_selesai_diambil) end
+  from live_harian l
+  full join stored_harian s on s.tenant_id = l.tenant_id and s.tanggal = l.tanggal
+  where (l.jumlah_order, l.omzet_idr, l.berat_kg, l.jumlah_selesai_diambil)
+    is distinct from (s.jumlah_order, s.omzet_idr, s.berat_kg, s.jumlah_selesai_diambil)
+  union all
+  select
+    'rollup_customer',
+    coalesce(l.tenant_id, s.tenant_id),
+    coalesce(l.customer_id, s.customer_id)::text,
+    case when l.tenant_id is not null then jsonb_build_object(
+      'total_order', l.total_order, 'total_belanja_idr', l.total_belanja_idr,
+      'terakhir_order', l.terakhir_order) end,
+    case when s.tenant_id is not null then jsonb_build_object(
+      'total_order', s.total_order, 'total_belanja_idr', s.total_belanja_idr,
+      'terakhir_order', s.terakhir_order) end
+  from live_customer l
+  full join stored_customer s on s.tenant_id = l.tenant_id and s.customer_id = l.customer_id
+  where (l.total_order, l.total_belanja_idr, l.terakhir_order)
+    is distinct from (s.total_order, s.total_belanja_idr, s.terakhir_order);
+$$;
+
+-- Fungsi pemeliharaan: hanya untuk service_role / SQL editor, bukan untuk aplikasi.
+revoke execute on function public.add_order_to_rollups(public.orders) from public, anon, authenticated;
+revoke execute on function public.remove_order_from_rollups(public.orders) from public, anon, authenticated;
+revoke execute on function public.rebuild_order_rollups(uuid) from public, anon, authenticated;
+revoke execute on function public.check_order_rollups(uuid) from public, anon, authenticated;
+
 -- =========================
 -- TRIGGERS
 -- =========================
@@ -267,6 +678,51 @@ begin
 end;
 $$;
 
+-- Status order hanya maju dan setiap waktu status menyimpan yang paling awal, siapa pun
+-- penulisnya (upsert aplikasi, update_order_status, update manual). Setiap update menaikkan
+-- versi, yang dipakai aplikasi untuk tahu ada perubahan dari perangkat lain.
+create or replace function public.guard_order_status()
+returns trigger
+language plpgsql
+as $$
+begin
+  new.status = greatest(old.status, new.status);
+  new.sedang_dicuci_at = least(old.sedang_dicuci_at, new.sedang_dicuci_at);
+  new.selesai_dicuci_at = least(old.selesai_dicuci_at, new.selesai_dicuci_at);
+  new.diambil_at = least(old.diambil_at, new.diambil_at);
+
+  if new.status = 'sedang_dicuci' and new.sedang_dicuci_at is null then
+    new.sedang_dicuci_at = now();
+  elsif new.status = 'selesai_dicuci' and new.selesai_dicuci_at is null then
+    new.selesai_dicuci_at = now();
+  elsif new.status = 'sudah_diambil' and new.diambil_at is null then
+    new.diambil_at = now();
+  end if;
+
+  new.versi = old.versi + 1;
+  return new;
+end;
+$$;
+
+-- updated_at naik di setiap perubahan, termasuk status. Aplikasi menggabungkan harga, berat
+-- dan customer dengan last-writer-wins, jadi butuh cap waktu yang hanya bergerak bersama
+-- kolom-kolom itu. Nilai dari klien dipakai saat insert; sesudahnya hanya trigger yang mengubahnya.
+create or replace function public.stamp_order_details()
+returns trigger
+language plpgsql
+as $$
+begin
+  if new.total_idr is distinct from old.total_idr
+     or new.berat_kg is distinct from old.berat_kg
+     or new.customer_id is distinct from old.customer_id then
+    new.details_updated_at = now();
+  else
+    new.details_updated_at = old.details_updated_at;
+  end if;
+  return new;
+end;
+$$;
+
 create trigger trg_tenants_updated_at before update on public.tenants
 for each row execute procedure public.set_updated_at();
 
@@ -285,6 +741,17 @@ for each row execute procedure public.set_updated_at();
 create trigger trg_orders_updated_at before update on public.orders
 for each row execute procedure public.set_updated_at();
 
+create trigger trg_orders_status_guard before update on public.orders
+for each row execute procedure public.guard_order_status();
+
+create trigger trg_orders_details_stamp before update on public.orders
+for each row execute procedure public.stamp_order_details();
+
+create trigger trg_orders_rollups
+after insert or delete or update of tenant_id, customer_id, created_at, total_idr, berat_kg, status
+on public.orders
+for each row execute procedure public.apply_order_rollups();
+
 -- =========================
 -- RLS
 -- =========================
@@ -298,68 +765,79 @@ alter table public.customers enable row level security;
 alter table public.orders enable row level security;
 alter table public.order_status_logs enable row level security;
 alter table public.wa_message_logs enable row level security;
+alter table public.rollup_harian enable row level security;
+alter table public.rollup_customer enable row level security;
 
 -- Profiles
 create policy "profiles_read_self_or_admin" on public.profiles
-for select using (id = auth.uid() or public.is_global_admin());
+for select using (id = (select auth.uid()) or (select public.is_global_admin()));
 
 create policy "profiles_update_self_or_admin" on public.profiles
-for update using (id = auth.uid() or public.is_global_admin())
-with check (id = auth.uid() or public.is_global_admin());
+for update using (id = (select auth.uid()) or (select public.is_global_admin()))
+with check (id = (select auth.uid()) or (select public.is_global_admin()));
 
 -- Tenants
 create policy "tenants_select_by_access" on public.tenants
-for select using (public.has_tenant_access(id));
+for select using ((select public.is_global_admin()) or id in (select public.user_tenant_ids()));
 
 -- User-tenants
 create policy "user_tenants_select_scoped" on public.user_tenants
-for select using (public.has_tenant_access(tenant_id));
+for select using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "user_tenants_manage_owner_admin" on public.user_tenants
-for all using (public.can_manage_tenant_users(tenant_id))
-with check (public.can_manage_tenant_users(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.managed_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.managed_tenant_ids()));
 
 -- Generic tenant-scoped policies
 create policy "licenses_tenant_scoped" on public.licenses
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "payments_tenant_scoped" on public.payments
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "services_tenant_scoped" on public.services
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "customers_tenant_scoped" on public.customers
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "orders_tenant_scoped" on public.orders
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "order_status_logs_tenant_scoped" on public.order_status_logs
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 create policy "wa_message_logs_tenant_scoped" on public.wa_message_logs
-for all using (public.has_tenant_access(tenant_id))
-with check (public.has_tenant_access(tenant_id));
+for all using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()))
+with check ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
+
+-- Rollup hanya ditulis oleh trigger (security definer); pengguna cukup membaca.
+create policy "rollup_harian_select_scoped" on public.rollup_harian
+for select using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
+
+create policy "rollup_customer_select_scoped" on public.rollup_customer
+for select using ((select public.is_global_admin()) or tenant_id in (select public.user_tenant_ids()));
 
 -- =========================
 -- REPORTING VIEWS
 -- =========================
+-- v_laporan_harian dan v_repeat_customer membaca rollup; kolomnya sama seperti saat
+-- masih mengagregasi orders (berat_kg ditambahkan di akhir).
 create or replace view public.v_laporan_harian as
 select
-  o.tenant_id,
-  (o.created_at at time zone 'Asia/Jakarta')::date as tanggal,
-  count(*) as jumlah_order,
-  sum(o.total_idr) as omzet_idr,
-  count(*) filter (where o.status = 'sudah_diambil') as jumlah_selesai_diambil
-from public.orders o
-group by o.tenant_id, (o.created_at at time zone 'Asia/Jakarta')::date;
+  r.tenant_id,
+  r.tanggal,
+  r.jumlah_order,
+  r.omzet_idr,
+  r.jumlah_selesai_diambil,
+  r.berat_kg
+from public.rollup_harian r;
 
 create or replace view public.v_order_belum_diambil as
 select
@@ -377,13 +855,15 @@ where o.status <> 'sudah_diambil';
 
 create or replace view public.v_repeat_customer as
 select
-  o.tenant_id,
-  o.customer_id,
+  r.tenant_id,
+  r.customer_id,
   c.nama,
   c.no_telepon,
-  count(*) as total_order,
-  sum(o.total_idr) as total_belanja_idr,
-  max(o.created_at) as terakhir_order
-from public.orders o
-join public.customers c on c.id = o.customer_id
-group by o.tenant_id, o.customer_id, c.nama, c.no_telepon;
+  r.total_order,
+  r.total_belanja_idr,
+  r.terakhir_order
+from public.rollup_customer r
+join public.customers c on c.id = r.customer_id;
+
+-- Isi rollup dari order yang sudah ada (tidak berpengaruh pada database baru).
+select public.rebuild_order_rollups();